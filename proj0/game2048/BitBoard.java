@@ -0,0 +1,210 @@
+package game2048;
+
+/** Operations on a 4x4 2048 board packed into a single long.
+ *
+ *  Each square is a 4-bit field holding the base-2 logarithm of the value
+ *  of its tile (0 for an empty square).  Square (COL, ROW), with the same
+ *  coordinates as Board.tile, occupies bits 4 * (4 * ROW + COL) through
+ *  4 * (4 * ROW + COL) + 3.  Row ROW is thus the 16-bit field starting at
+ *  bit 16 * ROW, with column 0 in its low-order nibble.
+ *
+ *  Tilts are computed a row at a time by table lookup (see RowTables), so
+ *  a tilt is four lookups, plus two transposes for NORTH and SOUTH, and
+ *  none of the operations here allocate.
+ */
+public final class BitBoard {
+
+    /** Number of squares on a side of a packed board. */
+    public static final int SIZE = 4;
+
+    /** Largest exponent that fits in a square. */
+    static final int MAX_EXPONENT = 15;
+
+    /** Tables of the results of sliding rows (see RowTables), built or
+     *  loaded when BitBoard is first used.  ROW_LEFT[R] and ROW_RIGHT[R]
+     *  are row R slid toward column 0 and toward column 3, ROW_SCORE[R]
+     *  the score gained either way, and ROW_MOVED_LEFT[R] and
+     *  ROW_MOVED_RIGHT[R] the numbers of tiles that change position. */
+    private static final RowTables TABLES = RowTables.get();
+    private static final char[] ROW_LEFT = TABLES.left;
+    private static final char[] ROW_RIGHT = TABLES.right;
+    private static final int[] ROW_SCORE = TABLES.score;
+    private static final byte[]
+        ROW_MOVED_LEFT = TABLES.movedLeft,
+        ROW_MOVED_RIGHT = TABLES.movedRight;
+
+    /** Not instantiable. */
+    private BitBoard() {
+    }
+
+    /** Return the position of the low-order bit of square (COL, ROW). */
+    private static int shift(int col, int row) {
+        return 4 * (SIZE * row + col);
+    }
+
+    /** Return BOARD with its rows and columns exchanged, so that the
+     *  square at (COL, ROW) moves to (ROW, COL). */
+    public static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    /** Return BOARD with each of its rows replaced using TABLE. */
+    private static long slideRows(long board, char[] table) {
+        long result = 0;
+        for (int row = 0; row < SIZE; row += 1) {
+            int bits = (int) (board >>> (16 * row)) & 0xffff;
+            result |= (long) table[bits] << (16 * row);
+        }
+        return result;
+    }
+
+    /** Return BOARD tilted toward SIDE. */
+    public static long tilt(long board, Side side) {
+        return switch (side) {
+            case WEST -> slideRows(board, ROW_LEFT);
+            case EAST -> slideRows(board, ROW_RIGHT);
+            case NORTH -> transpose(slideRows(transpose(board), ROW_RIGHT));
+            case SOUTH -> transpose(slideRows(transpose(board), ROW_LEFT));
+        };
+    }
+
+    /** Return the score gained by tilting BOARD toward SIDE. */
+    public static int score(long board, Side side) {
+        if (side == Side.NORTH || side == Side.SOUTH) {
+            board = transpose(board);
+        }
+        int score = 0;
+        for (int row = 0; row < SIZE; row += 1) {
+            score += ROW_SCORE[(int) (board >>> (16 * row)) & 0xffff];
+        }
+        return score;
+    }
+
+    /** Return the number of tiles on BOARD that change position when it
+     *  is tilted toward SIDE, including tiles that merge. */
+    public static int tilesMoved(long board, Side side) {
+        byte[] table;
+        if (side == Side.NORTH || side == Side.SOUTH) {
+            board = transpose(board);
+            table = side == Side.NORTH ? ROW_MOVED_RIGHT : ROW_MOVED_LEFT;
+        } else {
+            table = side == Side.EAST ? ROW_MOVED_RIGHT : ROW_MOVED_LEFT;
+        }
+        int moved = 0;
+        for (int row = 0; row < SIZE; row += 1) {
+            moved += table[(int) (board >>> (16 * row)) & 0xffff];
+        }
+        return moved;
+    }
+
+    /** Return the exponent of the tile at (COL, ROW) of BOARD, or 0 if
+     *  that square is empty. */
+    public static int exponent(long board, int col, int row) {
+        return (int) (board >>> shift(col, row)) & 0xf;
+    }
+
+    /** Return the value of the tile at (COL, ROW) of BOARD, or 0 if that
+     *  square is empty. */
+    public static int value(long board, int col, int row) {
+        int e = exponent(board, col, row);
+        return e == 0 ? 0 : 1 << e;
+    }
+
+    /** Return the Tile at (COL, ROW) of BOARD, or null if there is none.
+     *  The Tile is created afresh on each call. */
+    public static Tile tile(long board, int col, int row) {
+        int v = value(board, col, row);
+        return v == 0 ? null : Tile.create(v, col, row);
+    }
+
+    /** Return BOARD with the square at (COL, ROW) set to hold VALUE, which
+     *  must be 0 or a power of two no larger than 2 ** MAX_EXPONENT. */
+    public static long place(long board, int value, int col, int row) {
+        int e = value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+        if (e > MAX_EXPONENT || (value != 0 && value != 1 << e)) {
+            throw new IllegalArgumentException("cannot pack tile value "
+                                               + value);
+        }
+        int s = shift(col, row);
+        return (board & ~(0xfL << s)) | ((long) e << s);
+    }
+
+    /** Return a packed board where RAWVALUES hold the values of the tiles
+     *  (0 for empty), indexed as for Board(int[][]). */
+    public static long fromValues(int[][] rawValues) {
+        if (rawValues.length != SIZE) {
+            throw new IllegalArgumentException("packed boards must be 4x4");
+        }
+        long board = 0;
+        for (int col = 0; col < SIZE; col += 1) {
+            for (int row = 0; row < SIZE; row += 1) {
+                board = place(board, rawValues[SIZE - 1 - row][col],
+                              col, row);
+            }
+        }
+        return board;
+    }
+
+    /** Return the number of empty squares on BOARD. */
+    public static int emptyCount(long board) {
+        board |= (board >>> 2) & 0x3333333333333333L;
+        board |= board >>> 1;
+        return Long.bitCount(~board & 0x1111111111111111L);
+    }
+
+    /** Return the number, 4 * ROW + COL, of the Kth empty square (COL,
+     *  ROW) of BOARD in increasing order of those numbers, counting from
+     *  0, where 0 <= K < emptyCount(BOARD). */
+    public static int emptySquare(long board, int k) {
+        board |= (board >>> 2) & 0x3333333333333333L;
+        board |= board >>> 1;
+        long empty = ~board & 0x1111111111111111L;
+        for (; k > 0; k -= 1) {
+            empty &= empty - 1;
+        }
+        return Long.numberOfTrailingZeros(empty) >>> 2;
+    }
+
+    /** Return the largest exponent on BOARD (0 if BOARD is empty). */
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (; board != 0; board >>>= 4) {
+            max = Math.max(max, (int) board & 0xf);
+        }
+        return max;
+    }
+
+    /** Return true iff some tilt of BOARD would change it: there is an
+     *  empty square, or two adjacent tiles with the same value. */
+    public static boolean atLeastOneMoveExists(long board) {
+        if (emptyCount(board) > 0) {
+            return true;
+        }
+        long transposed = transpose(board);
+        for (int row = 0; row < SIZE; row += 1) {
+            for (int col = 0; col < SIZE - 1; col += 1) {
+                if (exponent(board, col, row) == exponent(board, col + 1, row)
+                    || exponent(transposed, col, row)
+                       == exponent(transposed, col + 1, row)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Return true iff the game on BOARD is over: a tile with value
+     *  Model.MAX_PIECE is present, or no move is possible. */
+    public static boolean gameOver(long board) {
+        return maxExponent(board)
+                >= Integer.numberOfTrailingZeros(Model.MAX_PIECE)
+            || !atLeastOneMoveExists(board);
+    }
+}
@@ -12,10 +12,19 @@ public class Board implements Iterable<Tile> {
     private final Tile[][] _values;
     /** Side that the board currently views as north. */
     private Side _viewPerspective;
+    /** Number of empty squares. */
+    private int _emptyCount;
+    /** Largest tile value on the board (0 if none).  Tiles only ever
+     *  leave the board by merging into a larger one, so this only
+     *  decreases when the board is cleared. */
+    private int _maxValue;
+    /** Number of pairs of adjacent tiles with equal values. */
+    private int _equalPairs;
 
     public Board(int size) {
         _values = new Tile[size][size];
         _viewPerspective = Side.NORTH;
+        _emptyCount = size * size;
     }
 
     /** Shifts the view of the board such that the board behaves as if side S is north. */
@@ -29,6 +38,7 @@ public class Board implements Iterable<Tile> {
         int size = rawValues.length;
         _values = new Tile[size][size];
         _viewPerspective = Side.NORTH;
+        _emptyCount = size * size;
         for (int col = 0; col < size; col += 1) {
             for (int row = 0; row < size; row += 1) {
                 int value = rawValues[size - 1 - row][col];
@@ -38,7 +48,7 @@ public class Board implements Iterable<Tile> {
                 } else {
                     tile = Tile.create(value, col, row);
                 }
-                _values[col][row] = tile;
+                set(col, row, tile);
             }
         }
     }
@@ -57,19 +67,82 @@ public class Board implements Iterable<Tile> {
     /** Return the current Tile at (COL, ROW), where 0 <= ROW < size(),
      *  0 <= COL < size(). Returns null if there is no tile there. */
     public Tile tile(int col, int row) {
+        if (_viewPerspective == Side.NORTH) {
+            return _values[col][row];
+        }
         return vtile(col, row, _viewPerspective);
     }
 
+    /** Returns the number of empty squares on the board. */
+    public int emptyCount() {
+        return _emptyCount;
+    }
+
+    /** Returns the largest tile value on the board, or 0 if it is empty. */
+    public int maxValue() {
+        return _maxValue;
+    }
+
+    /** Returns true iff two adjacent tiles on the board have the same
+     *  value. */
+    public boolean mergeablePairExists() {
+        return _equalPairs > 0;
+    }
+
     /** Clear the board to empty and reset the score. */
     public void clear() {
         for (Tile[] column : _values) {
             Arrays.fill(column, null);
         }
+        _emptyCount = size() * size();
+        _maxValue = 0;
+        _equalPairs = 0;
     }
 
     /** Adds the tile T to the board */
     public void addTile(Tile t) {
-        _values[t.col()][t.row()] = t;
+        set(t.col(), t.row(), t);
+    }
+
+    /** Set the square at standard coordinates (COL, ROW) to hold T (null
+     *  for empty), keeping the counts of empty squares and equal pairs
+     *  and the largest value up to date. */
+    private void set(int col, int row, Tile t) {
+        Tile old = _values[col][row];
+        int oldValue = value(old), newValue = value(t);
+        if (oldValue != newValue) {
+            _equalPairs += equalNeighbors(col, row, newValue)
+                - equalNeighbors(col, row, oldValue);
+        }
+        if (old == null && t != null) {
+            _emptyCount -= 1;
+        } else if (old != null && t == null) {
+            _emptyCount += 1;
+        }
+        _maxValue = Math.max(_maxValue, newValue);
+        _values[col][row] = t;
+    }
+
+    /** Return the number of tiles next to standard coordinates (COL, ROW)
+     *  with value VALUE, or 0 if VALUE is 0. */
+    private int equalNeighbors(int col, int row, int value) {
+        if (value == 0) {
+            return 0;
+        }
+        int n = 0;
+        if (col > 0 && value(_values[col - 1][row]) == value) {
+            n += 1;
+        }
+        if (col + 1 < size() && value(_values[col + 1][row]) == value) {
+            n += 1;
+        }
+        if (row > 0 && value(_values[col][row - 1]) == value) {
+            n += 1;
+        }
+        if (row + 1 < size() && value(_values[col][row + 1]) == value) {
+            n += 1;
+        }
+        return n;
     }
 
     /** Places the Tile TILE at column COL, row ROW where COL and ROW are
@@ -84,13 +157,13 @@ public class Board implements Iterable<Tile> {
             return false;
         }
         Tile tile1 = vtile(col, row, _viewPerspective);
-        _values[tile.col()][tile.row()] = null;
+        set(tile.col(), tile.row(), null);
 
         if (tile1 == null) {
-            _values[pcol][prow] = tile.move(pcol, prow);
+            set(pcol, prow, tile.move(pcol, prow));
             return false;
         } else {
-            _values[pcol][prow] = tile.merge(pcol, prow, tile1);
+            set(pcol, prow, tile.merge(pcol, prow, tile1));
             return true;
         }
     }
@@ -113,6 +186,45 @@ public class Board implements Iterable<Tile> {
         return out.toString();
     }
 
+    /** Returns whether O is a Board of the same size with tiles of the
+     *  same values in the same places (regardless of perspective). */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Board)) {
+            return false;
+        }
+        Board other = (Board) o;
+        if (size() != other.size()) {
+            return false;
+        }
+        for (int col = 0; col < size(); col += 1) {
+            for (int row = 0; row < size(); row += 1) {
+                if (value(_values[col][row])
+                    != value(other._values[col][row])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Returns a hash code of the tile values on the board. */
+    @Override
+    public int hashCode() {
+        int h = size();
+        for (Tile[] column : _values) {
+            for (Tile t : column) {
+                h = 31 * h + value(t);
+            }
+        }
+        return h;
+    }
+
+    /** Return the value of T, or 0 if T is null. */
+    private static int value(Tile t) {
+        return t == null ? 0 : t.value();
+    }
+
     /** Iterates through teach tile in the board. */
     private class AllTileIterator implements Iterator<Tile>, Iterable<Tile> {
         int r, c;
@@ -141,6 +253,10 @@ public class Board implements Iterable<Tile> {
         }
     }
 
+    /** Returns an iterator over all squares (null for empty ones), row by
+     *  row from the bottom, as seen from the current perspective.  The
+     *  checks made on every move use the counts kept by the board instead,
+     *  so they do not iterate. */
     public Iterator<Tile> iterator() {
         return new AllTileIterator();
     }
@@ -1,27 +1,30 @@
 package game2048;
 
-import java.util.Observer;
-import java.util.Observable;
+import java.util.List;
 
-/** An observer that prints changes to a Model.
+/** A listener that prints changes to a Model.
  *  @author P. N. Hilfinger
  */
-class BoardLogger implements Observer {
+class BoardLogger implements GameListener {
 
     /** A line to separate each move. */
     private static final String LINE = "---------------------";
 
+    /** A logger of the changes to MODEL, which must subscribe it. */
+    BoardLogger(Model model) {
+        _model = model;
+    }
+
     /** Prints the board state and how it was changed after each move. */
     @Override
-    public void update(Observable obs, Object arg) {
-        Model model = (Model) obs;
-        String direction;
-        if (arg == null) {
-            direction = "Randomly generated tiles placed on board";
-        } else {
-            direction = String.format("Board tilted %s", arg);
+    public void onEvents(List<GameEvent> events) {
+        System.out.printf("%n%s%n", LINE);
+        for (GameEvent event : events) {
+            System.out.println(event);
         }
-        System.out.printf("%n%s%n%s%s", LINE, direction, model);
+        System.out.print(_model);
     }
 
+    /** The model being logged. */
+    private final Model _model;
 }
@@ -4,11 +4,20 @@ import ucb.gui2.Pad;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.lang.Math.*;
 
 /** A widget that displays a 2048 board.
+ *
+ *  The thread that changes the model calls update, which computes each
+ *  frame of the resulting animation as an immutable Frame and publishes
+ *  it through an atomic reference.  The paint thread paints whichever
+ *  frame is latest when it gets to run, without locking; frames replaced
+ *  before being painted are counted as dropped.
  *  @author P. N. Hilfinger
  */
 class BoardWidget extends Pad {
@@ -55,6 +64,18 @@ class BoardWidget extends Pad {
     /** Ticks over which a tile "blooms" out or in. */
     static final int BLOOM_TICKS = (int) (20.0 * BLOOM_TIME / TICK);
 
+    /** Boards with at least this many squares on a side are displayed as
+     *  a heatmap rather than as individual tiles. */
+    static final int HEATMAP_MIN_SIZE = GridBoard.MIN_SIZE;
+
+    /** Length (in pixels) of the side of a heatmap. */
+    static final int HEATMAP_SIDE = 640;
+
+    /** Largest number of cells on a side of a heatmap.  Larger boards are
+     *  downsampled, each cell showing the largest tile in its block of
+     *  squares. */
+    static final int HEATMAP_CELLS = 32;
+
     /** Mapping from numbers on tiles to their text and background
      *  colors. */
     static final HashMap<Integer, Color[]> TILE_COLORS = new HashMap<>();
@@ -88,25 +109,53 @@ class BoardWidget extends Pad {
      *  columns. */
     BoardWidget(int size) {
         _size = size;
-        _boardSide = size * TILE_SIDE_SEP + TILE_SEP;
         _tiles = new ArrayList<>();
+        if (size >= HEATMAP_MIN_SIZE) {
+            _block = (size + HEATMAP_CELLS - 1) / HEATMAP_CELLS;
+            _heat = new int[(size + _block - 1) / _block][];
+            for (int k = 0; k < _heat.length; k += 1) {
+                _heat[k] = new int[_heat.length];
+            }
+            _boardSide = HEATMAP_SIDE;
+        } else {
+            _block = 0;
+            _heat = null;
+            _boardSide = size * TILE_SIDE_SEP + TILE_SEP;
+        }
+        _frame = new AtomicReference<>(new Frame(0, new int[0], new int[0],
+                                                 new int[0], new int[0],
+                                                 null, false));
         setPreferredSize(_boardSide, _boardSide);
     }
 
-    /** Render board on G. */
+    /** Render the most recently published frame on G.  Called on the
+     *  paint thread; takes no locks, so it never waits for update. */
     @Override
-    public synchronized void paintComponent(Graphics2D g) {
-        g.setColor(EMPTY_SQUARE_COLOR);
-        g.fillRect(0, 0, _boardSide, _boardSide);
-        g.setColor(BAR_COLOR);
-        for (int k = 0; k <= _boardSide; k += TILE_SIDE_SEP) {
-            g.fillRect(0, k, _boardSide, TILE_SEP);
-            g.fillRect(k, 0, TILE_SEP, _boardSide);
+    public void paintComponent(Graphics2D g) {
+        long start = Metrics.time();
+        Frame frame = _frame.get();
+        if (frame.seq() > _paintedSeq) {
+            long dropped = frame.seq() - _paintedSeq - 1;
+            _droppedFrames.add(dropped);
+            Metrics.DROPPED_FRAMES.add(dropped);
+            _paintedSeq = frame.seq();
         }
-        for (Tile tile : _tiles) {
-            render(g, tile);
+        if (frame.heat() != null) {
+            renderHeatmap(g, frame.heat());
+        } else {
+            g.setColor(EMPTY_SQUARE_COLOR);
+            g.fillRect(0, 0, _boardSide, _boardSide);
+            g.setColor(BAR_COLOR);
+            for (int k = 0; k <= _boardSide; k += TILE_SIDE_SEP) {
+                g.fillRect(0, k, _boardSide, TILE_SEP);
+                g.fillRect(k, 0, TILE_SEP, _boardSide);
+            }
+            for (int k = 0; k < frame.values().length; k += 1) {
+                render(g, frame.values()[k], frame.xs()[k], frame.ys()[k],
+                       frame.blooms()[k]);
+            }
         }
-        if (_end) {
+        if (frame.end()) {
             g.setFont(OVERLAY_FONT);
             FontMetrics metrics = g.getFontMetrics();
             g.setColor(OVERLAY_COLOR);
@@ -115,54 +164,131 @@ class BoardWidget extends Pad {
                           - metrics.stringWidth("GAME OVER")) / 2,
                          (2 * _boardSide + metrics.getMaxAscent()) / 4);
         }
+        Metrics.FRAME.recordSince(start);
     }
 
-    /** Render TILE on G. */
-    private void render(Graphics2D g, Tile tile) {
-        int col0 = tile.col(),
-            row0 = tile.row(),
-            col1 = tile.next().col(),
-            row1 = tile.next().row();
-        int dcol = Integer.compare(col1, col0),
-            drow = Integer.compare(row1, row0);
-
-        float vcol, vrow;
-        if (_distMoved >= max(abs(col0 - col1), abs(row0 - row1))) {
-            vcol = col1; vrow = row1;
-        } else {
-            vcol = col0 + _distMoved * dcol;
-            vrow = row0 + _distMoved * drow;
-        }
-
-        int ulx = Math.round(vcol * TILE_SIDE_SEP + TILE_SEP),
-            uly = Math.round((_size - vrow - 1) * TILE_SIDE_SEP + TILE_SEP);
-
-        if (tile.value() < 100) {
+    /** Render a tile with VALUE whose upper-left corner is at (ULX, ULY),
+     *  enlarged on each side by BLOOM pixels, on G. */
+    private void render(Graphics2D g, int value, int ulx, int uly,
+                        int bloom) {
+        if (value < 100) {
             g.setFont(TILE_FONT2);
-        } else if (tile.value() < 1000) {
+        } else if (value < 1000) {
             g.setFont(TILE_FONT3);
         } else {
             g.setFont(TILE_FONT4);
         }
         FontMetrics metrics = g.getFontMetrics();
-        int bloom;
-        if (_bloomingTiles != null && _bloomingTiles.contains(tile)) {
-            bloom = _bloom;
-        } else {
-            bloom = 0;
-        }
-        g.setColor(TILE_COLORS.get(tile.value())[1]);
+        g.setColor(TILE_COLORS.get(value)[1]);
         g.fillRect(ulx - bloom, uly - bloom, 2 * bloom + TILE_SIDE,
                    2 * bloom + TILE_SIDE);
-        g.setColor(TILE_COLORS.get(tile.value())[0]);
+        g.setColor(TILE_COLORS.get(value)[0]);
 
-        String label = Integer.toString(tile.value());
+        String label = Integer.toString(value);
         g.drawString(label,
                      ulx + (TILE_SIDE - metrics.stringWidth(label)) / 2,
                      uly + (2 * TILE_SIDE + metrics.getMaxAscent()) / 4);
 
     }
 
+    /** Render HEAT, the largest tile value in each heatmap cell, on G, one
+     *  filled square per cell. */
+    private void renderHeatmap(Graphics2D g, int[][] heat) {
+        g.setColor(BAR_COLOR);
+        g.fillRect(0, 0, _boardSide, _boardSide);
+        int cells = heat.length;
+        for (int c = 0; c < cells; c += 1) {
+            for (int r = 0; r < cells; r += 1) {
+                int x0 = c * _boardSide / cells,
+                    x1 = (c + 1) * _boardSide / cells,
+                    y0 = (cells - r - 1) * _boardSide / cells,
+                    y1 = (cells - r) * _boardSide / cells;
+                g.setColor(heatColor(heat[c][r]));
+                g.fillRect(x0 + 1, y0 + 1, x1 - x0 - 1, y1 - y0 - 1);
+            }
+        }
+    }
+
+    /** Return the color of a heatmap cell whose largest tile is VALUE
+     *  (0 if the cell is empty). */
+    private static Color heatColor(int value) {
+        if (value == 0) {
+            return EMPTY_SQUARE_COLOR;
+        }
+        Color[] colors = TILE_COLORS.get(Math.min(value, Model.MAX_PIECE));
+        return colors[1];
+    }
+
+    /** Set _heat to the largest tile value in each block of squares of
+     *  MODEL. */
+    private void sampleHeatmap(Model model) {
+        for (int[] column : _heat) {
+            Arrays.fill(column, 0);
+        }
+        for (int col = 0; col < _size; col += 1) {
+            int[] column = _heat[col / _block];
+            for (int row = 0; row < _size; row += 1) {
+                int r = row / _block;
+                column[r] = Math.max(column[r], model.value(col, row));
+            }
+        }
+    }
+
+    /** Publish a frame showing _tiles as they stand after moving
+     *  _distMoved rows or columns toward their next positions, with the
+     *  tiles in _bloomingTiles enlarged by _bloom, and schedule it to be
+     *  painted.  Any frame published earlier that has not been painted by
+     *  then is dropped. */
+    private void publish() {
+        int n = _tiles.size();
+        int[] values = new int[n], xs = new int[n], ys = new int[n],
+            blooms = new int[n];
+        for (int k = 0; k < n; k += 1) {
+            Tile tile = _tiles.get(k);
+            int col0 = tile.col(),
+                row0 = tile.row(),
+                col1 = tile.next().col(),
+                row1 = tile.next().row();
+            int dcol = Integer.compare(col1, col0),
+                drow = Integer.compare(row1, row0);
+
+            float vcol, vrow;
+            if (_distMoved >= max(abs(col0 - col1), abs(row0 - row1))) {
+                vcol = col1; vrow = row1;
+            } else {
+                vcol = col0 + _distMoved * dcol;
+                vrow = row0 + _distMoved * drow;
+            }
+            values[k] = tile.value();
+            xs[k] = Math.round(vcol * TILE_SIDE_SEP + TILE_SEP);
+            ys[k] = Math.round((_size - vrow - 1) * TILE_SIDE_SEP + TILE_SEP);
+            if (_bloomingTiles != null && _bloomingTiles.contains(tile)) {
+                blooms[k] = _bloom;
+            }
+        }
+        publish(new Frame(_frame.get().seq() + 1, values, xs, ys, blooms,
+                          null, _end));
+    }
+
+    /** Make FRAME the latest frame and schedule it to be painted. */
+    private void publish(Frame frame) {
+        _frame.set(frame);
+        _publishedFrames.increment();
+        Metrics.PUBLISHED_FRAMES.increment();
+        repaint();
+    }
+
+    /** Return the number of frames published so far. */
+    long publishedFrames() {
+        return _publishedFrames.sum();
+    }
+
+    /** Return the number of published frames that were replaced by a
+     *  later one before they could be painted. */
+    long droppedFrames() {
+        return _droppedFrames.sum();
+    }
+
     /** Return the list of all Tiles in MODEL. */
     private ArrayList<Tile> modelTiles(Model model) {
         ArrayList<Tile> result = new ArrayList<>();
@@ -192,7 +318,7 @@ class BoardWidget extends Pad {
     /** Wait for one tick (TICK milliseconds). */
     private void tick() {
         try {
-            wait(TICK);
+            Thread.sleep(TICK);
         } catch (InterruptedException excp) {
             assert false : "Internal error: unexpected interrupt";
         }
@@ -206,12 +332,12 @@ class BoardWidget extends Pad {
         }
         for (int k = 1; k <= BLOOM_TICKS; k += 1) {
             _bloom = round(TILE_SIDE * BLOOM_FACTOR * k / BLOOM_TICKS);
-            repaint();
+            publish();
             tick();
         }
         for (int k = BLOOM_TICKS - 1; k >= 0; k -= 1) {
             _bloom = round(TILE_SIDE * BLOOM_FACTOR * k / BLOOM_TICKS);
-            repaint();
+            publish();
             tick();
         }
         _bloomingTiles = null;
@@ -220,8 +346,21 @@ class BoardWidget extends Pad {
 
     /** Move tiles to their new positions and save a new set of tiles from
      *  MODEL, which is assumed to reflect the next state of the tiles after
-     *  the completion of all movement. */
-    synchronized void update(Model model) {
+     *  the completion of all movement.  Called on the thread that changes
+     *  MODEL, which publishes each frame of the animation for
+     *  paintComponent to pick up. */
+    void update(Model model) {
+        if (_heat != null) {
+            sampleHeatmap(model);
+            int[][] heat = new int[_heat.length][];
+            for (int k = 0; k < heat.length; k += 1) {
+                heat[k] = _heat[k].clone();
+            }
+            _end = model.gameOver();
+            publish(new Frame(_frame.get().seq() + 1, null, null, null, null,
+                              heat, _end));
+            return;
+        }
         float dist;
         ArrayList<Tile> nextTiles = modelTiles(model);
 
@@ -231,7 +370,7 @@ class BoardWidget extends Pad {
         }
         _distMoved = 0.0f;
         while (_distMoved < dist) {
-            repaint();
+            publish();
             tick();
             _distMoved = Math.min(dist,
                                   _distMoved + TICK * MOVE_DELTA / 1000.0f);
@@ -243,7 +382,17 @@ class BoardWidget extends Pad {
         doBlooming(bloomers);
         _end = model.gameOver();
         _distMoved = 0.0f;
-        repaint();
+        publish();
+    }
+
+    /** An immutable picture of the board, published by update and painted
+     *  by paintComponent.  SEQ numbers frames in order of publication.
+     *  Tile K has value VALUES[K], its upper-left corner at (XS[K], YS[K]),
+     *  and is enlarged by BLOOMS[K] pixels on each side.  For boards shown
+     *  as a heatmap, the tile arrays are null and HEAT holds the largest
+     *  value in each cell.  END is true iff the game is over. */
+    private record Frame(long seq, int[] values, int[] xs, int[] ys,
+                         int[] blooms, int[][] heat, boolean end) {
     }
 
     /** A list of Tiles currently being displayed. */
@@ -257,9 +406,27 @@ class BoardWidget extends Pad {
     /** Amount to add to sides of tiles in _bloomingTiles. */
     private int _bloom;
 
+    /** The latest frame published by update. */
+    private final AtomicReference<Frame> _frame;
+    /** Sequence number of the frame last painted.  Used only on the paint
+     *  thread. */
+    private long _paintedSeq;
+    /** Numbers of frames published and dropped. */
+    private final LongAdder _publishedFrames = new LongAdder(),
+        _droppedFrames = new LongAdder();
+
     /** Number of rows and of columns. */
     private final int _size;
 
+    /** Number of rows and of columns of squares in each heatmap cell, or 0
+     *  if the board is displayed as tiles. */
+    private final int _block;
+
+    /** Largest tile value in each heatmap cell, indexed by column and
+     *  row, or null if the board is displayed as tiles.  Used only by
+     *  update, which publishes copies. */
+    private final int[][] _heat;
+
     /** Length (in pixels) of the side of the board. */
     private final int _boardSide;
 
@@ -0,0 +1,54 @@
+package game2048;
+
+import java.util.Random;
+
+/** A MovePolicy that keeps its largest tiles in the lower-left corner.
+ *
+ *  It looks one move ahead, choosing the tilt that gains the most score
+ *  and leaves the most empty squares, and prefers tilting down, then
+ *  left, then right, tilting up only when nothing else changes the board.
+ *  A tilt that pulls the largest tile out of the corner counts against a
+ *  move.  It plays on packed boards and uses no randomness.
+ */
+public class CornerGreedyPolicy implements MovePolicy {
+
+    /** Sides in order of preference. */
+    private static final Side[] PREFERENCE = {
+        Side.SOUTH, Side.WEST, Side.EAST, Side.NORTH
+    };
+
+    /** Value of one empty square, in points of score. */
+    private static final int EMPTY_WEIGHT = 8;
+
+    /** Penalty for leaving the corner without the largest tile. */
+    private static final int CORNER_PENALTY = 1 << 12;
+
+    @Override
+    public Side chooseMove(Model model, Random random) {
+        long board = model.packedBoard();
+        Side best = null;
+        long bestValue = Long.MIN_VALUE;
+        for (int k = 0; k < PREFERENCE.length - 1; k += 1) {
+            Side side = PREFERENCE[k];
+            long next = BitBoard.tilt(board, side);
+            if (next == board) {
+                continue;
+            }
+            long value = BitBoard.score(board, side)
+                + EMPTY_WEIGHT * BitBoard.emptyCount(next);
+            if (BitBoard.exponent(next, 0, 0) != BitBoard.maxExponent(next)) {
+                value -= CORNER_PENALTY;
+            }
+            if (value > bestValue) {
+                best = side;
+                bestValue = value;
+            }
+        }
+        return best == null ? Side.NORTH : best;
+    }
+
+    @Override
+    public String toString() {
+        return "corner";
+    }
+}
@@ -0,0 +1,267 @@
+package game2048;
+
+import java.util.Random;
+
+/** A MovePolicy that searches the tree of future positions with
+ *  expectimax: it assumes the best move at its own turns and averages over
+ *  the 2s and 4s that may be spawned in each empty square in between.
+ *
+ *  The search is iteratively deepened until its time budget runs out, and
+ *  then plays the best move found by the deepest completed search.  Values
+ *  of positions reached by chance are kept in a TranspositionTable between
+ *  searches.  Each thread using the policy has its own table.
+ */
+public class ExpectimaxPolicy implements MovePolicy {
+
+    /** Default time allowed for choosing one move (nanoseconds). */
+    static final long DEFAULT_BUDGET = 5_000_000L;
+    /** Default limit on search depth, in moves. */
+    static final int DEFAULT_MAX_DEPTH = 8;
+    /** Default number of entries in the transposition table. */
+    static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    /** Positions reached with a probability less than this are evaluated
+     *  with the heuristic rather than searched further. */
+    private static final double MIN_PROBABILITY = 1e-4;
+    /** Number of nodes searched between checks of the clock. */
+    private static final int CLOCK_INTERVAL = 256;
+
+    /** Parameters of the heuristic evaluation of a row. */
+    private static final double
+        LOST_PENALTY = 200000.0,
+        MONOTONICITY_POWER = 4.0,
+        MONOTONICITY_WEIGHT = 47.0,
+        SUM_POWER = 3.5,
+        SUM_WEIGHT = 11.0,
+        MERGES_WEIGHT = 700.0,
+        EMPTY_WEIGHT = 270.0;
+
+    /** ROW_HEURISTIC[R] is the heuristic value of the 16-bit row R of a
+     *  packed board, used both for rows and (after transposing) columns. */
+    private static final float[] ROW_HEURISTIC = new float[1 << 16];
+
+    static {
+        int[] line = new int[BitBoard.SIZE];
+        for (int row = 0; row < ROW_HEURISTIC.length; row += 1) {
+            for (int c = 0; c < line.length; c += 1) {
+                line[c] = (row >>> (4 * c)) & 0xf;
+            }
+            ROW_HEURISTIC[row] = (float) rowHeuristic(line);
+        }
+    }
+
+    /** All sides, in a fixed order. */
+    private static final Side[] SIDES = Side.values();
+
+    /** A policy for games that spawn 2s with probability PROBOF2, using
+     *  the default time budget, depth limit, and table size. */
+    public ExpectimaxPolicy(double probOf2) {
+        this(probOf2, DEFAULT_BUDGET, DEFAULT_MAX_DEPTH, DEFAULT_CACHE_SIZE);
+    }
+
+    /** A policy for games that spawn 2s with probability PROBOF2 that
+     *  searches for at most BUDGET nanoseconds and MAXDEPTH moves ahead
+     *  for each move, keeping CACHESIZE positions in its transposition
+     *  table.  If BUDGET is 0, every search goes to depth MAXDEPTH, so
+     *  that the choice of move does not depend on timing. */
+    public ExpectimaxPolicy(double probOf2, long budget, int maxDepth,
+                            int cacheSize) {
+        _probOf2 = probOf2;
+        _budget = budget;
+        _maxDepth = maxDepth;
+        _cacheSize = cacheSize;
+    }
+
+    @Override
+    public Side chooseMove(Model model, Random random) {
+        return bestMove(model.packedBoard());
+    }
+
+    @Override
+    public String toString() {
+        return "expectimax";
+    }
+
+    /** Return the best side toward which to tilt the packed board BOARD,
+     *  or null if no tilt changes it. */
+    public Side bestMove(long board) {
+        return _searches.get().bestMove(board);
+    }
+
+    /** Return the depth of the deepest search that this thread's last call
+     *  of bestMove completed within its budget. */
+    int lastDepth() {
+        return _searches.get()._depth;
+    }
+
+    /** Return the heuristic value of the exponents in LINE, a row or
+     *  column of a board: high for rows that are monotonic, have empty
+     *  squares, and have tiles ready to merge. */
+    private static double rowHeuristic(int[] line) {
+        double sum = 0;
+        int empty = 0, merges = 0, prev = 0, run = 0;
+        for (int e : line) {
+            sum += Math.pow(e, SUM_POWER);
+            if (e == 0) {
+                empty += 1;
+            } else {
+                if (prev == e) {
+                    run += 1;
+                } else if (run > 0) {
+                    merges += 1 + run;
+                    run = 0;
+                }
+                prev = e;
+            }
+        }
+        if (run > 0) {
+            merges += 1 + run;
+        }
+
+        double left = 0, right = 0;
+        for (int i = 1; i < line.length; i += 1) {
+            double a = Math.pow(line[i - 1], MONOTONICITY_POWER),
+                b = Math.pow(line[i], MONOTONICITY_POWER);
+            if (line[i - 1] > line[i]) {
+                left += a - b;
+            } else {
+                right += b - a;
+            }
+        }
+
+        return LOST_PENALTY + EMPTY_WEIGHT * empty + MERGES_WEIGHT * merges
+            - MONOTONICITY_WEIGHT * Math.min(left, right) - SUM_WEIGHT * sum;
+    }
+
+    /** Return the heuristic value of packed board BOARD. */
+    static double heuristic(long board) {
+        long transposed = BitBoard.transpose(board);
+        double value = 0;
+        for (int row = 0; row < BitBoard.SIZE; row += 1) {
+            value += ROW_HEURISTIC[(int) (board >>> (16 * row)) & 0xffff]
+                + ROW_HEURISTIC[(int) (transposed >>> (16 * row)) & 0xffff];
+        }
+        return value;
+    }
+
+    /** The state of the searches made by one thread. */
+    private class Search {
+
+        /** Return the best side toward which to tilt BOARD, or null if no
+         *  tilt changes it. */
+        Side bestMove(long board) {
+            _deadline = _budget > 0 ? System.nanoTime() + _budget
+                : Long.MAX_VALUE;
+            _timedOut = false;
+            _nodes = 0;
+
+            Side best = bestMove(board, 0);
+            _depth = 0;
+            for (int depth = 1; depth <= _maxDepth && best != null;
+                 depth += 1) {
+                Side choice = bestMove(board, depth);
+                if (_timedOut) {
+                    break;
+                }
+                best = choice;
+                _depth = depth;
+            }
+            return best;
+        }
+
+        /** Return the best side toward which to tilt BOARD, searching
+         *  DEPTH moves beyond this one, or null if no tilt changes BOARD.
+         *  The result is meaningless if the search times out. */
+        private Side bestMove(long board, int depth) {
+            Side best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Side side : SIDES) {
+                long next = BitBoard.tilt(board, side);
+                if (next != board) {
+                    double value = chance(next, depth, 1.0);
+                    if (value > bestValue) {
+                        best = side;
+                        bestValue = value;
+                    }
+                }
+            }
+            return best;
+        }
+
+        /** Return the expected value of BOARD, which has just been tilted
+         *  and is reached with probability PROB, before a tile is spawned
+         *  on it, searching DEPTH moves further. */
+        private double chance(long board, int depth, double prob) {
+            if (depth == 0 || prob < MIN_PROBABILITY) {
+                return heuristic(board);
+            }
+            double cached = _cache.get(board, depth);
+            if (!Double.isNaN(cached)) {
+                return cached;
+            }
+
+            int empty = BitBoard.emptyCount(board);
+            double prob2 = prob * _probOf2 / empty,
+                prob4 = prob * (1.0 - _probOf2) / empty;
+            double sum = 0;
+            for (int shift = 0; shift < 64; shift += 4) {
+                if (((board >>> shift) & 0xf) == 0) {
+                    sum += _probOf2 * max(board | (1L << shift), depth, prob2)
+                        + (1.0 - _probOf2)
+                          * max(board | (2L << shift), depth, prob4);
+                }
+            }
+            double value = sum / empty;
+            if (!_timedOut) {
+                _cache.put(board, depth, value);
+            }
+            return value;
+        }
+
+        /** Return the value of BOARD, reached with probability PROB, when
+         *  it is our turn to tilt it, searching DEPTH moves further
+         *  (including this one).  A board with no moves has value 0. */
+        private double max(long board, int depth, double prob) {
+            _nodes += 1;
+            if (_nodes % CLOCK_INTERVAL == 0
+                && System.nanoTime() > _deadline) {
+                _timedOut = true;
+            }
+            if (_timedOut) {
+                return 0.0;
+            }
+            double best = 0.0;
+            for (Side side : SIDES) {
+                long next = BitBoard.tilt(board, side);
+                if (next != board) {
+                    best = Math.max(best, chance(next, depth - 1, prob));
+                }
+            }
+            return best;
+        }
+
+        /** Values of positions from earlier searches. */
+        private final TranspositionTable _cache =
+            new TranspositionTable(_cacheSize);
+        /** Time (System.nanoTime) at which the current search must end. */
+        private long _deadline;
+        /** True iff the current search has run out of time. */
+        private boolean _timedOut;
+        /** Number of positions visited in the current search. */
+        private long _nodes;
+        /** Depth of the deepest completed search of the last move. */
+        private int _depth;
+    }
+
+    /** Probability that a spawned tile is 2, rather than a 4. */
+    private final double _probOf2;
+    /** Time allowed per move (nanoseconds), or 0 for no limit. */
+    private final long _budget;
+    /** Maximum search depth, in moves. */
+    private final int _maxDepth;
+    /** Capacity of each thread's transposition table. */
+    private final int _cacheSize;
+    /** The search state of each thread using this policy. */
+    private final ThreadLocal<Search> _searches =
+        ThreadLocal.withInitial(Search::new);
+}
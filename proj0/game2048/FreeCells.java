@@ -0,0 +1,76 @@
+package game2048;
+
+import java.util.Arrays;
+
+/** The empty squares of a board, numbered row * size + col, kept in
+ *  increasing order so that the Kth of them can be found in constant time.
+ *
+ *  The set is rebuilt with one scan of the board when it is next needed
+ *  after a change that may empty many squares at once (a tilt, or
+ *  clearing the board), which costs no more than the change itself; a
+ *  tile placed while the set is valid is removed from it directly.
+ */
+final class FreeCells {
+
+    /** An invalid set for a board of SIZE squares a side. */
+    FreeCells(int size) {
+        _cells = new int[size * size];
+    }
+
+    /** Mark the set as no longer describing the board. */
+    void invalidate() {
+        _valid = false;
+    }
+
+    /** Return true iff the set describes the board. */
+    boolean valid() {
+        return _valid;
+    }
+
+    /** Rebuild the set from MODEL's board. */
+    void rebuild(Model model) {
+        int size = model.size();
+        _count = 0;
+        for (int row = 0; row < size; row += 1) {
+            for (int col = 0; col < size; col += 1) {
+                if (model.value(col, row) == 0) {
+                    _cells[_count] = row * size + col;
+                    _count += 1;
+                }
+            }
+        }
+        _valid = true;
+    }
+
+    /** Return the number of empty squares.  The set must be valid. */
+    int size() {
+        return _count;
+    }
+
+    /** Return the number of the Kth empty square, counting from 0.  The
+     *  set must be valid. */
+    int get(int k) {
+        return _cells[k];
+    }
+
+    /** Remove SQUARE, which has just been filled, if the set is
+     *  valid. */
+    void remove(int square) {
+        if (!_valid) {
+            return;
+        }
+        int k = Arrays.binarySearch(_cells, 0, _count, square);
+        if (k >= 0) {
+            System.arraycopy(_cells, k + 1, _cells, k, _count - k - 1);
+            _count -= 1;
+        }
+    }
+
+    /** The numbers of the empty squares, in increasing order, in
+     *  _cells[0 .. _count-1]. */
+    private final int[] _cells;
+    /** Number of empty squares. */
+    private int _count;
+    /** True iff _cells describes the board. */
+    private boolean _valid;
+}
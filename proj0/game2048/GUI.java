@@ -4,26 +4,27 @@ import ucb.gui2.LayoutSpec;
 import ucb.gui2.TopLevel;
 
 import java.awt.event.KeyEvent;
-import java.util.Observable;
-import java.util.Observer;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 
 
 /** The GUI controller for a 2048 board and buttons.
  *  @author P. N. Hilfinger
  */
-class GUI extends TopLevel implements Observer {
+class GUI extends TopLevel implements GameListener {
 
     /** A new window with given TITLE providing a view of MODEL. */
     GUI(String title, Model model) {
         super(title, true);
         addMenuButton("Game->New", this::newGame);
+        addMenuButton("Game->Undo", this::undo);
+        addMenuButton("Game->Redo", this::redo);
         addMenuButton("Game->Quit", this::quit);
 
         addLabel("", "Score", new LayoutSpec("y", 1));
 
         _model = model;
-        _model.addObserver(this);
+        _model.subscribe(this);
 
         _widget = new BoardWidget(model.size());
         add(_widget,
@@ -49,6 +50,18 @@ class GUI extends TopLevel implements Observer {
         _widget.requestFocusInWindow();
     }
 
+    /** Response to "Undo" button click. */
+    public void undo(String dummy) {
+        _pendingKeys.offer("Undo");
+        _widget.requestFocusInWindow();
+    }
+
+    /** Response to "Redo" button click. */
+    public void redo(String dummy) {
+        _pendingKeys.offer("Redo");
+        _widget.requestFocusInWindow();
+    }
+
     /** Respond to the user pressing key E by queuing the key on our
      *  queue of pending keys.*/
     public void keyPressed(String unused, KeyEvent e) {
@@ -58,7 +71,7 @@ class GUI extends TopLevel implements Observer {
     /** Return the next pending event, waiting for it as necessary.
      *  Ordinary key presses are reported as the key codes of the
      *  character pressed.  In addition, menu-button clicks result in
-     *  the messages "Quit" or "New Game". */
+     *  the messages "Quit", "New Game", "Undo", or "Redo". */
     String readKey() {
         try {
             return _pendingKeys.take();
@@ -67,6 +80,12 @@ class GUI extends TopLevel implements Observer {
         }
     }
 
+    /** Return the next pending event, as for readKey, or null if there
+     *  is none. Does not wait. */
+    String pollKey() {
+        return _pendingKeys.poll();
+    }
+
     /** Return which direction arrow was pressed. */
     String getKey() {
         String command = readKey();
@@ -88,11 +107,10 @@ class GUI extends TopLevel implements Observer {
                                         score, maxScore));
     }
 
-    /** The model notifies me that is has changed when its notifyObservers
-     *  method is called, because my constructor registered me as an
-     *  Observer of the model. */
+    /** The model sends me the EVENTS of each change, because my
+     *  constructor subscribed me to it. */
     @Override
-    public void update(Observable model, Object arg) {
+    public void onEvents(List<GameEvent> events) {
         _widget.update(_model);
         setScore(_model.score(), _model.maxScore());
     }
@@ -13,16 +13,26 @@ public class Game {
     /** Controller for a game represented by MODEL, using GUI as the
      *  source of key inputs. Uses SEED as the random seed. */
     public Game(Model model, GUI gui, double tile2p, long seed) {
+        this(model, gui, tile2p, seed, null);
+    }
+
+    /** As above, but if AI is not null, moves are chosen by AI rather than
+     *  waiting for key presses. Keys and buttons pressed on GUI still take
+     *  precedence, and GUI is waited on once the game is over. */
+    public Game(Model model, GUI gui, double tile2p, long seed,
+                MovePolicy ai) {
         _model = model;
+        _ai = ai;
         _playing = true;
         _gui = gui;
-        _probOf2 = tile2p;
 
+        Random random;
         if (seed == 0) {
-            _random = new Random();
+            random = new Random();
         } else {
-            _random = new Random(seed);
+            random = new Random(seed);
         }
+        _spawner = new TileSpawner(random, tile2p);
     }
 
     /** Return true iff we have not received a Quit command. */
@@ -31,8 +41,11 @@ public class Game {
     }
 
     /** Clear the board and play one game, until receiving a quit or
-     *  new-game request.  Update the viewer with each added tile or
-     *  change in the board from tilting. */
+     *  new-game request.  The model reports each added tile and each
+     *  change in the board from tilting to its listeners, such as the
+     *  viewer.  The board after each new tile, and the board left by a
+     *  tilt that ends the game, are the checkpoints that the undo and redo
+     *  requests step between. */
     void playGame(boolean hotStart) {
 
         if (!hotStart) {
@@ -43,41 +56,34 @@ public class Game {
             if (!hotStart) {
                 if (!_model.gameOver()) {
                     _model.addTile(getValidNewTile());
-                    _model.notifyObservers();
+                    _model.checkpoint();
                 }
             }
             if (hotStart) {
                 _model.hotStartAnnounce();
-                _model.notifyObservers();
+                _model.checkpoint();
                 hotStart = false;
             }
 
             boolean moved;
             moved = false;
             while (!moved) {
-                String cmnd = _gui.getKey();
+                String cmnd = nextCommand();
                 switch (cmnd) {
                     case "Quit":
                         _playing = false;
                         return;
                     case "New Game":
                         return;
+                    case "Undo":
+                        _model.undo();
+                        break;
+                    case "Redo":
+                        _model.redo();
+                        break;
                     case KeyEvent.VK_UP + "": case KeyEvent.VK_DOWN + "": case KeyEvent.VK_LEFT + "": case KeyEvent.VK_RIGHT+ "":
                     case "\u2190": case "\u2191": case "\u2192": case "\u2193":
-                        if (!_model.gameOver()) {
-                            _model.notifyObservers(cmnd);
-                            moved = false;
-                        }
-
-                        String stateBefore = _model.toString();
-                        _model.tilt(keyToSide(cmnd));
-                        String stateAfter = _model.toString();
-
-                        if (!stateBefore.equals(stateAfter)) {
-                            _model.notifyObservers(cmnd);
-                            moved = true;
-                        }
-
+                        moved = move(keyToSide(cmnd));
                         break;
                     default:
                         break;
@@ -87,6 +93,44 @@ public class Game {
         }
     }
 
+    /** Return the next command: a pending key or button press from the
+     *  GUI if there is one, or else the key for the move chosen by the AI,
+     *  if any. Waits for the GUI if there is no AI or the game is over. */
+    private String nextCommand() {
+        if (_ai == null || _model.gameOver()) {
+            return _gui.getKey();
+        }
+        String pending = _gui.pollKey();
+        if (pending != null) {
+            return pending;
+        }
+        return sideToKey(_ai.chooseMove(_model, _aiRandom));
+    }
+
+    /** Tilt the board toward SIDE, returning true iff that changed it.
+     *  A tilt that ends the game gets no new tile to checkpoint after, so
+     *  it is recorded here, making it the state undo leaves and dropping
+     *  any states an earlier undo had left to redo. */
+    boolean move(Side side) {
+        if (!_model.tilt(side).moved()) {
+            return false;
+        }
+        if (_model.gameOver()) {
+            _model.checkpoint();
+        }
+        return true;
+    }
+
+    /** Return the key designating a tilt toward SIDE. */
+    private String sideToKey(Side side) {
+        return switch (side) {
+            case NORTH -> KeyEvent.VK_UP + "";
+            case SOUTH -> KeyEvent.VK_DOWN + "";
+            case WEST -> KeyEvent.VK_LEFT + "";
+            case EAST -> KeyEvent.VK_RIGHT + "";
+        };
+    }
+
     /** Return the side indicated by KEY ("Up", "Down", "Left",
      *  or "Right"). */
     private Side keyToSide(String key) {
@@ -103,22 +147,7 @@ public class Game {
      *  one that fits on the current board. Assumes there is at least one
      *  empty square on the board. */
     private Tile getValidNewTile() {
-        while (true) {
-            Tile tile = generateNewTile(_model.size());
-            if (_model.tile(tile.col(), tile.row()) == null) {
-                return tile;
-            }
-        }
-    }
-
-    /** Return a randomly positioned tile with either value of 2 with
-     * probability _probOf2 or a value of 4 with probability 1 - _probOf2 in a
-     * board with size SIZE. */
-    private Tile generateNewTile(int size) {
-        int c = _random.nextInt(size), r = _random.nextInt(size);
-        int v = _random.nextDouble() <= _probOf2 ? 2 : 4;
-
-        return Tile.create(v, c, r);
+        return _spawner.getValidNewTile(_model);
     }
 
     /** The playing board. */
@@ -127,11 +156,14 @@ public class Game {
     /** GUI from which random commands are collected. */
     private final GUI _gui;
 
-    /** Probability that the next tile is 2, rather than a 4. */
-    private final double _probOf2;
+    /** Chooses moves in place of the GUI's arrow keys, or null. */
+    private final MovePolicy _ai;
+
+    /** Source of random numbers for _ai. */
+    private final Random _aiRandom = new Random();
 
-    /** Source of random numbers. */
-    private final Random _random;
+    /** Source of new tiles. */
+    private final TileSpawner _spawner;
 
     /** True while user is still willing to play. */
     private boolean _playing;
@@ -0,0 +1,39 @@
+package game2048;
+
+/** Something that happened in a game of 2048, as reported by a Model to
+ *  its GameListeners.  Squares are given as (column, row), as for
+ *  Model.tile.
+ */
+public sealed interface GameEvent {
+
+    /** A new tile with VALUE appeared at (COL, ROW). */
+    record TileSpawned(int value, int col, int row) implements GameEvent {
+    }
+
+    /** The tile with VALUE at (FROMCOL, FROMROW) slid to (TOCOL, TOROW)
+     *  without merging. */
+    record TileMoved(int value, int fromCol, int fromRow,
+                     int toCol, int toRow) implements GameEvent {
+    }
+
+    /** The tile at (FROMCOL, FROMROW) slid to (TOCOL, TOROW) and merged
+     *  with the tile there, forming a tile with VALUE. */
+    record TileMerged(int value, int fromCol, int fromRow,
+                      int toCol, int toRow) implements GameEvent {
+    }
+
+    /** The score changed by DELTA, to SCORE. */
+    record ScoreChanged(int score, int delta) implements GameEvent {
+    }
+
+    /** The game ended with SCORE. */
+    record GameOver(int score) implements GameEvent {
+    }
+
+    /** The board changed in ways not described tile by tile: it was
+     *  cleared, restored from a checkpoint, announced at a hot start, or
+     *  tilted while stored in a form that does not track individual tiles
+     *  (see Model.Storage). */
+    record BoardChanged() implements GameEvent {
+    }
+}
@@ -0,0 +1,14 @@
+package game2048;
+
+import java.util.List;
+
+/** A receiver of the events of a Model (see Model.subscribe). */
+@FunctionalInterface
+public interface GameListener {
+
+    /** Respond to EVENTS, all the events of one change to the model (a
+     *  tilt, a new tile, or a wholesale change to the board), in the order
+     *  they happened.  EVENTS is unmodifiable, and is shared with the
+     *  model's other listeners. */
+    void onEvents(List<GameEvent> events);
+}
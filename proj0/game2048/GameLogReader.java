@@ -0,0 +1,113 @@
+package game2048;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/** A reader of the games in a log written by GameLogWriter, one at a
+ *  time, through a buffered FileChannel.
+ */
+public class GameLogReader implements Closeable {
+
+    /** A reader of the log in the file at PATH. */
+    public GameLogReader(Path path) throws IOException {
+        _channel = FileChannel.open(path, READ);
+        _buffer = ByteBuffer.allocateDirect(GameLogWriter.BUFFER_SIZE);
+        _buffer.limit(0);
+        if (!fill(6) || _buffer.getInt() != GameLogWriter.MAGIC) {
+            throw new IOException("not a game log: " + path);
+        }
+        _version = _buffer.getShort();
+        if (_version < 1 || _version > GameLogWriter.VERSION) {
+            throw new IOException("unsupported game log version "
+                                  + _version);
+        }
+    }
+
+    /** Return the next game in the log, or null if there are no more. */
+    public GameReplay next() throws IOException {
+        int headerLength =
+            GameLogWriter.HEADER_LENGTH - (_version == 1 ? 1 : 0);
+        if (!fill(headerLength)) {
+            if (_buffer.hasRemaining()) {
+                throw new EOFException("truncated game log");
+            }
+            return null;
+        }
+        int length = _buffer.getInt();
+        int moves = _buffer.getInt();
+        long seed = _buffer.getLong();
+        double probOf2 = _buffer.getDouble();
+        TileSpawner.Sampling sampling = _version == 1
+            ? TileSpawner.Sampling.REJECTION
+            : TileSpawner.Sampling.values()[_buffer.get()];
+        int size = _buffer.get();
+        byte[] events = new byte[length];
+        for (int k = 0; k < length; ) {
+            if (!fill(1)) {
+                throw new EOFException("truncated game log");
+            }
+            int n = Math.min(length - k, _buffer.remaining());
+            _buffer.get(events, k, n);
+            k += n;
+        }
+        return new GameReplay(seed, probOf2, sampling, size, moves,
+                              events);
+    }
+
+    /** Print the games in the log named by ARGS[0], or, if ARGS[1] is
+     *  given, the board of game number ARGS[1] (numbering from 0) before
+     *  move number ARGS[2] (default: at its end). */
+    public static void main(String[] args) throws IOException {
+        int game = args.length > 1 ? Integer.parseInt(args[1]) : -1;
+        try (GameLogReader log = new GameLogReader(Path.of(args[0]))) {
+            int k = 0;
+            for (GameReplay r = log.next(); r != null; r = log.next()) {
+                if (game < 0) {
+                    System.out.printf("%d: seed %d (%s), %d moves%n",
+                                      k, r.seed(), r.sampling(), r.moves());
+                } else if (k == game) {
+                    int move = args.length > 2 ? Integer.parseInt(args[2])
+                        : r.moves();
+                    System.out.print(r.seek(move));
+                    return;
+                }
+                k += 1;
+            }
+        }
+    }
+
+    /** Close the log's file. */
+    @Override
+    public void close() throws IOException {
+        _channel.close();
+    }
+
+    /** Read from the log until _buffer holds at least N unread bytes.
+     *  Returns false if the log ends first. */
+    private boolean fill(int n) throws IOException {
+        if (_buffer.remaining() >= n) {
+            return true;
+        }
+        _buffer.compact();
+        while (_buffer.position() < n) {
+            if (_channel.read(_buffer) < 0) {
+                break;
+            }
+        }
+        _buffer.flip();
+        return _buffer.remaining() >= n;
+    }
+
+    /** The log file. */
+    private final FileChannel _channel;
+    /** Bytes read from _channel, between position and limit. */
+    private final ByteBuffer _buffer;
+    /** Version of the log's format. */
+    private final short _version;
+}
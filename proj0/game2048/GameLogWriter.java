@@ -0,0 +1,92 @@
+package game2048;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/** A binary log of games of 2048, written through a buffered FileChannel.
+ *
+ *  A log starts with the int MAGIC and the short VERSION.  Each game
+ *  follows as a header of the length in bytes of its events (an int), its
+ *  number of moves (an int), its seed (a long), its probability of
+ *  spawning a 2 (a double), the ordinal of its TileSpawner.Sampling (a
+ *  byte), and its board size (a byte), and then the events themselves,
+ *  as described in GameRecord.  Version 1 logs, whose games were all
+ *  spawned by REJECTION, lack the byte of Sampling.  Games are written
+ *  whole, so threads may share a writer; games from different threads
+ *  appear in the order they are written.
+ */
+public class GameLogWriter implements Closeable {
+
+    /** First four bytes of a log: "2048" in ASCII. */
+    static final int MAGIC = 0x32303438;
+    /** Version of the format described above. */
+    static final short VERSION = 2;
+    /** Length of a game's header in bytes. */
+    static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 1 + 1;
+    /** Size of the output buffer in bytes. */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /** A writer of a new log in the file at PATH, replacing any file
+     *  already there. */
+    public GameLogWriter(Path path) throws IOException {
+        _channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+        _buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        _buffer.putInt(MAGIC).putShort(VERSION);
+    }
+
+    /** Append the game in RECORD to the log. */
+    synchronized void write(GameRecord record) throws IOException {
+        ByteBuffer events = record.events();
+        if (_buffer.remaining() < HEADER_LENGTH + events.remaining()) {
+            flush();
+        }
+        _buffer.putInt(events.remaining()).putInt(record.moves())
+            .putLong(record.seed()).putDouble(record.probOf2())
+            .put((byte) record.sampling().ordinal())
+            .put((byte) record.size());
+        if (_buffer.remaining() >= events.remaining()) {
+            _buffer.put(events);
+        } else {
+            flush();
+            while (events.hasRemaining()) {
+                _channel.write(events);
+            }
+        }
+        _games += 1;
+    }
+
+    /** Return the number of games written. */
+    public synchronized long games() {
+        return _games;
+    }
+
+    /** Write out any buffered bytes. */
+    public synchronized void flush() throws IOException {
+        _buffer.flip();
+        while (_buffer.hasRemaining()) {
+            _channel.write(_buffer);
+        }
+        _buffer.clear();
+    }
+
+    /** Flush the log and close its file. */
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        _channel.close();
+    }
+
+    /** The log file. */
+    private final FileChannel _channel;
+    /** Bytes not yet written to _channel. */
+    private final ByteBuffer _buffer;
+    /** Number of games written. */
+    private long _games;
+}
@@ -0,0 +1,157 @@
+package game2048;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/** The events of one game of 2048, encoded for a game log (see
+ *  GameLogWriter).
+ *
+ *  A game is described by the seed, the probability of a 2, and the
+ *  TileSpawner.Sampling with which its tiles were spawned, its board size,
+ *  and a stream of events, each
+ *  starting with a tag byte:
+ *  <ul>
+ *  <li> 0 to 3: a tilt toward the Side with that ordinal.
+ *  <li> SPAWN | FOUR? | P: a new tile, a 4 if the FOUR bit is set and
+ *       otherwise a 2, on square number row * size + col.  P holds that
+ *       number if it is less than BIG_SQUARE; otherwise P is BIG_SQUARE
+ *       and the number less BIG_SQUARE follows as a varint.
+ *  <li> KEYFRAME: the board just before move number n, where n is a
+ *       positive multiple of KEYFRAME_INTERVAL, as the score (a varint)
+ *       followed by the exponent of each square (see BitBoard) in the same
+ *       order as spawned squares.
+ *  </ul>
+ *  Varints are unsigned, seven bits per byte, low-order first, with the
+ *  high bit set on all but the last byte.  A 4x4 game thus costs about two
+ *  bytes per move.
+ *
+ *  A record is reused from game to game by calling start.
+ */
+class GameRecord {
+
+    /** Tag bits of a spawn event. */
+    static final int SPAWN = 0x40;
+    /** Set in a spawn event iff the new tile is a 4. */
+    static final int FOUR = 0x20;
+    /** Largest square number stored in a spawn event's tag. */
+    static final int BIG_SQUARE = 0x1f;
+    /** Tag of a keyframe event. */
+    static final int KEYFRAME = 0x80;
+    /** Number of moves between keyframes. */
+    static final int KEYFRAME_INTERVAL = 256;
+
+    /** An empty record. */
+    GameRecord() {
+        _events = new byte[256];
+    }
+
+    /** Begin recording a game on a board of SIZE squares a side whose
+     *  tiles are spawned from SEED, with 2s having probability PROBOF2 and
+     *  squares chosen by SAMPLING, discarding anything recorded before. */
+    void start(long seed, double probOf2, TileSpawner.Sampling sampling,
+               int size) {
+        _seed = seed;
+        _probOf2 = probOf2;
+        _sampling = sampling;
+        _size = size;
+        _length = 0;
+        _moves = 0;
+    }
+
+    /** Record that TILE was spawned. */
+    void spawn(Tile tile) {
+        int square = tile.row() * _size + tile.col();
+        int tag = SPAWN | (tile.value() == 4 ? FOUR : 0);
+        if (square < BIG_SQUARE) {
+            add(tag | square);
+        } else {
+            add(tag | BIG_SQUARE);
+            addVarint(square - BIG_SQUARE);
+        }
+    }
+
+    /** Record that MODEL, in its state before the move, is tilted toward
+     *  SIDE.  Adds a keyframe holding MODEL first when one is due. */
+    void move(Model model, Side side) {
+        if (_moves > 0 && _moves % KEYFRAME_INTERVAL == 0) {
+            add(KEYFRAME);
+            addVarint(model.score());
+            for (int row = 0; row < _size; row += 1) {
+                for (int col = 0; col < _size; col += 1) {
+                    int v = model.value(col, row);
+                    add(v == 0 ? 0 : Integer.numberOfTrailingZeros(v));
+                }
+            }
+        }
+        add(side.ordinal());
+        _moves += 1;
+    }
+
+    /** Return the seed of the recorded game. */
+    long seed() {
+        return _seed;
+    }
+
+    /** Return the probability of spawning a 2 in the recorded game. */
+    double probOf2() {
+        return _probOf2;
+    }
+
+    /** Return how squares were chosen for spawned tiles in the recorded
+     *  game. */
+    TileSpawner.Sampling sampling() {
+        return _sampling;
+    }
+
+    /** Return the board size of the recorded game. */
+    int size() {
+        return _size;
+    }
+
+    /** Return the number of moves recorded. */
+    int moves() {
+        return _moves;
+    }
+
+    /** Return the number of bytes of events recorded. */
+    int length() {
+        return _length;
+    }
+
+    /** Return a buffer holding the events recorded, valid until the next
+     *  change to this record. */
+    ByteBuffer events() {
+        return ByteBuffer.wrap(_events, 0, _length);
+    }
+
+    /** Append the byte B to the events. */
+    private void add(int b) {
+        if (_length == _events.length) {
+            _events = Arrays.copyOf(_events, 2 * _length);
+        }
+        _events[_length] = (byte) b;
+        _length += 1;
+    }
+
+    /** Append the unsigned varint N to the events. */
+    private void addVarint(int n) {
+        while ((n & ~0x7f) != 0) {
+            add((n & 0x7f) | 0x80);
+            n >>>= 7;
+        }
+        add(n);
+    }
+
+    /** Seed and probability of a 2 of the game being recorded. */
+    private long _seed;
+    private double _probOf2;
+    /** How squares were chosen for spawned tiles. */
+    private TileSpawner.Sampling _sampling;
+    /** Board size of the game being recorded. */
+    private int _size;
+    /** Number of moves recorded. */
+    private int _moves;
+    /** The encoded events, of which the first _length are in use. */
+    private byte[] _events;
+    private int _length;
+}
@@ -0,0 +1,219 @@
+package game2048;
+
+import java.util.Arrays;
+
+import static game2048.GameRecord.BIG_SQUARE;
+import static game2048.GameRecord.FOUR;
+import static game2048.GameRecord.KEYFRAME;
+import static game2048.GameRecord.KEYFRAME_INTERVAL;
+import static game2048.GameRecord.SPAWN;
+
+/** One game read from a game log, which can be reconstructed as a Model
+ *  at any point by replaying its spawns and tilts.
+ *
+ *  Replaying to move N starts from the latest keyframe at or before N
+ *  rather than from the beginning, so it costs at most KEYFRAME_INTERVAL
+ *  tilts however long the game.
+ */
+public class GameReplay {
+
+    /** The game with SEED, PROBOF2, SAMPLING, board size SIZE, MOVES
+     *  moves, and encoded EVENTS, as described in GameRecord. */
+    GameReplay(long seed, double probOf2, TileSpawner.Sampling sampling,
+               int size, int moves, byte[] events) {
+        _seed = seed;
+        _probOf2 = probOf2;
+        _sampling = sampling;
+        _size = size;
+        _moves = moves;
+        _events = events;
+    }
+
+    /** Return the seed from which the game's tiles were spawned. */
+    public long seed() {
+        return _seed;
+    }
+
+    /** Return the probability with which the game spawned 2s. */
+    public double probOf2() {
+        return _probOf2;
+    }
+
+    /** Return how the game chose squares for its spawned tiles. */
+    TileSpawner.Sampling sampling() {
+        return _sampling;
+    }
+
+    /** Return the number of squares on a side of the game's board. */
+    public int size() {
+        return _size;
+    }
+
+    /** Return the number of moves in the game. */
+    public int moves() {
+        return _moves;
+    }
+
+    /** Return the Side toward which move number N (numbering from 0)
+     *  tilted the board. */
+    public Side move(int n) {
+        if (n < 0 || n >= _moves) {
+            throw new IllegalArgumentException("no move " + n);
+        }
+        int[] pos = { start(n) };
+        for (int moveNo = firstMove(n); ; ) {
+            int tag = _events[pos[0]] & 0xff;
+            if (tag < SPAWN && moveNo == n) {
+                return Side.values()[tag];
+            }
+            moveNo += tag < SPAWN ? 1 : 0;
+            skip(pos);
+        }
+    }
+
+    /** Return a new Model holding the game as it stood just before move
+     *  number N (numbering from 0), or at its end if N is moves(). */
+    public Model seek(int n) {
+        if (n < 0 || n > _moves) {
+            throw new IllegalArgumentException("no move " + n);
+        }
+        int[] pos = { start(n) };
+        Model model;
+        int moveNo = firstMove(n);
+        if (moveNo > 0) {
+            model = keyframe(pos);
+        } else {
+            model = newModel(new int[_size][_size], 0);
+        }
+        while (pos[0] < _events.length) {
+            int tag = _events[pos[0]] & 0xff;
+            if (tag < SPAWN) {
+                if (moveNo == n) {
+                    break;
+                }
+                model.tilt(Side.values()[tag]);
+                moveNo += 1;
+                pos[0] += 1;
+            } else if (tag < KEYFRAME) {
+                pos[0] += 1;
+                int square = tag & BIG_SQUARE;
+                if (square == BIG_SQUARE) {
+                    square += readVarint(pos);
+                }
+                model.addTile(Tile.create((tag & FOUR) != 0 ? 4 : 2,
+                                          square % _size, square / _size));
+            } else {
+                skip(pos);
+            }
+        }
+        return model;
+    }
+
+    /** Return a new Model holding the game at its end. */
+    public Model replay() {
+        return seek(_moves);
+    }
+
+    /** Return the number of the move just after the keyframe from which
+     *  seek(N) starts, or 0 if it starts from the beginning. */
+    private int firstMove(int n) {
+        int k = Math.min(n / KEYFRAME_INTERVAL, keyframes().length);
+        return k * KEYFRAME_INTERVAL;
+    }
+
+    /** Return the position in _events from which seek(N) starts: that of
+     *  the latest keyframe at or before move N, or 0. */
+    private int start(int n) {
+        int k = firstMove(n) / KEYFRAME_INTERVAL;
+        return k == 0 ? 0 : keyframes()[k - 1];
+    }
+
+    /** Return a new Model holding the keyframe at position POS[0] of
+     *  _events, and advance POS[0] past it. */
+    private Model keyframe(int[] pos) {
+        pos[0] += 1;
+        int score = readVarint(pos);
+        int[][] values = new int[_size][_size];
+        for (int row = 0; row < _size; row += 1) {
+            for (int col = 0; col < _size; col += 1) {
+                int e = _events[pos[0]];
+                values[_size - 1 - row][col] = e == 0 ? 0 : 1 << e;
+                pos[0] += 1;
+            }
+        }
+        return newModel(values, score);
+    }
+
+    /** Return a new Model with the tiles in RAWVALUES (indexed as for
+     *  Model(int[][], int, int)) and SCORE, stored as efficiently as its
+     *  size allows. */
+    private Model newModel(int[][] rawValues, int score) {
+        Model.Storage storage;
+        if (_size == BitBoard.SIZE) {
+            storage = Model.Storage.PACKED;
+        } else if (_size >= GridBoard.MIN_SIZE) {
+            storage = Model.Storage.GRID;
+        } else {
+            storage = Model.Storage.TILES;
+        }
+        return new Model(rawValues, score, 0, false, storage);
+    }
+
+    /** Return the positions in _events of the keyframes, in order,
+     *  finding them on first use. */
+    private int[] keyframes() {
+        if (_keyframes == null) {
+            int[] found = new int[_moves / KEYFRAME_INTERVAL];
+            int count = 0;
+            for (int[] pos = { 0 }; pos[0] < _events.length; ) {
+                if ((_events[pos[0]] & 0xff) == KEYFRAME) {
+                    found[count] = pos[0];
+                    count += 1;
+                }
+                skip(pos);
+            }
+            _keyframes = Arrays.copyOf(found, count);
+        }
+        return _keyframes;
+    }
+
+    /** Advance POS[0] past the event it indicates in _events. */
+    private void skip(int[] pos) {
+        int tag = _events[pos[0]] & 0xff;
+        pos[0] += 1;
+        if (tag == KEYFRAME) {
+            readVarint(pos);
+            pos[0] += _size * _size;
+        } else if (tag >= SPAWN && (tag & BIG_SQUARE) == BIG_SQUARE) {
+            readVarint(pos);
+        }
+    }
+
+    /** Return the varint at position POS[0] of _events and advance POS[0]
+     *  past it. */
+    private int readVarint(int[] pos) {
+        int n = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = _events[pos[0]];
+            pos[0] += 1;
+            n |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return n;
+            }
+        }
+    }
+
+    /** Seed and probability of a 2 with which tiles were spawned. */
+    private final long _seed;
+    private final double _probOf2;
+    /** How squares were chosen for spawned tiles. */
+    private final TileSpawner.Sampling _sampling;
+    /** Board size. */
+    private final int _size;
+    /** Number of moves. */
+    private final int _moves;
+    /** The encoded events. */
+    private final byte[] _events;
+    /** Positions of the keyframes in _events, or null if not yet found. */
+    private int[] _keyframes;
+}
@@ -0,0 +1,302 @@
+package game2048;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/** A large square 2048 board, stored as one array holding the base-2
+ *  logarithm of the value of each square's tile (0 for empty).
+ *
+ *  A tilt slides each line of the board (a column for NORTH and SOUTH, a
+ *  row for EAST and WEST) in place in a single pass, so it takes time
+ *  linear in the number of squares and allocates no tiles.  The same pass
+ *  counts the adjacent equal pairs the slid line forms, within itself and
+ *  with the line before it, so whether the game is over is known after a
+ *  tilt without a second scan of the board.  Between tilts, place keeps
+ *  the number of empty squares, the largest tile, and that count up to
+ *  date.
+ *
+ *  A board of at least its parallel size splits its lines into chunks of
+ *  CHUNK_LINES, slides the chunks in parallel in the common fork-join
+ *  pool, and then counts the pairs across chunk boundaries.
+ *  PARALLEL_SIZE has not been measured on more than one core: a
+ *  single core cannot show a parallel speedup, only the cost of the
+ *  stream (a few hundred bytes and a few microseconds a tilt).  It should
+ *  be set from a multi-core run of GridTiltBenchmark.
+ */
+class GridBoard {
+
+    /** Smallest size for which a GridBoard is used by Model. */
+    static final int MIN_SIZE = 8;
+    /** Largest supported size. */
+    static final int MAX_SIZE = 64;
+    /** Boards at least this size tilt their lines in parallel by default
+     *  (unmeasured; see above). */
+    static final int PARALLEL_SIZE = 32;
+    /** Number of lines each task slides when tilting in parallel. */
+    static final int CHUNK_LINES = 8;
+
+    /** An empty board of size SIZE. */
+    GridBoard(int size) {
+        this(size, PARALLEL_SIZE);
+    }
+
+    /** An empty board of size SIZE that tilts in parallel iff SIZE is at
+     *  least PARALLELSIZE.  Used for testing and benchmarks. */
+    GridBoard(int size, int parallelSize) {
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("unsupported board size "
+                                               + size);
+        }
+        _size = size;
+        _cells = new byte[size * size];
+        int chunks = size >= parallelSize
+            ? (size + CHUNK_LINES - 1) / CHUNK_LINES : 1;
+        _chunkScore = new int[chunks];
+        _chunkMoved = new int[chunks];
+        _chunkMerges = new int[chunks];
+        _chunkMax = new int[chunks];
+        _chunkPairs = new int[chunks];
+        clear();
+    }
+
+    /** A board where RAWVALUES hold the values of the tiles (0 for
+     *  empty), indexed as for Board(int[][]). */
+    GridBoard(int[][] rawValues) {
+        this(rawValues.length);
+        for (int col = 0; col < _size; col += 1) {
+            for (int row = 0; row < _size; row += 1) {
+                place(rawValues[_size - 1 - row][col], col, row);
+            }
+        }
+    }
+
+    /** Return the number of squares on a side. */
+    int size() {
+        return _size;
+    }
+
+    /** Return the value of the tile at (COL, ROW), or 0 if there is
+     *  none. */
+    int value(int col, int row) {
+        int e = _cells[row * _size + col];
+        return e == 0 ? 0 : 1 << e;
+    }
+
+    /** Return the number of empty squares. */
+    int emptyCount() {
+        return _emptyCount;
+    }
+
+    /** Return the largest tile value (0 if the board is empty). */
+    int maxValue() {
+        return _maxExponent == 0 ? 0 : 1 << _maxExponent;
+    }
+
+    /** Return true iff two adjacent tiles have the same value. */
+    boolean mergeablePairExists() {
+        return _equalPairs > 0;
+    }
+
+    /** Empty the board. */
+    void clear() {
+        Arrays.fill(_cells, (byte) 0);
+        _emptyCount = _size * _size;
+        _maxExponent = 0;
+        _equalPairs = 0;
+    }
+
+    /** Set the square at (COL, ROW) to hold a tile with VALUE, which must
+     *  be 0 (for empty) or a power of 2, updating the counts. */
+    void place(int value, int col, int row) {
+        int e = value == 0 ? 0 : Integer.numberOfTrailingZeros(value);
+        int k = row * _size + col;
+        int old = _cells[k];
+        if (old == e) {
+            return;
+        }
+        _equalPairs += equalNeighbors(col, row, e)
+            - equalNeighbors(col, row, old);
+        if (old == 0) {
+            _emptyCount -= 1;
+        } else if (e == 0) {
+            _emptyCount += 1;
+        }
+        _maxExponent = Math.max(_maxExponent, e);
+        _cells[k] = (byte) e;
+    }
+
+    /** Return the number of squares next to (COL, ROW) holding exponent
+     *  E, or 0 if E is 0. */
+    private int equalNeighbors(int col, int row, int e) {
+        if (e == 0) {
+            return 0;
+        }
+        int k = row * _size + col, n = 0;
+        if (col > 0 && _cells[k - 1] == e) {
+            n += 1;
+        }
+        if (col + 1 < _size && _cells[k + 1] == e) {
+            n += 1;
+        }
+        if (row > 0 && _cells[k - _size] == e) {
+            n += 1;
+        }
+        if (row + 1 < _size && _cells[k + _size] == e) {
+            n += 1;
+        }
+        return n;
+    }
+
+    /** Tilt the board toward SIDE, as Model.tilt does, and record the
+     *  effect in RESULT. */
+    void tilt(Side side, MoveResult result) {
+        switch (side) {
+        case NORTH -> {
+            _firstStart = (_size - 1) * _size;
+            _step = -_size;
+            _lineStep = 1;
+        }
+        case SOUTH -> {
+            _firstStart = 0;
+            _step = _size;
+            _lineStep = 1;
+        }
+        case EAST -> {
+            _firstStart = _size - 1;
+            _step = -1;
+            _lineStep = _size;
+        }
+        default -> {
+            _firstStart = 0;
+            _step = 1;
+            _lineStep = _size;
+        }
+        }
+
+        int chunks = _chunkScore.length;
+        if (chunks == 1) {
+            slideChunk(0);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(_slideChunk);
+        }
+
+        int score = 0, moved = 0, merges = 0, pairs = 0;
+        for (int c = 0; c < chunks; c += 1) {
+            score += _chunkScore[c];
+            moved += _chunkMoved[c];
+            merges += _chunkMerges[c];
+            pairs += _chunkPairs[c];
+            _maxExponent = Math.max(_maxExponent, _chunkMax[c]);
+            if (c > 0) {
+                pairs += crossPairs(c * CHUNK_LINES);
+            }
+        }
+        _emptyCount += merges;
+        _equalPairs = pairs;
+        result.set(moved, merges, score);
+    }
+
+    /** Slide lines CHUNK * CHUNK_LINES up to the next chunk (or all lines
+     *  if the board tilts serially) toward the side set by tilt,
+     *  recording the chunk's score, moves, merges, largest exponent, and
+     *  equal pairs in the _chunk arrays.  The pairs counted are those
+     *  within each line and between each line and the one before it in
+     *  the chunk; pairs across chunks are left to tilt. */
+    private void slideChunk(int chunk) {
+        int from, to;
+        if (_chunkScore.length == 1) {
+            from = 0;
+            to = _size;
+        } else {
+            from = chunk * CHUNK_LINES;
+            to = Math.min(from + CHUNK_LINES, _size);
+        }
+        int step = _step, lineStep = _lineStep;
+        int score = 0, moved = 0, merges = 0, max = 0, pairs = 0;
+        for (int line = from; line < to; line += 1) {
+            int start = _firstStart + line * lineStep;
+            int dest = start, last = -1, mergeable = 0;
+            for (int k = 0, i = start; k < _size; k += 1, i += step) {
+                int e = _cells[i];
+                if (e == 0) {
+                    continue;
+                }
+                _cells[i] = 0;
+                if (e == mergeable) {
+                    e += 1;
+                    _cells[last] = (byte) e;
+                    score += 1 << e;
+                    moved += 1;
+                    merges += 1;
+                    mergeable = 0;
+                } else {
+                    _cells[dest] = (byte) e;
+                    if (dest != i) {
+                        moved += 1;
+                    }
+                    last = dest;
+                    dest += step;
+                    mergeable = e;
+                }
+                max = Math.max(max, e);
+            }
+
+            /* The tiles of the line now fill the squares from START up
+             * to DEST, so only those can be part of a pair, and the
+             * squares beside them in the line before are in place. */
+            int prev = 0;
+            for (int i = start; i != dest; i += step) {
+                int e = _cells[i];
+                if (e == prev) {
+                    pairs += 1;
+                }
+                if (line > from && _cells[i - lineStep] == e) {
+                    pairs += 1;
+                }
+                prev = e;
+            }
+        }
+        _chunkScore[chunk] = score;
+        _chunkMoved[chunk] = moved;
+        _chunkMerges[chunk] = merges;
+        _chunkMax[chunk] = max;
+        _chunkPairs[chunk] = pairs;
+    }
+
+    /** Return the number of equal tiles in line LINE next to the tile
+     *  beside them in the line before, after a tilt. */
+    private int crossPairs(int line) {
+        int pairs = 0;
+        int start = _firstStart + line * _lineStep;
+        for (int k = 0, i = start; k < _size; k += 1, i += _step) {
+            int e = _cells[i];
+            if (e == 0) {
+                break;
+            }
+            if (_cells[i - _lineStep] == e) {
+                pairs += 1;
+            }
+        }
+        return pairs;
+    }
+
+    /** Number of squares on a side. */
+    private final int _size;
+    /** Exponent of the tile in each square, indexed by row * _size + col. */
+    private final byte[] _cells;
+    /** Number of empty squares, largest exponent, and number of adjacent
+     *  equal pairs. */
+    private int _emptyCount, _maxExponent, _equalPairs;
+    /** Index of the first square of line 0, the distance from each square
+     *  of a line to the next one toward the side being tilted from, and
+     *  the distance from each line to the next, during a tilt. */
+    private int _firstStart, _step, _lineStep;
+    /** Score, tiles moved, merges, largest exponent, and equal pairs of
+     *  each chunk of lines in the most recent tilt. */
+    private final int[] _chunkScore, _chunkMoved, _chunkMerges, _chunkMax,
+        _chunkPairs;
+    /** Slides one chunk of lines; made once so that a tilt creates no
+     *  lambda. */
+    private final IntConsumer _slideChunk = this::slideChunk;
+}
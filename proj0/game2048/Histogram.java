@@ -0,0 +1,119 @@
+package game2048;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/** A histogram of non-negative values, such as latencies in nanoseconds
+ *  or numbers of retries, that many threads may record at once.
+ *
+ *  Values are counted in buckets by their highest set bit, so bucket B
+ *  holds the values from 2 ** (B - 1) to 2 ** B - 1 (bucket 0 holds 0).
+ *  Percentiles are therefore reported to within a factor of two, as the
+ *  upper end of the bucket that holds them; counts, means, and maxima
+ *  are exact.
+ */
+public class Histogram implements HistogramMXBean {
+
+    /** Number of buckets: one for 0, and one for each bit of a long. */
+    static final int BUCKETS = Long.SIZE + 1;
+
+    /** An empty histogram called NAME. */
+    Histogram(String name) {
+        _name = name;
+    }
+
+    /** Return my name. */
+    String name() {
+        return _name;
+    }
+
+    /** Record VALUE, which must be non-negative. */
+    void record(long value) {
+        _buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+        _count.increment();
+        _sum.add(value);
+        _max.accumulate(value);
+    }
+
+    /** Record the time elapsed since START, a value of Metrics.time(),
+     *  unless START is 0 because metrics were disabled when it was
+     *  taken. */
+    void recordSince(long start) {
+        if (start != 0) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return _count.sum();
+    }
+
+    @Override
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0.0 : (double) _sum.sum() / count;
+    }
+
+    @Override
+    public long getMax() {
+        return _max.get();
+    }
+
+    @Override
+    public long getP50() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public long getP99() {
+        return percentile(0.99);
+    }
+
+    /** Return an upper bound on the value below which a fraction Q of the
+     *  values recorded fall, within a factor of two, or 0 if none have
+     *  been recorded. */
+    long percentile(double q) {
+        long count = 0;
+        for (int b = 0; b < BUCKETS; b += 1) {
+            count += _buckets.get(b);
+        }
+        long rank = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b += 1) {
+            seen += _buckets.get(b);
+            if (seen >= rank && seen > 0) {
+                return Math.min(getMax(), b == 0 ? 0 : (1L << b) - 1);
+            }
+        }
+        return 0;
+    }
+
+    /** Forget all values recorded. */
+    void reset() {
+        for (int b = 0; b < BUCKETS; b += 1) {
+            _buckets.set(b, 0);
+        }
+        _count.reset();
+        _sum.reset();
+        _max.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-12s count %10d  mean %12.1f  p50 %10d  "
+                             + "p99 %10d  max %10d",
+                             _name, getCount(), getMean(), getP50(),
+                             getP99(), getMax());
+    }
+
+    /** My name. */
+    private final String _name;
+    /** Number of values in each bucket. */
+    private final AtomicLongArray _buckets = new AtomicLongArray(BUCKETS);
+    /** Number and sum of the values recorded. */
+    private final LongAdder _count = new LongAdder(), _sum = new LongAdder();
+    /** Largest value recorded. */
+    private final LongAccumulator _max = new LongAccumulator(Math::max, 0);
+}
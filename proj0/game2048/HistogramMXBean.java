@@ -0,0 +1,21 @@
+package game2048;
+
+/** The view of a Histogram offered through JMX. */
+public interface HistogramMXBean {
+
+    /** Return the number of values recorded. */
+    long getCount();
+
+    /** Return the mean of the values recorded. */
+    double getMean();
+
+    /** Return the largest value recorded. */
+    long getMax();
+
+    /** Return an upper bound on the median value recorded. */
+    long getP50();
+
+    /** Return an upper bound on the 99th percentile of the values
+     *  recorded. */
+    long getP99();
+}
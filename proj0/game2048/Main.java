@@ -1,5 +1,7 @@
 package game2048;
 
+import java.nio.file.Path;
+
 /** The main class for the 2048 game.
  *  @author P. N. Hilfinger
  */
@@ -10,16 +12,53 @@ public class Main {
     /** Number of squares on the side of a board. */
     static final int BOARD_SIZE = 4;
 
+    /** Plays 2048 in a GUI. If ARGS contains "--ai", moves are chosen by
+     *  an ExpectimaxPolicy rather than by the arrow keys.  "--size N" plays
+     *  on an NxN board, up to GridBoard.MAX_SIZE; boards of
+     *  GridBoard.MIN_SIZE or more are shown as a heatmap.  "--row-tables
+     *  FILE" loads the tables used to tilt 4x4 boards from FILE, or
+     *  builds them and saves them there if it does not hold them.
+     *  "--metrics SECONDS" registers Metrics with JMX and prints them to
+     *  the standard error every SECONDS seconds. */
     public static void main(String[] args) {
+        boolean useAI = false;
+        int size = BOARD_SIZE;
+        for (int k = 0; k < args.length; k += 1) {
+            if (args[k].equals("--ai")) {
+                useAI = true;
+            } else if (args[k].equals("--size") && k + 1 < args.length) {
+                k += 1;
+                size = Integer.parseInt(args[k]);
+            } else if (args[k].equals("--row-tables")
+                       && k + 1 < args.length) {
+                k += 1;
+                RowTables.setFile(Path.of(args[k]));
+            } else if (args[k].equals("--metrics") && k + 1 < args.length) {
+                k += 1;
+                Metrics.register();
+                Metrics.startDump(Long.parseLong(args[k]), System.err);
+            } else {
+                usage();
+            }
+        }
+        if (size < 2 || size > GridBoard.MAX_SIZE
+            || (useAI && size != BitBoard.SIZE)) {
+            usage();
+        }
+        MovePolicy ai = null;
+        if (useAI) {
+            ai = new ExpectimaxPolicy(TILE2_PROBABILITY);
+        }
+
         Model model;
-        model = new Model(BOARD_SIZE);
+        model = new Model(size);
 
         GUI gui;
 
         gui = new GUI("2048 61B", model);
         gui.display(true);
 
-        Game game = new Game(model, gui, TILE2_PROBABILITY, 0);
+        Game game = new Game(model, gui, TILE2_PROBABILITY, 0, ai);
 
         try {
             while (game.playing()) {
@@ -33,4 +72,13 @@ public class Main {
         System.exit(0);
     }
 
+    /** Print a usage message and exit. */
+    private static void usage() {
+        System.err.printf("Usage: java game2048.Main [--ai] [--size N]"
+                          + " [--row-tables FILE] [--metrics SECONDS]%n"
+                          + "  (2 <= N <= %d; --ai requires N = %d)%n",
+                          GridBoard.MAX_SIZE, BitBoard.SIZE);
+        System.exit(1);
+    }
+
 }
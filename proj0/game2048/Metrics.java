@@ -0,0 +1,165 @@
+package game2048;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Formatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/** Counters and histograms describing where a game spends its time, for
+ *  use in production.
+ *
+ *  Histograms are recorded only while metrics are enabled (by setEnabled,
+ *  by the system property game2048.metrics, or through JMX), so that
+ *  headless simulations, which tilt millions of boards a second, pay only
+ *  for a test of a flag when they are not.  Frame counts are kept always.
+ *  The metrics can be watched with any JMX client once register has been
+ *  called, as the MBean game2048:type=Metrics and one MBean
+ *  game2048:type=Histogram,name=N for each histogram, or printed
+ *  periodically by startDump.
+ */
+public final class Metrics {
+
+    /** System property that, if "true", enables metrics from the start. */
+    static final String PROPERTY = "game2048.metrics";
+
+    /** Nanoseconds taken by each call of Model.tilt. */
+    static final Histogram TILT = new Histogram("tilt");
+    /** Nanoseconds taken by each test of whether a game is over. */
+    static final Histogram GAME_OVER = new Histogram("gameOver");
+    /** Number of random tiles drawn by each call of
+     *  TileSpawner.getValidNewTile before finding an empty square.  On a
+     *  nearly full board of N squares with E empty, this averages N / E
+     *  when squares are chosen by REJECTION, and is always 1 otherwise. */
+    static final Histogram SPAWN_TRIES = new Histogram("spawnTries");
+    /** Nanoseconds taken to paint each frame of a BoardWidget. */
+    static final Histogram FRAME = new Histogram("frame");
+
+    /** Frames published and dropped by all BoardWidgets. */
+    static final LongAdder PUBLISHED_FRAMES = new LongAdder(),
+        DROPPED_FRAMES = new LongAdder();
+
+    /** All histograms, in the order reported. */
+    private static final Histogram[] HISTOGRAMS = {
+        TILT, GAME_OVER, SPAWN_TRIES, FRAME
+    };
+
+    /** Not instantiable. */
+    private Metrics() {
+    }
+
+    /** Return true iff histograms are being recorded. */
+    static boolean enabled() {
+        return _enabled;
+    }
+
+    /** Record histograms from now on iff ENABLED. */
+    static void setEnabled(boolean enabled) {
+        _enabled = enabled;
+    }
+
+    /** Return the current time in nanoseconds, for a later call of
+     *  Histogram.recordSince, or 0 if metrics are disabled. */
+    static long time() {
+        return _enabled ? System.nanoTime() : 0;
+    }
+
+    /** Forget everything recorded so far. */
+    static void reset() {
+        for (Histogram h : HISTOGRAMS) {
+            h.reset();
+        }
+        PUBLISHED_FRAMES.reset();
+        DROPPED_FRAMES.reset();
+    }
+
+    /** Return a report of all metrics, one per line. */
+    static String report() {
+        Formatter out = new Formatter();
+        for (Histogram h : HISTOGRAMS) {
+            out.format("%s%n", h);
+        }
+        out.format("%-12s published %d  dropped %d%n", "frames",
+                   PUBLISHED_FRAMES.sum(), DROPPED_FRAMES.sum());
+        return out.toString();
+    }
+
+    /** Register the metrics with the platform MBean server, if they are not
+     *  registered already. */
+    static synchronized void register() {
+        if (_registered) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new Bean(),
+                                 new ObjectName("game2048:type=Metrics"));
+            for (Histogram h : HISTOGRAMS) {
+                server.registerMBean(h, new ObjectName(
+                    "game2048:type=Histogram,name=" + h.name()));
+            }
+        } catch (JMException excp) {
+            throw new IllegalStateException(excp.getMessage());
+        }
+        _registered = true;
+    }
+
+    /** Enable metrics and print a report to OUT every PERIOD seconds from
+     *  a daemon thread, until the returned task is cancelled. */
+    static ScheduledFuture<?> startDump(long period, PrintStream out) {
+        ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "game2048-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+        setEnabled(true);
+        return timer.scheduleAtFixedRate(() -> out.print(report()),
+                                         period, period, TimeUnit.SECONDS);
+    }
+
+    /** The view of these metrics offered through JMX. */
+    private static class Bean implements MetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return enabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Metrics.setEnabled(enabled);
+        }
+
+        @Override
+        public long getPublishedFrames() {
+            return PUBLISHED_FRAMES.sum();
+        }
+
+        @Override
+        public long getDroppedFrames() {
+            return DROPPED_FRAMES.sum();
+        }
+
+        @Override
+        public String getReport() {
+            return report();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+
+    /** True iff histograms are being recorded. */
+    private static volatile boolean _enabled =
+        Boolean.getBoolean(PROPERTY);
+    /** True iff register has been called. */
+    private static boolean _registered;
+}
@@ -0,0 +1,23 @@
+package game2048;
+
+/** The view of Metrics offered through JMX. */
+public interface MetricsMXBean {
+
+    /** Return true iff latencies and retries are being recorded. */
+    boolean isEnabled();
+
+    /** Start recording latencies and retries iff ENABLED. */
+    void setEnabled(boolean enabled);
+
+    /** Return the number of frames published for painting. */
+    long getPublishedFrames();
+
+    /** Return the number of frames replaced before they were painted. */
+    long getDroppedFrames();
+
+    /** Return a report of all metrics. */
+    String getReport();
+
+    /** Forget everything recorded so far. */
+    void reset();
+}
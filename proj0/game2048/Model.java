@@ -1,21 +1,67 @@
 package game2048;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Formatter;
-import java.util.Observable;
+import java.util.List;
+import java.util.function.Supplier;
 
 
 /** The state of a game of 2048.
+ *
+ *  Each change to the model is reported to its GameListeners as one batch
+ *  of GameEvents: a tilt as the tiles it moved and merged, followed by any
+ *  change in score and the end of the game.  Events are created only
+ *  while there are listeners.
  *  @author TODO: YOUR NAME HERE
  */
-public class Model extends Observable {
-    /** Current contents of the board. */
+public class Model {
+    /** Ways of storing the board. */
+    public enum Storage {
+        /** A Board of Tile objects, which the GUI can animate. */
+        TILES,
+        /** A 4x4 board packed into a long (see BitBoard). */
+        PACKED,
+        /** An array of exponents (see GridBoard), for large boards. */
+        GRID
+    }
+
+    /** Current contents of the board, or null if it is not stored as
+     *  TILES. */
     private final Board _board;
+    /** Current contents of the board when it is PACKED. */
+    private long _bits;
+    /** Current contents of the board when it is stored as a GRID, or
+     *  null otherwise. */
+    private final GridBoard _grid;
+    /** How this game's board is stored. */
+    private final Storage _storage;
     /** Current score. */
     private int _score;
     /** Maximum score so far.  Updated when game ends. */
     private int _maxScore;
+    /** Result of the most recent tilt, reused by each tilt. */
+    private final MoveResult _lastMove = new MoveResult();
+    /** Numbers of tiles moved and merges made so far in the current tilt
+     *  of _board. */
+    private int _tilesMoved, _merges;
     /** True iff game is ended. */
     private boolean _gameOver;
+    /** Empty squares of the board, for boards not PACKED, or null if
+     *  they have not been asked for. */
+    private FreeCells _free;
+    /** States recorded by checkpoint, or null if there have been none. */
+    private MoveHistory _history;
+    /** Receivers of this model's events.  Replaced, never modified, when
+     *  listeners come and go. */
+    private volatile GameListener[] _listeners = NO_LISTENERS;
+    /** Events of the change in progress, or null if nobody was listening
+     *  when it started. */
+    private ArrayList<GameEvent> _batch;
+
+    /** The listeners of a model that has none. */
+    private static final GameListener[] NO_LISTENERS = {};
 
     /* Coordinate System: column C, row R of the board (where row 0,
      * column 0 is the lower-left corner of the board) will correspond
@@ -26,9 +72,29 @@ public class Model extends Observable {
     public static final int MAX_PIECE = 2048;
 
     /** A new 2048 game on a board of size SIZE with no pieces
-     *  and score 0. */
+     *  and score 0.  Boards of at least GridBoard.MIN_SIZE squares a side
+     *  are stored as a GRID, and others as TILES. */
     public Model(int size) {
-        _board = new Board(size);
+        this(size, size >= GridBoard.MIN_SIZE ? Storage.GRID : Storage.TILES);
+    }
+
+    /** A new 2048 game on a board of size SIZE with no pieces and score 0,
+     *  stored as a BitBoard iff PACKED.  Packed boards must have size
+     *  BitBoard.SIZE, and do no allocation when tilted. */
+    public Model(int size, boolean packed) {
+        this(size, packed ? Storage.PACKED : Storage.TILES);
+    }
+
+    /** A new 2048 game on a board of size SIZE with no pieces and score 0,
+     *  stored as STORAGE.  PACKED boards must have size BitBoard.SIZE, and
+     *  GRID boards at most GridBoard.MAX_SIZE. */
+    public Model(int size, Storage storage) {
+        if (storage == Storage.PACKED && size != BitBoard.SIZE) {
+            throw new IllegalArgumentException("packed boards must be 4x4");
+        }
+        _storage = storage;
+        _board = storage == Storage.TILES ? new Board(size) : null;
+        _grid = storage == Storage.GRID ? new GridBoard(size) : null;
         _score = _maxScore = 0;
         _gameOver = false;
     }
@@ -37,7 +103,26 @@ public class Model extends Observable {
      * (0 if null). VALUES is indexed by (row, col) with (0, 0) corresponding
      * to the bottom-left corner. Used for testing purposes. */
     public Model(int[][] rawValues, int score, int maxScore, boolean gameOver) {
-        _board = new Board(rawValues);
+        this(rawValues, score, maxScore, gameOver, false);
+    }
+
+    /** As for the constructor above, but stores the board as a BitBoard
+     *  iff PACKED.  Used for testing purposes. */
+    public Model(int[][] rawValues, int score, int maxScore, boolean gameOver,
+                 boolean packed) {
+        this(rawValues, score, maxScore, gameOver,
+             packed ? Storage.PACKED : Storage.TILES);
+    }
+
+    /** As for the constructor above, but stores the board as STORAGE. */
+    public Model(int[][] rawValues, int score, int maxScore, boolean gameOver,
+                 Storage storage) {
+        _storage = storage;
+        _board = storage == Storage.TILES ? new Board(rawValues) : null;
+        _grid = storage == Storage.GRID ? new GridBoard(rawValues) : null;
+        if (storage == Storage.PACKED) {
+            _bits = BitBoard.fromValues(rawValues);
+        }
         this._score = score;
         this._maxScore = maxScore;
         this._gameOver = gameOver;
@@ -53,13 +138,67 @@ public class Model extends Observable {
      *  Used for testing. Should be deprecated and removed.
      * */
     public Tile tile(int col, int row) {
-        return _board.tile(col, row);
+        return switch (_storage) {
+            case TILES -> _board.tile(col, row);
+            case PACKED -> BitBoard.tile(_bits, col, row);
+            case GRID -> {
+                int v = _grid.value(col, row);
+                yield v == 0 ? null : Tile.create(v, col, row);
+            }
+        };
+    }
+
+    /** Return the value of the tile at (COL, ROW), or 0 if there is
+     *  none.  Unlike tile, this creates no Tile however the board is
+     *  stored. */
+    public int value(int col, int row) {
+        return switch (_storage) {
+            case TILES -> {
+                Tile t = _board.tile(col, row);
+                yield t == null ? 0 : t.value();
+            }
+            case PACKED -> BitBoard.value(_bits, col, row);
+            case GRID -> _grid.value(col, row);
+        };
+    }
+
+    /** Return how this model's board is stored. */
+    public Storage storage() {
+        return _storage;
+    }
+
+    /** Return the board of this model, or null if it is not stored as
+     *  TILES.  Used for testing. */
+    Board board() {
+        return _board;
+    }
+
+    /** Return the board packed as described in BitBoard.  The board must
+     *  have size BitBoard.SIZE. */
+    public long packedBoard() {
+        if (_storage == Storage.PACKED) {
+            return _bits;
+        }
+        if (size() != BitBoard.SIZE) {
+            throw new IllegalStateException("only 4x4 boards can be packed");
+        }
+        long bits = 0;
+        for (int col = 0; col < BitBoard.SIZE; col += 1) {
+            for (int row = 0; row < BitBoard.SIZE; row += 1) {
+                bits = BitBoard.place(bits, value(col, row), col, row);
+            }
+        }
+        return bits;
     }
 
     /** Return the number of squares on one side of the board.
      *  Used for testing. Should be deprecated and removed. */
     public int size() {
-        return _board.size();
+        return switch (_storage) {
+            case TILES -> _board.size();
+            case PACKED -> BitBoard.SIZE;
+            case GRID -> _grid.size();
+        };
     }
 
     /** Return true iff the game is over (there are no moves, or
@@ -82,25 +221,154 @@ public class Model extends Observable {
         return _maxScore;
     }
 
-    /** Clear the board to empty and reset the score. */
+    /** Clear the board to empty, reset the score, and forget all
+     *  checkpoints. */
     public void clear() {
         _score = 0;
         _gameOver = false;
-        _board.clear();
-        setChanged();
+        if (_history != null) {
+            _history.clear();
+        }
+        clearBoard();
+        startBatch();
+        emit(GameEvent.BoardChanged::new);
+        endBatch();
+    }
+
+    /** Return the number of empty squares on the board. */
+    public int emptyCount() {
+        return switch (_storage) {
+            case TILES -> _board.emptyCount();
+            case PACKED -> BitBoard.emptyCount(_bits);
+            case GRID -> _grid.emptyCount();
+        };
+    }
+
+    /** Return the number, row * size() + col, of the Kth empty square of
+     *  the board in increasing order of those numbers, counting from 0,
+     *  where 0 <= K < emptyCount().  The result depends only on the
+     *  contents of the board, not on how it is stored. */
+    int emptySquare(int k) {
+        if (_storage == Storage.PACKED) {
+            return BitBoard.emptySquare(_bits, k);
+        }
+        if (_free == null) {
+            _free = new FreeCells(size());
+        }
+        if (!_free.valid()) {
+            _free.rebuild(this);
+        }
+        return _free.get(k);
+    }
+
+    /** Remove all tiles from the board. */
+    private void clearBoard() {
+        if (_free != null) {
+            _free.invalidate();
+        }
+        switch (_storage) {
+        case TILES -> _board.clear();
+        case PACKED -> _bits = 0;
+        case GRID -> _grid.clear();
+        }
+    }
+
+    /** Record the current board and score as a state that undo and redo
+     *  can return to, following the current one.  Any states that could
+     *  have been redone are forgotten. */
+    public void checkpoint() {
+        if (_history == null) {
+            _history = new MoveHistory(size());
+        }
+        _history.record(this);
+    }
+
+    /** Return true iff there is a checkpoint before the current one. */
+    public boolean canUndo() {
+        return _history != null && _history.canUndo();
+    }
+
+    /** Return true iff undo has left a checkpoint after the current
+     *  one. */
+    public boolean canRedo() {
+        return _history != null && _history.canRedo();
+    }
+
+    /** Restore the board and score of the checkpoint before the current
+     *  one.  Returns false, and does nothing, if there is none. */
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        _history.undo();
+        restoreCheckpoint();
+        return true;
+    }
+
+    /** Restore the board and score of the checkpoint after the current
+     *  one, undoing an undo.  Returns false, and does nothing, if there is
+     *  none. */
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        _history.redo();
+        restoreCheckpoint();
+        return true;
+    }
+
+    /** Set the board and score to those of the current state of
+     *  _history. */
+    private void restoreCheckpoint() {
+        clearBoard();
+        for (int col = 0; col < size(); col += 1) {
+            for (int row = 0; row < size(); row += 1) {
+                int v = _history.value(col, row);
+                if (v != 0) {
+                    placeTile(Tile.create(v, col, row));
+                }
+            }
+        }
+        startBatch();
+        emit(GameEvent.BoardChanged::new);
+        int delta = _history.score() - _score;
+        _score = _history.score();
+        emitScore(delta);
+        checkGameOver();
+        endBatch();
     }
 
     /** Allow initial game board to announce a hot start to the GUI. */
     public void hotStartAnnounce() {
-        setChanged();
+        startBatch();
+        emit(GameEvent.BoardChanged::new);
+        endBatch();
     }
 
     /** Add TILE to the board. There must be no Tile currently at the
      *  same position. */
     public void addTile(Tile tile) {
-        _board.addTile(tile);
+        startBatch();
+        placeTile(tile);
+        if (_batch != null) {
+            _batch.add(new GameEvent.TileSpawned(tile.value(), tile.col(),
+                                                 tile.row()));
+        }
         checkGameOver();
-        setChanged();
+        endBatch();
+    }
+
+    /** Put TILE on the board, reporting nothing. */
+    private void placeTile(Tile tile) {
+        if (_free != null) {
+            _free.remove(tile.row() * size() + tile.col());
+        }
+        switch (_storage) {
+        case TILES -> _board.addTile(tile);
+        case PACKED -> _bits = BitBoard.place(_bits, tile.value(),
+                                              tile.col(), tile.row());
+        case GRID -> _grid.place(tile.value(), tile.col(), tile.row());
+        }
     }
 
     /** Tilt the board toward SIDE.
@@ -114,18 +382,175 @@ public class Model extends Observable {
      * 3. When three adjacent tiles in the direction of motion have the same
      *    value, then the leading two tiles in the direction of motion merge,
      *    and the trailing tile does not.
+     *
+     * Returns a description of the changes, which remains valid only until
+     * the next call to tilt.
      */
-    public void tilt(Side side) {
-        // TODO: Fill in this function.
+    public MoveResult tilt(Side side) {
+        long start = Metrics.time();
+        startBatch();
+        if (_free != null) {
+            _free.invalidate();
+        }
+        switch (_storage) {
+        case PACKED -> {
+            long before = _bits;
+            int scoreDelta = BitBoard.score(before, side);
+            _bits = BitBoard.tilt(before, side);
+            _lastMove.set(BitBoard.tilesMoved(before, side),
+                          BitBoard.emptyCount(_bits)
+                          - BitBoard.emptyCount(before),
+                          scoreDelta);
+            _score += scoreDelta;
+            if (_bits != before) {
+                emit(GameEvent.BoardChanged::new);
+            }
+        }
+        case GRID -> {
+            _grid.tilt(side, _lastMove);
+            _score += _lastMove.scoreDelta();
+            if (_lastMove.moved()) {
+                emit(GameEvent.BoardChanged::new);
+            }
+        }
+        case TILES -> {
+            int score = _score;
+            _tilesMoved = _merges = 0;
+            _board.setViewingPerspective(side);
+            for (int col = 0; col < _board.size(); col += 1) {
+                tiltColumn(col);
+            }
+            _board.setViewingPerspective(Side.NORTH);
+            _lastMove.set(_tilesMoved, _merges, _score - score);
+        }
+        }
 
+        emitScore(_lastMove.scoreDelta());
         checkGameOver();
+        endBatch();
+        Metrics.TILT.recordSince(start);
+        return _lastMove;
+    }
+
+    /** Move the tiles in column COL of _board toward the top of the board
+     *  as currently viewed, merging as described for tilt, and counting
+     *  the tiles moved and merges made in _tilesMoved and _merges. */
+    private void tiltColumn(int col) {
+        int dest = _board.size();
+        int mergeableValue = 0;
+        for (int row = _board.size() - 1; row >= 0; row -= 1) {
+            Tile t = _board.tile(col, row);
+            if (t == null) {
+                continue;
+            }
+            if (t.value() == mergeableValue) {
+                _board.move(col, dest, t);
+                if (_batch != null) {
+                    Tile m = t.next();
+                    _batch.add(new GameEvent.TileMerged(m.value(), t.col(),
+                                                        t.row(), m.col(),
+                                                        m.row()));
+                }
+                _score += 2 * t.value();
+                _merges += 1;
+                _tilesMoved += 1;
+                mergeableValue = 0;
+            } else {
+                dest -= 1;
+                if (dest != row) {
+                    _board.move(col, dest, t);
+                    if (_batch != null) {
+                        Tile m = t.next();
+                        _batch.add(new GameEvent.TileMoved(t.value(), t.col(),
+                                                           t.row(), m.col(),
+                                                           m.row()));
+                    }
+                    _tilesMoved += 1;
+                }
+                mergeableValue = t.value();
+            }
+        }
+    }
+
+    /** Add LISTENER to the receivers of this model's events. */
+    public synchronized void subscribe(GameListener listener) {
+        GameListener[] listeners =
+            Arrays.copyOf(_listeners, _listeners.length + 1);
+        listeners[_listeners.length] = listener;
+        _listeners = listeners;
+    }
+
+    /** Remove LISTENER from the receivers of this model's events, if it
+     *  is one. */
+    public synchronized void unsubscribe(GameListener listener) {
+        for (int k = 0; k < _listeners.length; k += 1) {
+            if (_listeners[k] == listener) {
+                GameListener[] listeners =
+                    new GameListener[_listeners.length - 1];
+                System.arraycopy(_listeners, 0, listeners, 0, k);
+                System.arraycopy(_listeners, k + 1, listeners, k,
+                                 listeners.length - k);
+                _listeners = listeners;
+                return;
+            }
+        }
+    }
+
+    /** Begin collecting the events of a change, if anyone is
+     *  listening. */
+    private void startBatch() {
+        if (_listeners.length > 0) {
+            _batch = new ArrayList<>();
+        }
+    }
+
+    /** Add the event made by EVENT to the batch being collected, if
+     *  any. */
+    private void emit(Supplier<GameEvent> event) {
+        if (_batch != null) {
+            _batch.add(event.get());
+        }
+    }
+
+    /** Report that the score has changed by DELTA, if it has. */
+    private void emitScore(int delta) {
+        if (_batch != null && delta != 0) {
+            _batch.add(new GameEvent.ScoreChanged(_score, delta));
+        }
+    }
+
+    /** Deliver the events collected since startBatch, if there are any,
+     *  to every listener. */
+    private void endBatch() {
+        if (_batch == null) {
+            return;
+        }
+        List<GameEvent> events = Collections.unmodifiableList(_batch);
+        _batch = null;
+        if (events.isEmpty()) {
+            return;
+        }
+        for (GameListener listener : _listeners) {
+            listener.onEvents(events);
+        }
     }
 
     /** Checks if the game is over and sets the gameOver variable
      *  appropriately.
      */
     private void checkGameOver() {
-        _gameOver = checkGameOver(_board);
+        long start = Metrics.time();
+        boolean wasOver = _gameOver;
+        _gameOver = switch (_storage) {
+            case TILES -> checkGameOver(_board);
+            case PACKED -> BitBoard.gameOver(_bits);
+            case GRID -> _grid.maxValue() >= MAX_PIECE
+                || (_grid.emptyCount() == 0 && !_grid.mergeablePairExists());
+        };
+        if (_gameOver && !wasOver && _batch != null) {
+            _batch.add(new GameEvent.GameOver(_score));
+        }
+        Metrics.GAME_OVER.recordSince(start);
     }
 
     /** Determine whether game is over. */
@@ -137,8 +562,7 @@ public class Model extends Observable {
      *  Empty spaces are stored as null.
      */
     public static boolean emptySpaceExists(Board b) {
-        // TODO: Fill in this function.
-        return false;
+        return b.emptyCount() > 0;
     }
 
     /**
@@ -147,8 +571,7 @@ public class Model extends Observable {
      * given a Tile object t, we get its value with t.value().
      */
     public static boolean maxTileExists(Board b) {
-        // TODO: Fill in this function.
-        return false;
+        return b.maxValue() >= MAX_PIECE;
     }
 
     /**
@@ -158,8 +581,7 @@ public class Model extends Observable {
      * 2. There are two adjacent tiles with the same value.
      */
     public static boolean atLeastOneMoveExists(Board b) {
-        // TODO: Fill in this function.
-        return false;
+        return emptySpaceExists(b) || b.mergeablePairExists();
     }
 
     /** Returns the model as a string, used for debugging. */
@@ -182,21 +604,47 @@ public class Model extends Observable {
         return out.toString();
     }
 
-    /** Returns whether two models are equal. */
+    /** Returns whether two models are equal: whether they have the same
+     *  tiles, scores, and game-over status, however their boards are
+     *  stored. */
     @Override
     public boolean equals(Object o) {
         if (o == null) {
             return false;
         } else if (getClass() != o.getClass()) {
             return false;
-        } else {
-            return toString().equals(o.toString());
         }
+        Model other = (Model) o;
+        if (size() != other.size() || gameOver() != other.gameOver()
+            || score() != other.score() || maxScore() != other.maxScore()) {
+            return false;
+        } else if (_storage == Storage.PACKED
+                   && other._storage == Storage.PACKED) {
+            return _bits == other._bits;
+        } else if (_storage == Storage.TILES
+                   && other._storage == Storage.TILES) {
+            return _board.equals(other._board);
+        }
+        for (int col = 0; col < size(); col += 1) {
+            for (int row = 0; row < size(); row += 1) {
+                if (value(col, row) != other.value(col, row)) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
-    /** Returns hash code of Model’s string. */
+    /** Returns a hash code of Model's tiles and scores, consistent with
+     *  equals. */
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        int h = 31 * _score + _maxScore;
+        for (int col = 0; col < size(); col += 1) {
+            for (int row = 0; row < size(); row += 1) {
+                h = 31 * h + value(col, row);
+            }
+        }
+        return h;
     }
 }
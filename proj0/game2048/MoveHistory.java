@@ -0,0 +1,154 @@
+package game2048;
+
+import java.util.Arrays;
+
+/** A record of the states of a Model, allowing it to step back and forth
+ *  among them.
+ *
+ *  Only the most recent state visited is held in full, as the exponents
+ *  of its tiles (see BitBoard).  Each other state is reached from its
+ *  neighbor by a delta listing the squares that differ between the two,
+ *  each packed into an int as its index, old exponent, and new exponent.
+ *  A tilt touches few squares, so a turn typically costs tens of bytes,
+ *  and every delta lives in one growable int array, so that a history of
+ *  hundreds of thousands of turns is a handful of objects.
+ */
+class MoveHistory {
+
+    /** Initial capacity of the growable arrays. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Bits used for an exponent in a packed change. */
+    private static final int EXP_BITS = 8;
+
+    /** Mask for an exponent in a packed change. */
+    private static final int EXP_MASK = (1 << EXP_BITS) - 1;
+
+    /** An empty history of boards with SIZE squares on a side. */
+    MoveHistory(int size) {
+        _size = size;
+        _current = new byte[size * size];
+        _next = new byte[size * size];
+        clear();
+    }
+
+    /** Forget all states. */
+    void clear() {
+        _count = 0;
+        _cursor = -1;
+        _changeCount = 0;
+    }
+
+    /** Return the number of states recorded. */
+    int states() {
+        return _count;
+    }
+
+    /** Return the number of changed squares recorded over all states. */
+    int changes() {
+        return _changeCount;
+    }
+
+    /** Return true iff there is a state before the current one. */
+    boolean canUndo() {
+        return _cursor > 0;
+    }
+
+    /** Return true iff there is a state after the current one. */
+    boolean canRedo() {
+        return _cursor + 1 < _count;
+    }
+
+    /** Record the board and score of MODEL as a new state following the
+     *  current one, discarding any states that could have been redone. */
+    void record(Model model) {
+        for (int row = 0; row < _size; row += 1) {
+            for (int col = 0; col < _size; col += 1) {
+                int v = model.value(col, row);
+                _next[row * _size + col] =
+                    (byte) (v == 0 ? 0 : Integer.numberOfTrailingZeros(v));
+            }
+        }
+
+        _count = _cursor + 1;
+        _changeCount = _count == 0 ? 0 : _ends[_cursor];
+        if (_count > 0) {
+            for (int k = 0; k < _next.length; k += 1) {
+                if (_next[k] != _current[k]) {
+                    addChange((k << (2 * EXP_BITS))
+                              | (_current[k] << EXP_BITS) | _next[k]);
+                }
+            }
+        }
+        byte[] tmp = _current;
+        _current = _next;
+        _next = tmp;
+
+        if (_count == _scores.length) {
+            _scores = Arrays.copyOf(_scores, 2 * _count);
+            _ends = Arrays.copyOf(_ends, 2 * _count);
+        }
+        _scores[_count] = model.score();
+        _ends[_count] = _changeCount;
+        _cursor = _count;
+        _count += 1;
+    }
+
+    /** Step back to the previous state.  Requires canUndo(). */
+    void undo() {
+        for (int k = _ends[_cursor] - 1; k >= _ends[_cursor - 1]; k -= 1) {
+            int c = _changes[k];
+            _current[c >>> (2 * EXP_BITS)] = (byte) ((c >>> EXP_BITS)
+                                                     & EXP_MASK);
+        }
+        _cursor -= 1;
+    }
+
+    /** Step forward to the next state.  Requires canRedo(). */
+    void redo() {
+        _cursor += 1;
+        for (int k = _ends[_cursor - 1]; k < _ends[_cursor]; k += 1) {
+            int c = _changes[k];
+            _current[c >>> (2 * EXP_BITS)] = (byte) (c & EXP_MASK);
+        }
+    }
+
+    /** Return the value of the tile at (COL, ROW) in the current state, or
+     *  0 if there is none. */
+    int value(int col, int row) {
+        int e = _current[row * _size + col];
+        return e == 0 ? 0 : 1 << e;
+    }
+
+    /** Return the score in the current state. */
+    int score() {
+        return _scores[_cursor];
+    }
+
+    /** Append the packed change C to _changes. */
+    private void addChange(int c) {
+        if (_changeCount == _changes.length) {
+            _changes = Arrays.copyOf(_changes, 2 * _changeCount);
+        }
+        _changes[_changeCount] = c;
+        _changeCount += 1;
+    }
+
+    /** Number of squares on a side. */
+    private final int _size;
+    /** Exponents of the tiles in the current state, and scratch space of
+     *  the same size for a state being recorded. */
+    private byte[] _current, _next;
+    /** Packed changes between successive states.  Those between state K-1
+     *  and state K are _changes[_ends[K - 1]] to _changes[_ends[K] - 1]. */
+    private int[] _changes = new int[INITIAL_CAPACITY];
+    /** Number of changes in use. */
+    private int _changeCount;
+    /** End of the changes leading to each state, and its score. */
+    private int[] _ends = new int[INITIAL_CAPACITY],
+        _scores = new int[INITIAL_CAPACITY];
+    /** Number of states recorded. */
+    private int _count;
+    /** Index of the current state, or -1 if there is none. */
+    private int _cursor;
+}
@@ -0,0 +1,16 @@
+package game2048;
+
+import java.util.Random;
+
+/** Chooses moves for a headless player of 2048.  A policy may be used
+ *  by several games at once from different threads, so it should keep
+ *  any per-game state in its arguments rather than in itself.
+ */
+public interface MovePolicy {
+
+    /** Return the side toward which to tilt MODEL, whose game is not yet
+     *  over.  RANDOM is a source of random numbers private to the current
+     *  game.  If tilting toward the returned side would not change the
+     *  board, the caller makes some other move that does. */
+    Side chooseMove(Model model, Random random);
+}
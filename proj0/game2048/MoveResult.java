@@ -0,0 +1,51 @@
+package game2048;
+
+/** A description of the effect of one tilt of a Model: how many tiles
+ *  moved, how many merges happened, and how much the score went up.
+ *  A Model returns the same MoveResult from every tilt, updated in place,
+ *  so a result is only valid until the next tilt of its Model.
+ */
+public class MoveResult {
+
+    /** Return true iff the tilt changed the board. */
+    public boolean moved() {
+        return _tilesMoved > 0;
+    }
+
+    /** Return the number of tiles that changed position, including those
+     *  that merged into another tile. */
+    public int tilesMoved() {
+        return _tilesMoved;
+    }
+
+    /** Return the number of merges performed. */
+    public int merges() {
+        return _merges;
+    }
+
+    /** Return the amount by which the score increased. */
+    public int scoreDelta() {
+        return _scoreDelta;
+    }
+
+    /** Record a tilt that moved TILESMOVED tiles, performing MERGES merges
+     *  and increasing the score by SCOREDELTA. */
+    void set(int tilesMoved, int merges, int scoreDelta) {
+        _tilesMoved = tilesMoved;
+        _merges = merges;
+        _scoreDelta = scoreDelta;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d moved, %d merged, +%d",
+                             _tilesMoved, _merges, _scoreDelta);
+    }
+
+    /** Number of tiles moved. */
+    private int _tilesMoved;
+    /** Number of merges. */
+    private int _merges;
+    /** Increase in score. */
+    private int _scoreDelta;
+}
@@ -0,0 +1,108 @@
+package game2048;
+
+import java.util.Formatter;
+
+/** A running paired comparison of the final scores of two policies over
+ *  the same games: the mean and spread of the per-game differences,
+ *  accumulated one game at a time with Welford's method, and the numbers
+ *  of games each policy won.
+ *
+ *  With the hundreds of thousands of games a tournament plays, the mean
+ *  difference is very nearly normally distributed, so significance is
+ *  judged with a z test rather than Student's t.
+ */
+public class PairedComparison {
+
+    /** Two-sided critical value of the standard normal distribution at
+     *  the 95% level. */
+    static final double Z95 = 1.959963984540054;
+
+    /** A comparison of the policies named A and B, with no games yet. */
+    PairedComparison(String a, String b) {
+        _a = a;
+        _b = b;
+    }
+
+    /** Add a game in which the first policy scored SCOREA and the second
+     *  SCOREB. */
+    void add(int scoreA, int scoreB) {
+        double d = scoreA - scoreB;
+        _n += 1;
+        double delta = d - _mean;
+        _mean += delta / _n;
+        _m2 += delta * (d - _mean);
+        if (scoreA > scoreB) {
+            _winsA += 1;
+        } else if (scoreB > scoreA) {
+            _winsB += 1;
+        }
+    }
+
+    /** Return the number of games compared. */
+    public long games() {
+        return _n;
+    }
+
+    /** Return the mean of the first policy's score less the second's. */
+    public double meanDifference() {
+        return _mean;
+    }
+
+    /** Return the standard error of meanDifference(). */
+    public double standardError() {
+        return _n < 2 ? Double.NaN : Math.sqrt(_m2 / (_n - 1) / _n);
+    }
+
+    /** Return meanDifference() in units of its standard error. */
+    public double z() {
+        return _mean / standardError();
+    }
+
+    /** Return the two-sided p-value of z(), under the hypothesis that the
+     *  two policies score the same on average. */
+    public double pValue() {
+        return 2 * (1 - normalCdf(Math.abs(z())));
+    }
+
+    /** Return the number of games won by the first policy. */
+    public long winsA() {
+        return _winsA;
+    }
+
+    /** Return the number of games won by the second policy. */
+    public long winsB() {
+        return _winsB;
+    }
+
+    /** Return the standard normal cumulative distribution at X, accurate
+     *  to about 1e-7 (Abramowitz and Stegun 26.2.17). */
+    static double normalCdf(double x) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(x));
+        double poly = t * (0.319381530 + t * (-0.356563782
+                      + t * (1.781477937 + t * (-1.821255978
+                      + t * 1.330274429))));
+        double tail = Math.exp(-x * x / 2) / Math.sqrt(2 * Math.PI) * poly;
+        return x >= 0 ? 1 - tail : tail;
+    }
+
+    @Override
+    public String toString() {
+        Formatter out = new Formatter();
+        double half = Z95 * standardError();
+        out.format("%s - %s: %+.1f [%+.1f, %+.1f] (z = %.2f, p = %.3g); "
+                   + "wins %d / %d of %d%n",
+                   _a, _b, _mean, _mean - half, _mean + half, z(), pValue(),
+                   _winsA, _winsB, _n);
+        return out.toString();
+    }
+
+    /** Names of the two policies. */
+    private final String _a, _b;
+    /** Number of games. */
+    private long _n;
+    /** Running mean of the differences, and sum of squared deviations
+     *  from it. */
+    private double _mean, _m2;
+    /** Games won by each policy. */
+    private long _winsA, _winsB;
+}
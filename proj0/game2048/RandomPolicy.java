@@ -0,0 +1,20 @@
+package game2048;
+
+import java.util.Random;
+
+/** A MovePolicy that tilts toward a side chosen uniformly at random. */
+public class RandomPolicy implements MovePolicy {
+
+    /** All sides, in a fixed order. */
+    private static final Side[] SIDES = Side.values();
+
+    @Override
+    public Side chooseMove(Model model, Random random) {
+        return SIDES[random.nextInt(SIDES.length)];
+    }
+
+    @Override
+    public String toString() {
+        return "random";
+    }
+}
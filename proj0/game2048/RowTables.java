@@ -0,0 +1,241 @@
+package game2048;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/** Tables giving the result of sliding each of the 65536 possible rows
+ *  of a packed 4x4 board (see BitBoard), built on first use.
+ *
+ *  If a file has been named with setFile (or the system property
+ *  game2048.rowTables) before the tables are first used, they are read
+ *  from it into the arrays, or, if it does not hold them, built and then
+ *  saved there for the next run.  BitBoard indexes the arrays on every
+ *  tilt, so they are copied onto the heap rather than left in the file.
+ *  A saved file starts with MAGIC, VERSION, and a CRC-32 of the tables
+ *  that follow; a file from another version of the tables or whose
+ *  tables do not match their checksum is rebuilt.
+ */
+final class RowTables {
+
+    /** Number of distinct 16-bit rows. */
+    static final int ROWS = 1 << 16;
+
+    /** First four bytes of a saved file: "ROWT" in ASCII. */
+    static final int MAGIC = 0x524f5754;
+
+    /** Format of the saved tables, following MAGIC.  Increase it whenever
+     *  the layout of the file or the contents of the tables change. */
+    static final int VERSION = 2;
+
+    /** Length in bytes of the header of a saved file: MAGIC, VERSION, and
+     *  the CRC-32 of the rest of the file. */
+    static final int HEADER_LENGTH = 4 + 4 + 4;
+
+    /** Length in bytes of a saved file. */
+    static final int FILE_LENGTH =
+        HEADER_LENGTH + ROWS * (2 + 2 + 4 + 1 + 1);
+
+    /** System property naming the file from which tables are loaded. */
+    static final String FILE_PROPERTY = "game2048.rowTables";
+
+    /** LEFT[R] is row R after sliding its tiles toward column 0. */
+    final char[] left = new char[ROWS];
+    /** RIGHT[R] is row R after sliding its tiles toward column 3. */
+    final char[] right = new char[ROWS];
+    /** SCORE[R] is the score gained by sliding row R.  The merges in a
+     *  row are the same pairs of equal neighbors whichever way the row is
+     *  slid, so one table serves both directions. */
+    final int[] score = new int[ROWS];
+    /** MOVEDLEFT[R] and MOVEDRIGHT[R] are the numbers of tiles that change
+     *  position when row R is slid toward column 0 and toward column 3,
+     *  respectively. */
+    final byte[] movedLeft = new byte[ROWS], movedRight = new byte[ROWS];
+
+    /** Empty tables, to be filled by build or load. */
+    private RowTables() {
+    }
+
+    /** Return the tables, building or loading them on first use. */
+    static RowTables get() {
+        return Holder.TABLES;
+    }
+
+    /** Arrange for the tables to be loaded from, or saved to, the file at
+     *  PATH.  Has no effect once the tables have been used. */
+    static void setFile(Path path) {
+        System.setProperty(FILE_PROPERTY, path.toString());
+    }
+
+    /** Return the tables, loaded from the file named by FILE_PROPERTY if
+     *  it holds them, and otherwise built (and saved there, if there is
+     *  such a file). */
+    private static RowTables init() {
+        String name = System.getProperty(FILE_PROPERTY);
+        if (name == null) {
+            return build();
+        }
+        Path path = Path.of(name);
+        try {
+            if (Files.size(path) == FILE_LENGTH) {
+                RowTables tables = load(path);
+                if (tables != null) {
+                    return tables;
+                }
+            }
+        } catch (IOException excp) {
+            /* Missing or unreadable: build the tables instead. */
+        }
+        RowTables tables = build();
+        try {
+            tables.save(path);
+        } catch (IOException excp) {
+            System.err.printf("Warning: could not save row tables to %s: %s%n",
+                              path, excp.getMessage());
+        }
+        return tables;
+    }
+
+    /** Return newly computed tables. */
+    static RowTables build() {
+        RowTables tables = new RowTables();
+        int[] line = new int[BitBoard.SIZE];
+        boolean[] moved = new boolean[BitBoard.SIZE];
+        for (int row = 0; row < ROWS; row += 1) {
+            for (int c = 0; c < BitBoard.SIZE; c += 1) {
+                line[c] = (row >>> (4 * c)) & 0xf;
+                moved[c] = false;
+            }
+            tables.score[row] = slideLeft(line, moved);
+            int count = 0;
+            for (boolean m : moved) {
+                count += m ? 1 : 0;
+            }
+            tables.movedLeft[row] = (byte) count;
+            tables.movedRight[reverseRow(row)] = (byte) count;
+            int result = 0;
+            for (int c = 0; c < BitBoard.SIZE; c += 1) {
+                result |= line[c] << (4 * c);
+            }
+            tables.left[row] = (char) result;
+            tables.right[reverseRow(row)] = (char) reverseRow(result);
+        }
+        return tables;
+    }
+
+    /** Return the tables saved in the file at PATH, or null if it does not
+     *  hold tables of this VERSION that match their checksum. */
+    static RowTables load(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_LENGTH);
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            if (channel.size() != FILE_LENGTH) {
+                return null;
+            }
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null;
+                }
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        int checksum = buffer.getInt();
+        if (checksum != checksum(buffer)) {
+            return null;
+        }
+        RowTables tables = new RowTables();
+        buffer.asCharBuffer().get(tables.left);
+        buffer.position(buffer.position() + 2 * ROWS);
+        buffer.asCharBuffer().get(tables.right);
+        buffer.position(buffer.position() + 2 * ROWS);
+        buffer.asIntBuffer().get(tables.score);
+        buffer.position(buffer.position() + 4 * ROWS);
+        buffer.get(tables.movedLeft);
+        buffer.get(tables.movedRight);
+        return tables;
+    }
+
+    /** Save these tables to the file at PATH, replacing its contents. */
+    void save(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_LENGTH);
+        buffer.position(HEADER_LENGTH);
+        buffer.asCharBuffer().put(left);
+        buffer.position(buffer.position() + 2 * ROWS);
+        buffer.asCharBuffer().put(right);
+        buffer.position(buffer.position() + 2 * ROWS);
+        buffer.asIntBuffer().put(score);
+        buffer.position(buffer.position() + 4 * ROWS);
+        buffer.put(movedLeft).put(movedRight);
+        buffer.position(HEADER_LENGTH);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION)
+            .putInt(8, checksum(buffer));
+        buffer.position(0);
+        try (FileChannel channel =
+             FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /** Return the CRC-32 of the bytes remaining in BUFFER, leaving its
+     *  position unchanged. */
+    private static int checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /** Slide the exponents in LINE toward index 0 in place, merging
+     *  as Model.tilt does, and set MOVED[I] to true iff the tile that
+     *  was at index I changes position.  Returns the score gained. */
+    private static int slideLeft(int[] line, boolean[] moved) {
+        int score = 0;
+        int n = 0;
+        boolean canMerge = false;
+        for (int i = 0; i < line.length; i += 1) {
+            int e = line[i];
+            if (e == 0) {
+                continue;
+            }
+            if (canMerge && line[n - 1] == e && e < BitBoard.MAX_EXPONENT) {
+                line[n - 1] = e + 1;
+                score += 1 << (e + 1);
+                canMerge = false;
+                moved[i] = true;
+            } else {
+                line[n] = e;
+                moved[i] = n != i;
+                n += 1;
+                canMerge = true;
+            }
+        }
+        for (; n < line.length; n += 1) {
+            line[n] = 0;
+        }
+        return score;
+    }
+
+    /** Return the 16-bit row ROW with its columns in reverse order. */
+    private static int reverseRow(int row) {
+        return ((row & 0xf) << 12) | ((row & 0xf0) << 4)
+            | ((row >>> 4) & 0xf0) | (row >>> 12);
+    }
+
+    /** Holds the tables, so that they are made when first used rather
+     *  than when RowTables is loaded. */
+    private static final class Holder {
+        /** The tables. */
+        static final RowTables TABLES = init();
+    }
+}
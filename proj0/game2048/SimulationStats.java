@@ -0,0 +1,132 @@
+package game2048;
+
+import java.util.Arrays;
+import java.util.Formatter;
+
+/** Results of a batch of headless games of 2048: the final score, largest
+ *  tile, and number of moves of each game, and summaries of them.
+ *  Each game's results are recorded by exactly one thread; the summaries
+ *  should only be read once the batch is complete.
+ */
+public class SimulationStats {
+
+    /** Number of entries in a histogram of largest tiles, indexed by the
+     *  base-2 logarithm of the tile. */
+    static final int HISTOGRAM_SIZE = 32;
+
+    /** Statistics for a batch of GAMES games, none yet recorded. */
+    SimulationStats(int games) {
+        _scores = new int[games];
+        _maxTiles = new int[games];
+        _moves = new int[games];
+    }
+
+    /** Record that game number GAME ended with score SCORE and largest
+     *  tile MAXTILE after MOVES moves. */
+    void record(int game, int score, int maxTile, int moves) {
+        _scores[game] = score;
+        _maxTiles[game] = maxTile;
+        _moves[game] = moves;
+    }
+
+    /** Return the number of games in the batch. */
+    public int games() {
+        return _scores.length;
+    }
+
+    /** Return the final score of game number GAME. */
+    public int score(int game) {
+        return _scores[game];
+    }
+
+    /** Return the largest tile at the end of game number GAME. */
+    public int maxTile(int game) {
+        return _maxTiles[game];
+    }
+
+    /** Return the number of moves made in game number GAME. */
+    public int moves(int game) {
+        return _moves[game];
+    }
+
+    /** Return the mean final score. */
+    public double meanScore() {
+        return mean(_scores);
+    }
+
+    /** Return the final score below which a fraction Q (0 <= Q <= 1) of
+     *  the games fall, using the nearest-rank method. */
+    public int scorePercentile(double q) {
+        return percentile(_scores, q);
+    }
+
+    /** Return the mean number of moves per game. */
+    public double meanMoves() {
+        return mean(_moves);
+    }
+
+    /** Return the number of moves below which a fraction Q (0 <= Q <= 1)
+     *  of the games fall, using the nearest-rank method. */
+    public int movesPercentile(double q) {
+        return percentile(_moves, q);
+    }
+
+    /** Return a histogram of largest tiles, whose Kth entry is the number
+     *  of games whose largest tile was 2 ** K. */
+    public int[] maxTileHistogram() {
+        int[] histogram = new int[HISTOGRAM_SIZE];
+        for (int tile : _maxTiles) {
+            histogram[Integer.numberOfTrailingZeros(tile)] += 1;
+        }
+        return histogram;
+    }
+
+    /** Return the mean of VALUES (0 if there are none). */
+    private static double mean(int[] values) {
+        long sum = 0;
+        for (int v : values) {
+            sum += v;
+        }
+        return values.length == 0 ? 0.0 : (double) sum / values.length;
+    }
+
+    /** Return the Q-th quantile of VALUES (0 if there are none). */
+    private static int percentile(int[] values, double q) {
+        if (values.length == 0) {
+            return 0;
+        }
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(q * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /** Returns a summary report of these statistics. */
+    @Override
+    public String toString() {
+        Formatter out = new Formatter();
+        out.format("games: %d%n", games());
+        out.format("score: mean %.1f, min %d, median %d, p90 %d, max %d%n",
+                   meanScore(), scorePercentile(0.0), scorePercentile(0.5),
+                   scorePercentile(0.9), scorePercentile(1.0));
+        out.format("moves: mean %.1f, min %d, median %d, max %d%n",
+                   meanMoves(), movesPercentile(0.0), movesPercentile(0.5),
+                   movesPercentile(1.0));
+        out.format("max tile:%n");
+        int[] histogram = maxTileHistogram();
+        for (int k = 0; k < histogram.length; k += 1) {
+            if (histogram[k] > 0) {
+                out.format("%8d: %d (%.2f%%)%n", 1 << k, histogram[k],
+                           100.0 * histogram[k] / games());
+            }
+        }
+        return out.toString();
+    }
+
+    /** Final score of each game. */
+    private final int[] _scores;
+    /** Largest tile at the end of each game. */
+    private final int[] _maxTiles;
+    /** Number of moves made in each game. */
+    private final int[] _moves;
+}
@@ -0,0 +1,227 @@
+package game2048;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** Plays batches of seeded games of 2048 without a GUI, spread across a
+ *  fork-join pool, using a MovePolicy in place of a player.
+ *
+ *  Each game follows the rules of Game.playGame: it starts with one tile,
+ *  adds a tile spawned as Game spawns them after each move that does not
+ *  end the game, and ends when Model.gameOver says so.  Games are played on packed 4x4 boards.  The
+ *  results of a batch depend only on its seed, not on how its games are
+ *  divided among threads.  Games may also be written to a game log (see
+ *  GameLogWriter), to be replayed later through GameReplay.
+ */
+public class Simulator {
+
+    /** Batches of at most this many games are played without further
+     *  splitting. */
+    static final int GRAIN = 16;
+
+    /** A simulator whose games are played by POLICY, spawning 2s with
+     *  probability PROBOF2 and 4s otherwise on squares chosen by
+     *  FREE_CELLS. */
+    public Simulator(MovePolicy policy, double probOf2) {
+        this(policy, probOf2, TileSpawner.Sampling.FREE_CELLS);
+    }
+
+    /** A simulator whose games are played by POLICY, spawning 2s with
+     *  probability PROBOF2 and 4s otherwise on squares chosen by
+     *  SAMPLING.  Use REJECTION to play again games seeded before
+     *  FREE_CELLS existed. */
+    Simulator(MovePolicy policy, double probOf2,
+              TileSpawner.Sampling sampling) {
+        _policy = policy;
+        _probOf2 = probOf2;
+        _sampling = sampling;
+    }
+
+    /** Play GAMES games seeded from SEED in the common fork-join pool and
+     *  return their statistics. */
+    public SimulationStats run(int games, long seed) {
+        return run(games, seed, ForkJoinPool.commonPool());
+    }
+
+    /** Play GAMES games seeded from SEED in POOL and return their
+     *  statistics. */
+    public SimulationStats run(int games, long seed, ForkJoinPool pool) {
+        return run(games, seed, pool, null);
+    }
+
+    /** Play GAMES games seeded from SEED in POOL, writing each to LOG
+     *  unless it is null, and return their statistics. */
+    public SimulationStats run(int games, long seed, ForkJoinPool pool,
+                               GameLogWriter log) {
+        return run(0, games, seed, pool, log);
+    }
+
+    /** Play games number FIRST .. FIRST+GAMES-1 of the batch seeded from
+     *  SEED in POOL, writing each to LOG unless it is null, and return
+     *  their statistics, in which game FIRST is number 0.  A large batch
+     *  may thus be played a part at a time. */
+    SimulationStats run(int first, int games, long seed, ForkJoinPool pool,
+                        GameLogWriter log) {
+        SimulationStats stats = new SimulationStats(games);
+        pool.invoke(new Batch(first, first + games, first, seed, stats,
+                              log));
+        return stats;
+    }
+
+    /** Return the seed of game number GAME in a batch seeded with SEED.
+     *  Neighboring games get unrelated seeds. */
+    static long gameSeed(long seed, int game) {
+        long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** Play one game whose spawned tiles are drawn from SPAWNER and whose
+     *  policy's random choices are drawn from RANDOM, and record it as
+     *  game number GAME in STATS.  Its spawns and moves are added to
+     *  RECORD unless it is null. */
+    void playGame(int game, TileSpawner spawner, Random random,
+                  SimulationStats stats, GameRecord record) {
+        Model model = new Model(BitBoard.SIZE, true);
+        spawn(model, spawner, record);
+        int moves = 0;
+        while (!model.gameOver()) {
+            spawn(model, spawner, record);
+            if (model.gameOver()) {
+                break;
+            }
+            Side side = legalMove(model, _policy.chooseMove(model, random));
+            if (record != null) {
+                record.move(model, side);
+            }
+            model.tilt(side);
+            moves += 1;
+        }
+        long board = model.packedBoard();
+        stats.record(game, model.score(), 1 << BitBoard.maxExponent(board),
+                     moves);
+    }
+
+    /** Add a tile from SPAWNER to MODEL, recording it in RECORD unless
+     *  it is null. */
+    private static void spawn(Model model, TileSpawner spawner,
+                              GameRecord record) {
+        Tile tile = spawner.getValidNewTile(model);
+        if (record != null) {
+            record.spawn(tile);
+        }
+        model.addTile(tile);
+    }
+
+    /** Return SIDE if tilting MODEL toward it would change it, and
+     *  otherwise the first side in Side's order that would.  The game must
+     *  not be over. */
+    private static Side legalMove(Model model, Side side) {
+        long board = model.packedBoard();
+        for (int k = 0; BitBoard.tilt(board, side) == board; k += 1) {
+            side = SIDES[k];
+        }
+        return side;
+    }
+
+    /** Play a batch of games as described by ARGS: the number of games
+     *  (default 100000), the random seed (default 2048), and optionally
+     *  the name of a game log to write, and print statistics about
+     *  them. */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 2048;
+        GameLogWriter log =
+            args.length > 2 ? new GameLogWriter(Path.of(args[2])) : null;
+
+        Simulator simulator =
+            new Simulator(new RandomPolicy(), Main.TILE2_PROBABILITY);
+        long start = System.nanoTime();
+        SimulationStats stats =
+            simulator.run(games, seed, ForkJoinPool.commonPool(), log);
+        if (log != null) {
+            log.close();
+        }
+        double seconds = (System.nanoTime() - start) * 1e-9;
+
+        System.out.print(stats);
+        System.out.printf("%.2f s on %d threads (%.0f games/minute)%n",
+                          seconds, ForkJoinPool.getCommonPoolParallelism(),
+                          games * 60.0 / seconds);
+    }
+
+    /** A range of games of a batch, played by splitting it in half until
+     *  it is no larger than GRAIN.  Never serialized. */
+    @SuppressWarnings("serial")
+    private class Batch extends RecursiveAction {
+
+        /** Games LO .. HI-1 of the batch seeded with SEED, whose results
+         *  are recorded in STATS, numbered from FIRST, and, unless it is
+         *  null, in LOG. */
+        Batch(int lo, int hi, int first, long seed, SimulationStats stats,
+              GameLogWriter log) {
+            _lo = lo;
+            _hi = hi;
+            _first = first;
+            _seed = seed;
+            _stats = stats;
+            _log = log;
+        }
+
+        @Override
+        protected void compute() {
+            if (_hi - _lo <= GRAIN) {
+                GameRecord record = _log == null ? null : new GameRecord();
+                for (int game = _lo; game < _hi; game += 1) {
+                    long seed = gameSeed(_seed, game);
+                    if (record != null) {
+                        record.start(seed, _probOf2, _sampling,
+                                     BitBoard.SIZE);
+                    }
+                    playGame(game - _first,
+                             new TileSpawner(new Random(seed), _probOf2,
+                                             _sampling),
+                             new Random(~seed), _stats, record);
+                    if (record != null) {
+                        try {
+                            _log.write(record);
+                        } catch (IOException excp) {
+                            throw new UncheckedIOException(excp);
+                        }
+                    }
+                }
+            } else {
+                int mid = (_lo + _hi) >>> 1;
+                invokeAll(new Batch(_lo, mid, _first, _seed, _stats, _log),
+                          new Batch(mid, _hi, _first, _seed, _stats, _log));
+            }
+        }
+
+        /** Bounds of the range of games, and the first game of the
+         *  batch's statistics. */
+        private final int _lo, _hi, _first;
+        /** Seed of the whole batch. */
+        private final long _seed;
+        /** Where results are recorded. */
+        private final SimulationStats _stats;
+        /** Where games are logged, or null. */
+        private final GameLogWriter _log;
+    }
+
+    /** All sides, in a fixed order. */
+    private static final Side[] SIDES = Side.values();
+
+    /** Chooses the moves of each game. */
+    private final MovePolicy _policy;
+
+    /** Probability that a spawned tile is 2, rather than a 4. */
+    private final double _probOf2;
+
+    /** How squares are chosen for spawned tiles. */
+    private final TileSpawner.Sampling _sampling;
+}
@@ -0,0 +1,126 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of the BitBoard operations on packed boards. */
+public class TestBitBoard {
+
+    /** Return a random 4x4 board of raw values drawn using RANDOM, with
+     *  empty squares about a third of the time. */
+    private static int[][] randomValues(Random random) {
+        int[][] values = new int[BitBoard.SIZE][BitBoard.SIZE];
+        for (int[] row : values) {
+            for (int c = 0; c < row.length; c += 1) {
+                row[c] = random.nextInt(3) == 0 ? 0 : 1 << (1 + random.nextInt(4));
+            }
+        }
+        return values;
+    }
+
+    /** Transposing twice is the identity, and moves (c, r) to (r, c). */
+    @Test
+    public void testTranspose() {
+        Random random = new Random(61);
+        for (int k = 0; k < 100; k += 1) {
+            long board = random.nextLong();
+            long transposed = BitBoard.transpose(board);
+            assertEquals(board, BitBoard.transpose(transposed));
+            for (int c = 0; c < BitBoard.SIZE; c += 1) {
+                for (int r = 0; r < BitBoard.SIZE; r += 1) {
+                    assertEquals(BitBoard.exponent(board, c, r),
+                                 BitBoard.exponent(transposed, r, c));
+                }
+            }
+        }
+    }
+
+    /** Values survive a round trip through fromValues. */
+    @Test
+    public void testFromValues() {
+        int[][] values = new int[][] {
+                {2, 0, 0, 2048},
+                {0, 4, 0, 0},
+                {0, 0, 8, 0},
+                {16, 0, 0, 32},
+        };
+        long board = BitBoard.fromValues(values);
+        assertEquals(16, BitBoard.value(board, 0, 0));
+        assertEquals(32, BitBoard.value(board, 3, 0));
+        assertEquals(2048, BitBoard.value(board, 3, 3));
+        assertEquals(4, BitBoard.value(board, 1, 2));
+        assertEquals(10, BitBoard.emptyCount(board));
+        assertEquals(11, BitBoard.maxExponent(board));
+        assertTrue(BitBoard.gameOver(board));
+    }
+
+    /** A full board with no equal neighbors has no moves. */
+    @Test
+    public void testNoMoves() {
+        long board = BitBoard.fromValues(new int[][] {
+                {2, 4, 2, 4},
+                {4, 2, 4, 2},
+                {2, 4, 2, 4},
+                {4, 2, 4, 2},
+        });
+        assertEquals(0, BitBoard.emptyCount(board));
+        assertFalse(BitBoard.atLeastOneMoveExists(board));
+        for (Side side : Side.values()) {
+            assertEquals(board, BitBoard.tilt(board, side));
+            assertEquals(0, BitBoard.score(board, side));
+        }
+    }
+
+    /** Packed tilts agree with tilts of an ordinary board, and report
+     *  the same results. */
+    @Test
+    public void testTiltMatchesBoard() {
+        Random random = new Random(2048);
+        for (int k = 0; k < 500; k += 1) {
+            int[][] values = randomValues(random);
+            for (Side side : Side.values()) {
+                Model expected = new Model(values, 0, 0, false, false);
+                Model packed = new Model(values, 0, 0, false, true);
+                MoveResult r1 = expected.tilt(side);
+                MoveResult r2 = packed.tilt(side);
+                assertEquals("tilting " + side, expected, packed);
+                assertEquals(r1.tilesMoved(), r2.tilesMoved());
+                assertEquals(r1.merges(), r2.merges());
+                assertEquals(r1.scoreDelta(), r2.scoreDelta());
+            }
+        }
+    }
+
+    /** Tilting a Model with a packed board allocates nothing, as
+     *  TiltBenchmark should also report (about 0 B/op). */
+    @Test
+    public void testPackedTiltAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Model model = new Model(new int[][] {
+                {2, 0, 2, 128},
+                {0, 0, 8, 0},
+                {8, 64, 0, 128},
+                {4, 64, 8, 256},
+            }, 0, 0, false, true);
+        Side[] sides = {Side.NORTH, Side.SOUTH, Side.EAST, Side.WEST};
+        int moved = 0;
+        for (int k = 0; k < 100000; k += 1) {
+            moved += model.tilt(sides[k & 3]).tilesMoved();
+        }
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int k = 0; k < 1000000; k += 1) {
+            moved += model.tilt(sides[k & 3]).tilesMoved();
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertTrue(moved > 0);
+        assertTrue("tilt allocated " + allocated + " bytes", allocated < 1024);
+    }
+}
@@ -0,0 +1,20 @@
+package game2048;
+
+import org.junit.After;
+import org.junit.Before;
+
+/** Runs all of the tests in TestModel against a Model whose board is
+ *  packed into a BitBoard.
+ */
+public class TestBitBoardModel extends TestModel {
+
+    @Before
+    public void usePackedBoard() {
+        packed = true;
+    }
+
+    @After
+    public void useTileBoard() {
+        packed = false;
+    }
+}
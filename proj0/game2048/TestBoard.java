@@ -0,0 +1,95 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests that the counts Board keeps up to date as tiles are added and
+ *  moved agree with a scan of the board.
+ */
+public class TestBoard {
+
+    /** Check B's incremental counts against a full scan of B. */
+    private static void checkCounts(Board b) {
+        int empty = 0, max = 0;
+        boolean pair = false;
+        for (int col = 0; col < b.size(); col += 1) {
+            for (int row = 0; row < b.size(); row += 1) {
+                Tile t = b.tile(col, row);
+                if (t == null) {
+                    empty += 1;
+                    continue;
+                }
+                max = Math.max(max, t.value());
+                Tile right = col + 1 < b.size() ? b.tile(col + 1, row) : null;
+                Tile up = row + 1 < b.size() ? b.tile(col, row + 1) : null;
+                pair |= (right != null && right.value() == t.value())
+                    || (up != null && up.value() == t.value());
+            }
+        }
+        assertEquals("empty squares\n" + b, empty, b.emptyCount());
+        assertEquals("largest tile\n" + b, max, b.maxValue());
+        assertEquals("mergeable pair\n" + b, pair, b.mergeablePairExists());
+    }
+
+    /** Counts are right for boards built from raw values. */
+    @Test
+    public void testRawValues() {
+        Board b = new Board(new int[][] {
+                {2, 2, 0, 0},
+                {4, 0, 0, 0},
+                {8, 16, 0, 0},
+                {0, 0, 0, 32},
+        });
+        checkCounts(b);
+        b.clear();
+        checkCounts(b);
+    }
+
+    /** Counts stay right through a long run of random moves. */
+    @Test
+    public void testRandomPlay() {
+        Random random = new Random(61);
+        Side[] sides = Side.values();
+        for (int size = 2; size <= 6; size += 1) {
+            Model model = new Model(size);
+            TileSpawner spawner = new TileSpawner(random, 0.9);
+            Board board = model.board();
+            for (int k = 0; k < 2000; k += 1) {
+                if (model.gameOver()) {
+                    model.clear();
+                }
+                if (Model.emptySpaceExists(board)) {
+                    model.addTile(spawner.getValidNewTile(model));
+                    checkCounts(board);
+                }
+                model.tilt(sides[random.nextInt(sides.length)]);
+                checkCounts(board);
+            }
+        }
+    }
+
+    /** Each iterator is independent: one run to the end stays there,
+     *  whatever later iterators do. */
+    @Test
+    public void testIteratorsIndependent() {
+        Board b = new Board(3);
+        Iterator<Tile> first = b.iterator();
+        int n = 0;
+        while (first.hasNext()) {
+            first.next();
+            n += 1;
+        }
+        assertEquals(9, n);
+        Iterator<Tile> second = b.iterator();
+        assertNotSame(first, second);
+        assertTrue(second.hasNext());
+        assertFalse(first.hasNext());
+    }
+}
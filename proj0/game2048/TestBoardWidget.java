@@ -0,0 +1,60 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of the frames BoardWidget publishes and paints. */
+public class TestBoardWidget {
+
+    /** Paint the latest frame of WIDGET into an image. */
+    private static void paint(BoardWidget widget, int side) {
+        BufferedImage image =
+            new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        widget.paintComponent(g);
+        g.dispose();
+    }
+
+    /** Frames published while nothing paints are dropped, except the
+     *  last, and painting the same frame again drops nothing.  Each paint
+     *  keeps one frame from being dropped. */
+    @Test
+    public void testDroppedFrames() {
+        BoardWidget widget = new BoardWidget(4);
+        Model model = new Model(4);
+        model.addTile(Tile.create(2, 0, 0));
+        widget.update(model);
+        model.tilt(Side.NORTH);
+        model.addTile(Tile.create(2, 0, 0));
+        widget.update(model);
+        long published = widget.publishedFrames();
+        assertTrue(published > 2);
+        assertEquals(0, widget.droppedFrames());
+
+        paint(widget, 500);
+        assertEquals(published - 1, widget.droppedFrames());
+        paint(widget, 500);
+        assertEquals(published - 1, widget.droppedFrames());
+        widget.update(model);
+        paint(widget, 500);
+        assertEquals(widget.publishedFrames() - 2, widget.droppedFrames());
+    }
+
+    /** Large boards publish one heatmap frame per update. */
+    @Test
+    public void testHeatmapFrames() {
+        BoardWidget widget = new BoardWidget(GridBoard.MAX_SIZE);
+        Model model = new Model(GridBoard.MAX_SIZE);
+        model.addTile(Tile.create(2, 63, 63));
+        widget.update(model);
+        widget.update(model);
+        assertEquals(2, widget.publishedFrames());
+        paint(widget, BoardWidget.HEATMAP_SIDE);
+        assertEquals(1, widget.droppedFrames());
+    }
+}
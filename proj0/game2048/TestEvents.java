@@ -0,0 +1,92 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static game2048.GameEvent.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of the events a Model reports to its listeners. */
+public class TestEvents {
+
+    /** Batches received, in order. */
+    private final ArrayList<List<GameEvent>> _batches = new ArrayList<>();
+
+    /** A tilt is reported as one batch of moves and merges, followed by
+     *  the change in score. */
+    @Test
+    public void testTiltBatch() {
+        Model model = new Model(new int[][] {
+                {0, 0, 0, 0},
+                {0, 0, 0, 0},
+                {0, 0, 0, 0},
+                {2, 2, 4, 0},
+            }, 0, 0);
+        model.subscribe(_batches::add);
+        model.tilt(Side.WEST);
+        assertEquals(1, _batches.size());
+        assertEquals(List.of(new TileMerged(4, 1, 0, 0, 0),
+                             new TileMoved(4, 2, 0, 1, 0),
+                             new ScoreChanged(4, 4)),
+                     _batches.get(0));
+        model.tilt(Side.SOUTH);
+        assertEquals("a tilt that changes nothing is not reported",
+                     1, _batches.size());
+    }
+
+    /** New tiles and the end of the game are reported, to every
+     *  listener, until it unsubscribes. */
+    @Test
+    public void testSpawnAndGameOver() {
+        Model model = new Model(new int[][] {
+                {2, 4, 2, 4},
+                {4, 2, 4, 2},
+                {2, 4, 2, 4},
+                {4, 2, 4, 0},
+            }, 0, 0);
+        ArrayList<List<GameEvent>> others = new ArrayList<>();
+        GameListener other = others::add;
+        model.subscribe(_batches::add);
+        model.subscribe(other);
+        model.addTile(Tile.create(8, 3, 0));
+        List<GameEvent> expected =
+            List.of(new TileSpawned(8, 3, 0), new GameOver(0));
+        assertEquals(List.of(expected), _batches);
+        assertEquals(List.of(expected), others);
+
+        model.unsubscribe(other);
+        model.clear();
+        assertEquals(List.of(new BoardChanged()), _batches.get(1));
+        assertEquals(1, others.size());
+    }
+
+    /** Boards that do not track tiles report tilts as board changes. */
+    @Test
+    public void testPackedTilt() {
+        Model model = new Model(4, true);
+        model.addTile(Tile.create(2, 0, 0));
+        model.addTile(Tile.create(2, 0, 3));
+        model.subscribe(_batches::add);
+        model.tilt(Side.NORTH);
+        assertEquals(List.of(new BoardChanged(), new ScoreChanged(4, 4)),
+                     _batches.get(0));
+    }
+
+    /** Undo is reported as a board change and the change in score. */
+    @Test
+    public void testUndo() {
+        Model model = new Model(4);
+        model.addTile(Tile.create(2, 0, 0));
+        model.addTile(Tile.create(2, 0, 1));
+        model.checkpoint();
+        model.tilt(Side.NORTH);
+        model.checkpoint();
+        model.subscribe(_batches::add);
+        assertTrue(model.undo());
+        assertEquals(List.of(new BoardChanged(), new ScoreChanged(0, -4)),
+                     _batches.get(0));
+    }
+}
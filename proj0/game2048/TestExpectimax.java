@@ -0,0 +1,117 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of ExpectimaxPolicy and its TranspositionTable. */
+public class TestExpectimax {
+
+    /** The chosen move always changes the board. */
+    @Test
+    public void testMoveChangesBoard() {
+        ExpectimaxPolicy ai = new ExpectimaxPolicy(0.9, 0, 3, 1 << 12);
+        long board = BitBoard.fromValues(new int[][] {
+                {2, 4, 8, 16},
+                {4, 8, 16, 32},
+                {8, 16, 32, 64},
+                {16, 32, 64, 0},
+        });
+        Side side = ai.bestMove(board);
+        assertNotEquals(board, BitBoard.tilt(board, side));
+    }
+
+    /** There is no move on a board that cannot change. */
+    @Test
+    public void testNoMove() {
+        ExpectimaxPolicy ai = new ExpectimaxPolicy(0.9);
+        long board = BitBoard.fromValues(new int[][] {
+                {2, 4, 2, 4},
+                {4, 2, 4, 2},
+                {2, 4, 2, 4},
+                {4, 2, 4, 2},
+        });
+        assertNull(ai.bestMove(board));
+    }
+
+    /** A search that runs out of time stops deepening, and still plays a
+     *  legal move; without a budget, it searches to its depth limit.  The
+     *  budget of 1 ns has expired by the first check of the clock, after
+     *  CLOCK_INTERVAL positions, whatever the speed of the machine. */
+    @Test
+    public void testBudget() {
+        long board = BitBoard.fromValues(new int[][] {
+                {2, 0, 0, 0},
+                {0, 4, 0, 0},
+                {0, 0, 0, 0},
+                {0, 0, 2, 0},
+        });
+        ExpectimaxPolicy timed = new ExpectimaxPolicy(0.9, 1, 8, 1 << 12);
+        Side side = timed.bestMove(board);
+        assertNotEquals(board, BitBoard.tilt(board, side));
+        assertTrue("searched to depth " + timed.lastDepth(),
+                   timed.lastDepth() < 8);
+
+        ExpectimaxPolicy untimed = new ExpectimaxPolicy(0.9, 0, 2, 1 << 12);
+        untimed.bestMove(board);
+        assertEquals(2, untimed.lastDepth());
+    }
+
+    /** The AI plays much better than chance. */
+    @Test
+    public void testBeatsRandom() {
+        SimulationStats random =
+            new Simulator(new RandomPolicy(), 0.9).run(10, 61);
+        SimulationStats ai =
+            new Simulator(new ExpectimaxPolicy(0.9, 0, 2, 1 << 16), 0.9)
+            .run(10, 61);
+        assertTrue(ai.meanScore() > 4 * random.meanScore());
+    }
+
+    /** The transposition table evicts its least recently used entry. */
+    @Test
+    public void testTableEviction() {
+        TranspositionTable table = new TranspositionTable(2);
+        table.put(1L, 3, 10.0);
+        table.put(2L, 3, 20.0);
+        assertEquals(10.0, table.get(1L, 3), 0.0);
+        table.put(3L, 3, 30.0);
+        assertEquals(2, table.size());
+        assertTrue(Double.isNaN(table.get(2L, 1)));
+        assertEquals(10.0, table.get(1L, 2), 0.0);
+        assertTrue(Double.isNaN(table.get(3L, 4)));
+    }
+
+    /** The table agrees with a simple LRU map under heavy churn. */
+    @Test
+    public void testTableChurn() {
+        TranspositionTable table = new TranspositionTable(100);
+        LinkedHashMap<Long, Double> expected =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Double> e) {
+                    return size() > 100;
+                }
+            };
+        Random random = new Random(61);
+        for (int k = 0; k < 100000; k += 1) {
+            long board = random.nextInt(300);
+            if (random.nextBoolean()) {
+                table.put(board, 1, k);
+                expected.put(board, (double) k);
+            } else {
+                Double value = expected.get(board);
+                assertEquals(value == null ? Double.NaN : value,
+                             table.get(board, 1), 0.0);
+            }
+        }
+        assertEquals(expected.size(), table.size());
+    }
+}
@@ -0,0 +1,144 @@
+package game2048;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of writing, reading, and replaying game logs. */
+public class TestGameLog {
+
+    /** Holds the logs written by each test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Games logged by the Simulator replay to the results it reports. */
+    @Test
+    public void testSimulatorLog() throws IOException {
+        Path path = folder.newFile("sim.log").toPath();
+        int games = 200;
+        long seed = 61;
+        SimulationStats stats;
+        try (GameLogWriter log = new GameLogWriter(path)) {
+            Simulator simulator = new Simulator(new RandomPolicy(), 0.9);
+            stats = simulator.run(games, seed, new ForkJoinPool(2), log);
+            assertEquals(games, log.games());
+        }
+
+        HashMap<Long, Integer> gameOfSeed = new HashMap<>();
+        for (int game = 0; game < games; game += 1) {
+            gameOfSeed.put(Simulator.gameSeed(seed, game), game);
+        }
+        try (GameLogReader log = new GameLogReader(path)) {
+            for (int k = 0; k < games; k += 1) {
+                GameReplay replay = log.next();
+                int game = gameOfSeed.get(replay.seed());
+                assertEquals(0.9, replay.probOf2(), 0.0);
+                assertEquals(TileSpawner.Sampling.FREE_CELLS,
+                             replay.sampling());
+                assertEquals(stats.moves(game), replay.moves());
+                Model end = replay.replay();
+                assertTrue(end.gameOver());
+                assertEquals(stats.score(game), end.score());
+            }
+            assertNull(log.next());
+        }
+    }
+
+    /** Seeking to any move of a long game on a large board reproduces the
+     *  board as it was played, whether or not it starts at a keyframe. */
+    @Test
+    public void testSeek() throws IOException {
+        int size = GridBoard.MIN_SIZE;
+        Random random = new Random(2048);
+        TileSpawner spawner = new TileSpawner(random, 0.9);
+        GameRecord record = new GameRecord();
+        record.start(2048, 0.9, TileSpawner.Sampling.FREE_CELLS, size);
+        Model model = new Model(size);
+        ArrayList<Model> before = new ArrayList<>();
+        Side[] sides = Side.values();
+        for (int k = 0; k < 1000 && !model.gameOver(); k += 1) {
+            Tile tile = spawner.getValidNewTile(model);
+            record.spawn(tile);
+            model.addTile(tile);
+            if (model.gameOver()) {
+                break;
+            }
+            Side side = sides[random.nextInt(sides.length)];
+            while (!new Model(copy(model), 0, 0, false, Model.Storage.GRID)
+                   .tilt(side).moved()) {
+                side = sides[random.nextInt(sides.length)];
+            }
+            before.add(new Model(copy(model), model.score(), 0, false,
+                                 Model.Storage.TILES));
+            record.move(model, side);
+            model.tilt(side);
+        }
+        assertTrue(before.size() > 2 * GameRecord.KEYFRAME_INTERVAL);
+
+        Path path = folder.newFile("seek.log").toPath();
+        try (GameLogWriter log = new GameLogWriter(path)) {
+            log.write(record);
+        }
+        GameReplay replay;
+        try (GameLogReader log = new GameLogReader(path)) {
+            replay = log.next();
+            assertNull(log.next());
+        }
+        assertEquals(before.size(), replay.moves());
+        for (int n = 0; n < before.size(); n += 7) {
+            assertEquals("before move " + n, before.get(n), replay.seek(n));
+        }
+        int n = GameRecord.KEYFRAME_INTERVAL;
+        assertEquals(before.get(n), replay.seek(n));
+        assertEquals(before.get(n - 1), replay.seek(n - 1));
+        assertEquals(model.score(), replay.replay().score());
+    }
+
+    /** Return the values of the tiles of MODEL, indexed as for
+     *  Model(int[][], int, int). */
+    private static int[][] copy(Model model) {
+        int n = model.size();
+        int[][] values = new int[n][n];
+        for (int col = 0; col < n; col += 1) {
+            for (int row = 0; row < n; row += 1) {
+                values[n - 1 - row][col] = model.value(col, row);
+            }
+        }
+        return values;
+    }
+
+    /** Logs of version 1, which have no Sampling, are read as spawned by
+     *  REJECTION. */
+    @Test
+    public void testVersion1() throws IOException {
+        Path path = folder.newFile("v1.log").toPath();
+        ByteBuffer bytes = ByteBuffer.allocate(6 + 25 + 2);
+        bytes.putInt(GameLogWriter.MAGIC).putShort((short) 1);
+        bytes.putInt(2).putInt(0).putLong(2048).putDouble(0.9).put((byte) 4);
+        bytes.put((byte) (GameRecord.SPAWN | 5));
+        bytes.put((byte) (GameRecord.SPAWN | GameRecord.FOUR | 10));
+        Files.write(path, bytes.array());
+        try (GameLogReader log = new GameLogReader(path)) {
+            GameReplay replay = log.next();
+            assertEquals(2048, replay.seed());
+            assertEquals(TileSpawner.Sampling.REJECTION, replay.sampling());
+            Model end = replay.replay();
+            assertEquals(2, end.value(1, 1));
+            assertEquals(4, end.value(2, 2));
+            assertNull(log.next());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/** Tests that models stored as a GridBoard play the same as models stored
+ *  as Tiles, and that GridBoards made to tilt in parallel play the same as
+ *  those that tilt serially.
+ */
+public class TestGridBoard {
+
+    /** Play random moves on a GRID and a TILES model of size SIZE in step,
+     *  checking that they stay equal and describe each tilt the same way,
+     *  and that the GRID model's counts agree with a scan.  A GridBoard
+     *  that always tilts in parallel plays along and must agree too. */
+    private static void checkRandomPlay(int size, long seed, int moves) {
+        Random random = new Random(seed);
+        Model grid = new Model(size, Model.Storage.GRID);
+        Model tiles = new Model(size, Model.Storage.TILES);
+        GridBoard parallel = new GridBoard(size, 0);
+        MoveResult parallelMove = new MoveResult();
+        TileSpawner spawner = new TileSpawner(random, 0.9);
+        Side[] sides = Side.values();
+        for (int k = 0; k < moves && !tiles.gameOver(); k += 1) {
+            for (int n = random.nextInt(size) + 1;
+                 n > 0 && Model.emptySpaceExists(tiles.board()); n -= 1) {
+                Tile t = spawner.getValidNewTile(tiles);
+                tiles.addTile(t);
+                grid.addTile(Tile.create(t.value(), t.col(), t.row()));
+                parallel.place(t.value(), t.col(), t.row());
+            }
+            Side side = sides[random.nextInt(sides.length)];
+            MoveResult expected = tiles.tilt(side);
+            int moved = expected.tilesMoved(), merges = expected.merges(),
+                delta = expected.scoreDelta();
+            MoveResult actual = grid.tilt(side);
+            assertEquals("tiles moved", moved, actual.tilesMoved());
+            assertEquals("merges", merges, actual.merges());
+            assertEquals("score delta", delta, actual.scoreDelta());
+            assertEquals("after " + side, tiles, grid);
+            assertEquals(tiles.hashCode(), grid.hashCode());
+            Board b = tiles.board();
+            assertEquals(Model.atLeastOneMoveExists(b)
+                         && !Model.maxTileExists(b), !grid.gameOver());
+
+            parallel.tilt(side, parallelMove);
+            assertEquals("parallel moved", moved, parallelMove.tilesMoved());
+            assertEquals("parallel merges", merges, parallelMove.merges());
+            assertEquals("parallel delta", delta, parallelMove.scoreDelta());
+            for (int col = 0; col < size; col += 1) {
+                for (int row = 0; row < size; row += 1) {
+                    assertEquals(grid.value(col, row),
+                                 parallel.value(col, row));
+                }
+            }
+            assertEquals(grid.emptyCount(), parallel.emptyCount());
+            assertEquals(Model.atLeastOneMoveExists(b),
+                         parallel.emptyCount() > 0
+                         || parallel.mergeablePairExists());
+        }
+    }
+
+    /** Boards of MIN_SIZE tilt the same serially and in one parallel
+     *  chunk. */
+    @Test
+    public void testSerialTilt() {
+        for (long seed = 0; seed < 5; seed += 1) {
+            checkRandomPlay(GridBoard.MIN_SIZE, seed, 400);
+        }
+    }
+
+    /** Boards of PARALLEL_SIZE and larger tilt in parallel by default,
+     *  and boards split into several chunks, even or uneven, tilt the
+     *  same serially and in parallel. */
+    @Test
+    public void testParallelTilt() {
+        checkRandomPlay(GridBoard.PARALLEL_SIZE, 1, 200);
+        checkRandomPlay(2 * GridBoard.CHUNK_LINES + 3, 3, 200);
+        checkRandomPlay(GridBoard.MAX_SIZE, 2, 100);
+    }
+
+    /** Small sizes work too, for completeness. */
+    @Test
+    public void testSmallBoards() {
+        for (int size = 2; size < GridBoard.MIN_SIZE; size += 1) {
+            checkRandomPlay(size, size, 200);
+        }
+    }
+
+    /** Counts are right for boards built from raw values. */
+    @Test
+    public void testRawValues() {
+        int[][] values = new int[GridBoard.MIN_SIZE][GridBoard.MIN_SIZE];
+        values[0][0] = 2;
+        values[0][1] = 4;
+        values[1][1] = 4;
+        GridBoard b = new GridBoard(values);
+        assertEquals(61, b.emptyCount());
+        assertEquals(4, b.maxValue());
+        assertEquals(true, b.mergeablePairExists());
+        assertEquals(2, b.value(0, GridBoard.MIN_SIZE - 1));
+        b.place(0, 1, GridBoard.MIN_SIZE - 2);
+        assertEquals(false, b.mergeablePairExists());
+    }
+
+    /** Large boards are stored as grids by default, and GRID models
+     *  create tiles only on request. */
+    @Test
+    public void testDefaultStorage() {
+        assertEquals(Model.Storage.TILES, new Model(4).storage());
+        Model m = new Model(GridBoard.MIN_SIZE);
+        assertEquals(Model.Storage.GRID, m.storage());
+        assertNull(m.tile(3, 3));
+        m.addTile(Tile.create(8, 3, 3));
+        assertEquals(8, m.tile(3, 3).value());
+        assertEquals(8, m.value(3, 3));
+    }
+
+    /** Serial tilts of a MAX_SIZE board allocate nothing. */
+    @Test
+    public void testSerialTiltAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GridBoard board =
+            new GridBoard(GridBoard.MAX_SIZE, GridBoard.MAX_SIZE + 1);
+        Random random = new Random(0);
+        for (int col = 0; col < GridBoard.MAX_SIZE; col += 1) {
+            for (int row = 0; row < GridBoard.MAX_SIZE; row += 1) {
+                if (random.nextBoolean()) {
+                    board.place(2 << random.nextInt(12), col, row);
+                }
+            }
+        }
+        MoveResult result = new MoveResult();
+        Side[] sides = {Side.NORTH, Side.SOUTH, Side.EAST, Side.WEST};
+        int moved = 0;
+        for (int k = 0; k < 20000; k += 1) {
+            board.tilt(sides[k & 3], result);
+            moved += result.tilesMoved();
+        }
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int k = 0; k < 20000; k += 1) {
+            board.tilt(sides[k & 3], result);
+            moved += result.tilesMoved();
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertTrue(moved > 0);
+        assertTrue("tilt allocated " + allocated + " bytes", allocated < 1024);
+    }
+}
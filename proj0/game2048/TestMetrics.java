@@ -0,0 +1,100 @@
+package game2048;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of Histogram and Metrics. */
+public class TestMetrics {
+
+    @Before
+    public void setUp() {
+        Metrics.reset();
+        Metrics.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.reset();
+    }
+
+    /** Counts, means, and maxima are exact; percentiles are within a
+     *  factor of two. */
+    @Test
+    public void testHistogram() {
+        Histogram h = new Histogram("test");
+        for (int v = 1; v <= 100; v += 1) {
+            h.record(v);
+        }
+        assertEquals(100, h.getCount());
+        assertEquals(50.5, h.getMean(), 1e-9);
+        assertEquals(100, h.getMax());
+        assertEquals(63, h.getP50());
+        assertEquals(100, h.getP99());
+        h.record(0);
+        assertEquals(101, h.getCount());
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getP99());
+    }
+
+    /** Tilts, game-over tests, and spawns are recorded only while
+     *  enabled. */
+    @Test
+    public void testModel() {
+        Model model = new Model(4);
+        TileSpawner spawner = new TileSpawner(new Random(2048), 0.9);
+        model.addTile(spawner.getValidNewTile(model));
+        model.tilt(Side.NORTH);
+        assertEquals(1, Metrics.TILT.getCount());
+        assertEquals(2, Metrics.GAME_OVER.getCount());
+        assertEquals(1, Metrics.SPAWN_TRIES.getCount());
+        assertEquals(1, Metrics.SPAWN_TRIES.getMax());
+
+        Metrics.setEnabled(false);
+        model.tilt(Side.SOUTH);
+        model.addTile(spawner.getValidNewTile(model));
+        assertEquals(1, Metrics.TILT.getCount());
+        assertEquals(1, Metrics.SPAWN_TRIES.getCount());
+    }
+
+    /** Spawning on a nearly full board takes many tries. */
+    @Test
+    public void testSpawnTries() {
+        int[][] rows = new int[4][4];
+        for (int[] row : rows) {
+            Arrays.fill(row, 2);
+        }
+        rows[3][3] = 0;
+        Model model = new Model(rows, 0, 0, false);
+        TileSpawner spawner = new TileSpawner(new Random(61), 0.9,
+                                              TileSpawner.Sampling.REJECTION);
+        for (int k = 0; k < 100; k += 1) {
+            spawner.getValidNewTile(model);
+        }
+        assertEquals(100, Metrics.SPAWN_TRIES.getCount());
+        assertTrue(Metrics.SPAWN_TRIES.getMean() > 8);
+    }
+
+    /** The metrics can be read through JMX. */
+    @Test
+    public void testRegister() throws Exception {
+        Metrics.register();
+        Metrics.register();
+        new Model(4).tilt(Side.WEST);
+        Object count = ManagementFactory.getPlatformMBeanServer()
+            .getAttribute(new ObjectName("game2048:type=Histogram,name=tilt"),
+                          "Count");
+        assertEquals(1L, count);
+        assertTrue(Metrics.report().contains("spawnTries"));
+    }
+}
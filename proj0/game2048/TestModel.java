@@ -2,7 +2,9 @@ package game2048;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 /** Tests of the Model class.
@@ -1140,4 +1142,63 @@ public class TestModel extends TestUtils {
                 {0, 0, 0, 2}
         }, totalScore, 0, prevBoard, currMove);
     }
+
+    /*
+     * *************************
+     * *  MOVE RESULT TESTS    *
+     * *************************
+     * <p>
+     * The following tests check the MoveResult returned by `tilt`.
+     */
+
+    /** A tilt that merges reports its moves, merges, and score. */
+    @Test
+    public void testMoveResultMerge() {
+        int[][] board = new int[][]{
+                {0, 0, 0, 0},
+                {2, 2, 0, 4},
+                {0, 0, 0, 0},
+                {8, 0, 0, 8}
+        };
+        updateModel(board, 0, 0, false);
+        MoveResult result = model.tilt(Side.WEST);
+        assertTrue(result.moved());
+        assertEquals(3, result.tilesMoved());
+        assertEquals(2, result.merges());
+        assertEquals(20, result.scoreDelta());
+    }
+
+    /** A tilt that changes nothing reports no change. */
+    @Test
+    public void testMoveResultNoChange() {
+        int[][] board = new int[][]{
+                {0, 0, 0, 0},
+                {2, 4, 0, 0},
+                {0, 0, 0, 0},
+                {8, 0, 0, 0}
+        };
+        updateModel(board, 0, 0, false);
+        MoveResult result = model.tilt(Side.WEST);
+        assertFalse(result.moved());
+        assertEquals(0, result.tilesMoved());
+        assertEquals(0, result.merges());
+        assertEquals(0, result.scoreDelta());
+    }
+
+    /** Equal models have equal hash codes, and differ if a tile differs. */
+    @Test
+    public void testEqualsAndHashCode() {
+        int[][] board = new int[][]{
+                {0, 0, 0, 0},
+                {2, 4, 0, 0},
+                {0, 0, 0, 0},
+                {8, 0, 0, 0}
+        };
+        updateModel(board, 4, 0, false);
+        Model same = new Model(board, 4, 0, false);
+        assertEquals(same, model);
+        assertEquals(same.hashCode(), model.hashCode());
+        board[0][0] = 2;
+        assertNotEquals(new Model(board, 4, 0, false), model);
+    }
 }
@@ -0,0 +1,83 @@
+package game2048;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/** Tests of building, saving, and loading RowTables. */
+public class TestRowTables {
+
+    /** Holds the files written by each test. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Tables saved and loaded again are unchanged. */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path path = folder.newFile("rows.bin").toPath();
+        RowTables built = RowTables.build();
+        built.save(path);
+        assertEquals(RowTables.FILE_LENGTH, Files.size(path));
+        RowTables loaded = RowTables.load(path);
+        assertArrayEquals(built.left, loaded.left);
+        assertArrayEquals(built.right, loaded.right);
+        assertArrayEquals(built.score, loaded.score);
+        assertArrayEquals(built.movedLeft, loaded.movedLeft);
+        assertArrayEquals(built.movedRight, loaded.movedRight);
+    }
+
+    /** Files that do not hold tables are not loaded. */
+    @Test
+    public void testBadFile() throws IOException {
+        Path path = folder.newFile("bad.bin").toPath();
+        Files.write(path, new byte[RowTables.FILE_LENGTH]);
+        assertNull(RowTables.load(path));
+        Files.write(path, new byte[10]);
+        assertNull(RowTables.load(path));
+    }
+
+    /** Files saved by another version of the tables, or whose tables have
+     *  been damaged, are not loaded. */
+    @Test
+    public void testStaleOrDamagedFile() throws IOException {
+        Path path = folder.newFile("rows.bin").toPath();
+        RowTables.build().save(path);
+        byte[] saved = Files.readAllBytes(path);
+
+        byte[] stale = saved.clone();
+        stale[7] += 1;
+        Files.write(path, stale);
+        assertNull(RowTables.load(path));
+
+        byte[] damaged = saved.clone();
+        damaged[RowTables.HEADER_LENGTH + 2 * 0x0211] ^= 1;
+        Files.write(path, damaged);
+        assertNull(RowTables.load(path));
+
+        Files.write(path, saved);
+        assertNotNull(RowTables.load(path));
+    }
+
+    /** The tables BitBoard uses slide rows as expected: 2 2 4 0 (as
+     *  exponents 1 1 2 0) becomes 4 4 0 0 to the left and 0 0 4 4 to the
+     *  right, gaining 4 either way. */
+    @Test
+    public void testEntries() {
+        RowTables tables = RowTables.get();
+        int row = 0x0211;
+        assertEquals(0x0022, tables.left[row]);
+        assertEquals(0x2200, tables.right[row]);
+        assertEquals(4, tables.score[row]);
+        assertEquals(2, tables.movedLeft[row]);
+        assertEquals(3, tables.movedRight[row]);
+    }
+}
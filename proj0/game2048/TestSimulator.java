@@ -0,0 +1,43 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of the headless Simulator. */
+public class TestSimulator {
+
+    /** A batch's results do not depend on how many threads play it. */
+    @Test
+    public void testDeterministic() {
+        Simulator simulator = new Simulator(new RandomPolicy(), 0.9);
+        SimulationStats serial = simulator.run(200, 61, new ForkJoinPool(1));
+        SimulationStats parallel = simulator.run(200, 61, new ForkJoinPool(4));
+        for (int game = 0; game < 200; game += 1) {
+            assertEquals(serial.score(game), parallel.score(game));
+            assertEquals(serial.moves(game), parallel.moves(game));
+            assertEquals(serial.maxTile(game), parallel.maxTile(game));
+        }
+        assertArrayEquals(serial.maxTileHistogram(),
+                          parallel.maxTileHistogram());
+    }
+
+    /** Every game is counted once and ends with a plausible result. */
+    @Test
+    public void testStats() {
+        SimulationStats stats =
+            new Simulator(new RandomPolicy(), 0.9).run(100, 2048);
+        assertEquals(100, Arrays.stream(stats.maxTileHistogram()).sum());
+        for (int game = 0; game < stats.games(); game += 1) {
+            assertTrue(stats.moves(game) > 0);
+            assertTrue(stats.maxTile(game) >= 4);
+        }
+        assertTrue(stats.scorePercentile(0.0) <= stats.scorePercentile(0.5));
+        assertTrue(stats.scorePercentile(0.5) <= stats.scorePercentile(1.0));
+    }
+}
@@ -0,0 +1,123 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests of the ways TileSpawner chooses squares. */
+public class TestTileSpawner {
+
+    /** Ways of storing a 4x4 board. */
+    private static final Model.Storage[] STORAGES = {
+        Model.Storage.TILES, Model.Storage.PACKED, Model.Storage.GRID
+    };
+
+    /** REJECTION draws the same numbers as it always has: a column, a row,
+     *  and a value, until the square is empty. */
+    @Test
+    public void testRejectionCompatible() {
+        Model model = new Model(4);
+        TileSpawner spawner = new TileSpawner(new Random(61), 0.9,
+                                              TileSpawner.Sampling.REJECTION);
+        Random random = new Random(61);
+        for (int k = 0; k < 16; k += 1) {
+            int c, r, v;
+            do {
+                c = random.nextInt(4);
+                r = random.nextInt(4);
+                v = random.nextDouble() <= 0.9 ? 2 : 4;
+            } while (model.value(c, r) != 0);
+            Tile tile = spawner.getValidNewTile(model);
+            assertEquals(v, tile.value());
+            assertEquals(c, tile.col());
+            assertEquals(r, tile.row());
+            model.addTile(tile);
+        }
+    }
+
+    /** FREE_CELLS draws one index into the empty squares in order, then a
+     *  value, whatever the board. */
+    @Test
+    public void testFreeCellsDraws() {
+        int[][] rows = new int[4][4];
+        for (int r = 0; r < 4; r += 1) {
+            for (int c = 0; c < 4; c += 1) {
+                rows[r][c] = 2 << ((r + c) % 2);
+            }
+        }
+        rows[1][3] = 0;
+        rows[3][0] = 0;
+        Model model = new Model(rows, 0, 0, false);
+        int[] empty = new int[2];
+        int n = 0;
+        for (int r = 0; r < 4; r += 1) {
+            for (int c = 0; c < 4; c += 1) {
+                if (model.value(c, r) == 0) {
+                    empty[n] = 4 * r + c;
+                    n += 1;
+                }
+            }
+        }
+        assertEquals(2, n);
+        for (long seed = 0; seed < 20; seed += 1) {
+            Random random = new Random(seed);
+            int square = empty[random.nextInt(2)];
+            int v = random.nextDouble() <= 0.9 ? 2 : 4;
+            Tile tile = new TileSpawner(new Random(seed), 0.9)
+                .getValidNewTile(model);
+            assertEquals(v, tile.value());
+            assertEquals(square % 4, tile.col());
+            assertEquals(square / 4, tile.row());
+        }
+    }
+
+    /** FREE_CELLS spawns the same tiles under the same seed however the
+     *  board is stored, through tilts, spawns, undos, and clears. */
+    @Test
+    public void testFreeCellsStorage() {
+        Model[] models = new Model[STORAGES.length];
+        TileSpawner[] spawners = new TileSpawner[STORAGES.length];
+        for (int s = 0; s < STORAGES.length; s += 1) {
+            models[s] = new Model(4, STORAGES[s]);
+            spawners[s] = new TileSpawner(new Random(7), 0.9);
+        }
+        Random moves = new Random(8);
+        for (int k = 0; k < 2000; k += 1) {
+            Side side = Side.values()[moves.nextInt(4)];
+            boolean undo = moves.nextInt(10) == 0;
+            Tile expected = null;
+            for (int s = 0; s < STORAGES.length; s += 1) {
+                Model model = models[s];
+                if (model.gameOver() || model.emptyCount() == 0) {
+                    model.clear();
+                }
+                Tile tile = spawners[s].getValidNewTile(model);
+                if (expected == null) {
+                    expected = tile;
+                }
+                assertEquals(expected.value(), tile.value());
+                assertEquals(expected.col(), tile.col());
+                assertEquals(expected.row(), tile.row());
+                model.addTile(tile);
+                model.checkpoint();
+                model.tilt(side);
+                if (undo) {
+                    model.undo();
+                }
+            }
+        }
+    }
+
+    /** The Kth empty square is found the same way for packed boards. */
+    @Test
+    public void testEmptySquare() {
+        long board = BitBoard.place(BitBoard.place(0, 2, 0, 0), 4, 2, 1);
+        assertEquals(14, BitBoard.emptyCount(board));
+        assertEquals(1, BitBoard.emptySquare(board, 0));
+        assertEquals(4, BitBoard.emptySquare(board, 3));
+        assertEquals(7, BitBoard.emptySquare(board, 5));
+        assertEquals(15, BitBoard.emptySquare(board, 13));
+    }
+}
@@ -0,0 +1,88 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of Tournament and its statistics. */
+public class TestTournament {
+
+    /** Every policy plays the same seeded games as the Simulator, and the
+     *  CSV has a line per game. */
+    @Test
+    public void testFairAndComplete() throws IOException {
+        MovePolicy user = (model, random) -> Side.WEST;
+        Tournament tournament = new Tournament(
+            List.of(new RandomPolicy(), new CornerGreedyPolicy(), user), 0.9);
+        StringWriter csv = new StringWriter();
+        TournamentStats stats =
+            tournament.run(500, 7, new ForkJoinPool(2), csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(501, lines.length);
+        assertTrue(lines[0].startsWith("game,seed,random_score,"));
+        assertEquals(2 + 3 * 3, lines[1].split(",").length);
+
+        SimulationStats random =
+            new Simulator(new RandomPolicy(), 0.9).run(500, 7);
+        double total = 0;
+        for (int g = 0; g < 500; g += 1) {
+            String[] fields = lines[g + 1].split(",");
+            assertEquals(g, Integer.parseInt(fields[0]));
+            assertEquals(random.score(g), Integer.parseInt(fields[2]));
+            total += random.score(g);
+        }
+        assertEquals(total / 500, stats.meanScore(0), 1e-9);
+        assertEquals(500, stats.comparison(0, 2).games());
+    }
+
+    /** The corner strategy beats random play, significantly. */
+    @Test
+    public void testCornerBeatsRandom() throws IOException {
+        Tournament tournament = new Tournament(
+            List.of(new CornerGreedyPolicy(), new RandomPolicy()), 0.9);
+        TournamentStats stats =
+            tournament.run(2000, 2048, ForkJoinPool.commonPool(),
+                           new StringWriter());
+        PairedComparison c = stats.comparison(0, 1);
+        assertTrue(c.toString(), c.meanDifference() > 0);
+        assertTrue(c.toString(), c.pValue() < 1e-6);
+        assertTrue(c.winsA() > c.winsB());
+    }
+
+    /** Part of a batch plays the same games as the whole batch. */
+    @Test
+    public void testChunks() {
+        Simulator simulator = new Simulator(new RandomPolicy(), 0.9);
+        SimulationStats whole = simulator.run(300, 61);
+        SimulationStats part =
+            simulator.run(100, 200, 61, ForkJoinPool.commonPool(), null);
+        for (int g = 0; g < 200; g += 1) {
+            assertEquals(whole.score(100 + g), part.score(g));
+        }
+    }
+
+    /** Paired statistics match a direct computation. */
+    @Test
+    public void testPairedComparison() {
+        PairedComparison c = new PairedComparison("a", "b");
+        int[][] scores = { {10, 4}, {8, 8}, {3, 5}, {12, 2} };
+        for (int[] s : scores) {
+            c.add(s[0], s[1]);
+        }
+        assertEquals(3.5, c.meanDifference(), 1e-12);
+        double var = ((6 - 3.5) * (6 - 3.5) + 3.5 * 3.5 + 5.5 * 5.5
+                      + 6.5 * 6.5) / 3;
+        assertEquals(Math.sqrt(var / 4), c.standardError(), 1e-12);
+        assertEquals(2, c.winsA());
+        assertEquals(1, c.winsB());
+        assertEquals(0.975, PairedComparison.normalCdf(PairedComparison.Z95),
+                     1e-6);
+        assertEquals(0.5, PairedComparison.normalCdf(0), 1e-7);
+    }
+}
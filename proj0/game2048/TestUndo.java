@@ -0,0 +1,175 @@
+package game2048;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests of Model's checkpoints, undo, and redo. */
+public class TestUndo {
+
+    /** Return a copy of the values and score of MODEL, without its
+     *  maximum score. */
+    private static Model copy(Model model) {
+        int n = model.size();
+        int[][] values = new int[n][n];
+        for (int col = 0; col < n; col += 1) {
+            for (int row = 0; row < n; row += 1) {
+                values[n - 1 - row][col] = model.value(col, row);
+            }
+        }
+        return new Model(values, model.score(), 0);
+    }
+
+    /** Play a random turn of MODEL using SPAWNER and RANDOM: a tilt that
+     *  moves something, followed by a new tile.  Return false if the game
+     *  is over. */
+    private static boolean playTurn(Model model, TileSpawner spawner,
+                                    Random random) {
+        if (model.gameOver()) {
+            return false;
+        }
+        Side[] sides = Side.values();
+        while (!model.tilt(sides[random.nextInt(sides.length)]).moved()) {
+            continue;
+        }
+        if (model.gameOver()) {
+            return false;
+        }
+        model.addTile(spawner.getValidNewTile(model));
+        return true;
+    }
+
+    /** Undo back to the start and redo to the end of a game, on a board of
+     *  size SIZE stored as STORAGE. */
+    private static void checkUndoRedo(int size, Model.Storage storage) {
+        Random random = new Random(size);
+        TileSpawner spawner = new TileSpawner(random, 0.9);
+        Model model = new Model(size, storage);
+        model.addTile(spawner.getValidNewTile(model));
+        model.checkpoint();
+        ArrayList<Model> states = new ArrayList<>();
+        states.add(copy(model));
+        for (int k = 0; k < 300 && playTurn(model, spawner, random); k += 1) {
+            model.checkpoint();
+            states.add(copy(model));
+        }
+        assertFalse(model.canRedo());
+
+        for (int k = states.size() - 2; k >= 0; k -= 1) {
+            assertTrue(model.undo());
+            assertEquals(states.get(k), copy(model));
+        }
+        assertFalse(model.canUndo());
+        assertFalse(model.undo());
+        for (int k = 1; k < states.size(); k += 1) {
+            assertTrue(model.redo());
+            assertEquals(states.get(k), copy(model));
+        }
+        assertFalse(model.redo());
+    }
+
+    /** Undo and redo restore every checkpoint, however boards are
+     *  stored. */
+    @Test
+    public void testUndoRedo() {
+        checkUndoRedo(4, Model.Storage.TILES);
+        checkUndoRedo(4, Model.Storage.PACKED);
+        checkUndoRedo(GridBoard.MIN_SIZE, Model.Storage.GRID);
+    }
+
+    /** A checkpoint after an undo discards the states that could have been
+     *  redone, and clear discards everything. */
+    @Test
+    public void testBranch() {
+        Model model = new Model(4);
+        model.addTile(Tile.create(2, 0, 0));
+        model.checkpoint();
+        model.tilt(Side.NORTH);
+        model.checkpoint();
+        model.tilt(Side.EAST);
+        model.checkpoint();
+        assertTrue(model.undo());
+        assertTrue(model.canRedo());
+        model.tilt(Side.SOUTH);
+        model.checkpoint();
+        assertFalse(model.canRedo());
+        assertTrue(model.undo());
+        assertEquals(2, model.value(0, 3));
+        model.clear();
+        assertFalse(model.canUndo());
+        assertFalse(model.canRedo());
+    }
+
+    /** A history of 100,000 turns takes little space. */
+    @Test
+    public void testCompact() {
+        Random random = new Random(61);
+        TileSpawner spawner = new TileSpawner(random, 0.9);
+        MoveHistory history = new MoveHistory(4);
+        Model model = null;
+        for (int k = 0; k < 100000; k += 1) {
+            if (model == null || !playTurn(model, spawner, random)) {
+                model = new Model(4, true);
+                model.addTile(spawner.getValidNewTile(model));
+            }
+            history.record(model);
+        }
+        assertEquals(100000, history.states());
+        long bytes = 4L * history.changes() + 8L * history.states();
+        assertTrue("bytes per turn: " + bytes / history.states(),
+                   bytes / history.states() < 64);
+    }
+
+    /** Return a model in which a tilt WEST ends the game by making 2048,
+     *  checkpointed as Game does at the start. */
+    private static Model nearlyWon() {
+        Model model = new Model(new int[][] {
+                {1024, 1024, 0, 0},
+                {0, 0, 0, 0},
+                {0, 0, 0, 0},
+                {0, 0, 0, 2},
+            }, 0, 0);
+        model.checkpoint();
+        return model;
+    }
+
+    /** Undo from the board a game-ending move leaves returns to the board
+     *  before that move. */
+    @Test
+    public void testUndoAfterGameOver() {
+        Model model = nearlyWon();
+        Model before = copy(model);
+        Game game = new Game(model, null, 0.9, 61);
+        assertTrue(game.move(Side.WEST));
+        assertTrue(model.gameOver());
+        assertTrue(model.undo());
+        assertEquals(before, copy(model));
+        assertFalse(model.gameOver());
+        assertTrue(model.redo());
+        assertTrue(model.gameOver());
+        assertEquals(2048, model.value(0, 3));
+    }
+
+    /** A game-ending move after an undo discards the states that could
+     *  have been redone. */
+    @Test
+    public void testGameOverAfterUndo() {
+        Model model = nearlyWon();
+        Game game = new Game(model, null, 0.9, 61);
+        assertTrue(game.move(Side.SOUTH));
+        model.addTile(Tile.create(2, 0, 3));
+        model.checkpoint();
+        assertTrue(model.undo());
+        assertTrue(model.canRedo());
+        assertTrue(game.move(Side.WEST));
+        assertTrue(model.gameOver());
+        assertFalse(model.canRedo());
+        assertFalse(model.redo());
+        assertEquals(2048, model.value(0, 3));
+    }
+}
@@ -8,6 +8,8 @@ public class TestUtils {
     static Model model;
     /** The size of the Board on these tests. */
     public static final int SIZE = 4;
+    /** True iff updateModel should store its board as a BitBoard. */
+    static boolean packed = false;
 
     /** Utility method to generate an error message. */
     public static String boardShouldChange(Side side) {
@@ -30,7 +32,7 @@ public class TestUtils {
                                    boolean gameOver) {
         assert values.length == SIZE : "board must have 4x4 dimensions";
         assert values[0].length == SIZE : "board must have 4x4 dimensions";
-        model = new Model(values, score, maxScore, gameOver);
+        model = new Model(values, score, maxScore, gameOver, packed);
     }
 
     /**
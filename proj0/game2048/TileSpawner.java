@@ -0,0 +1,86 @@
+package game2048;
+
+import java.util.Random;
+
+/** A source of randomly placed new tiles, shared by Game and by headless
+ *  players so that both spawn tiles the same way.
+ */
+class TileSpawner {
+
+    /** Ways of choosing the square of a new tile. */
+    enum Sampling {
+        /** Draw a column and a row until they name an empty square, as
+         *  games before FREE_CELLS did.  The expected number of draws is
+         *  the number of squares over the number of empty ones.  Kept so
+         *  that games seeded under it can be played again. */
+        REJECTION,
+        /** Draw one index into the board's empty squares (see
+         *  Model.emptySquare). */
+        FREE_CELLS
+    }
+
+    /** A spawner drawing from RANDOM that produces 2s with probability
+     *  PROBOF2 and 4s otherwise, choosing squares by FREE_CELLS. */
+    TileSpawner(Random random, double probOf2) {
+        this(random, probOf2, Sampling.FREE_CELLS);
+    }
+
+    /** A spawner drawing from RANDOM that produces 2s with probability
+     *  PROBOF2 and 4s otherwise, choosing squares by SAMPLING. */
+    TileSpawner(Random random, double probOf2, Sampling sampling) {
+        _random = random;
+        _probOf2 = probOf2;
+        _sampling = sampling;
+    }
+
+    /** Return how this spawner chooses squares. */
+    Sampling sampling() {
+        return _sampling;
+    }
+
+    /** Return a valid tile that fits on the current board of MODEL.
+     *  Assumes there is at least one empty square on the board.  The
+     *  number of squares drawn is recorded in Metrics.SPAWN_TRIES. */
+    Tile getValidNewTile(Model model) {
+        if (_sampling == Sampling.FREE_CELLS) {
+            int size = model.size();
+            int square =
+                model.emptySquare(_random.nextInt(model.emptyCount()));
+            if (Metrics.enabled()) {
+                Metrics.SPAWN_TRIES.record(1);
+            }
+            return Tile.create(newValue(), square % size, square / size);
+        }
+        for (int tries = 1; true; tries += 1) {
+            Tile tile = generateNewTile(model.size());
+            if (model.value(tile.col(), tile.row()) == 0) {
+                if (Metrics.enabled()) {
+                    Metrics.SPAWN_TRIES.record(tries);
+                }
+                return tile;
+            }
+        }
+    }
+
+    /** Return a randomly positioned tile with either value of 2 with
+     * probability _probOf2 or a value of 4 with probability 1 - _probOf2 in a
+     * board with size SIZE. */
+    Tile generateNewTile(int size) {
+        int c = _random.nextInt(size), r = _random.nextInt(size);
+        return Tile.create(newValue(), c, r);
+    }
+
+    /** Return 2 with probability _probOf2, and otherwise 4. */
+    private int newValue() {
+        return _random.nextDouble() <= _probOf2 ? 2 : 4;
+    }
+
+    /** Probability that the next tile is 2, rather than a 4. */
+    private final double _probOf2;
+
+    /** Source of random numbers. */
+    private final Random _random;
+
+    /** How squares are chosen. */
+    private final Sampling _sampling;
+}
@@ -0,0 +1,121 @@
+package game2048;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/** Plays several MovePolicies against the same seeded games and compares
+ *  their scores in pairs.
+ *
+ *  Game number G of a tournament is played by every policy with its tiles
+ *  spawned from the same seed, as Simulator seeds them, so that each
+ *  policy starts from the same position and draws from the same stream
+ *  of random numbers; the per-game differences in score then have much
+ *  less variance than differences between independent games.  Games are
+ *  played a chunk at a time, each chunk spread over a fork-join pool, and
+ *  the results of each game are written as a line of CSV as its chunk
+ *  finishes, so a tournament of millions of games needs little memory.
+ */
+public class Tournament {
+
+    /** Number of games played between writes of results. */
+    static final int CHUNK = 1 << 16;
+
+    /** A tournament among POLICIES in games that spawn 2s with
+     *  probability PROBOF2. */
+    public Tournament(List<MovePolicy> policies, double probOf2) {
+        _policies = new ArrayList<>(policies);
+        _probOf2 = probOf2;
+    }
+
+    /** Play GAMES games seeded from SEED in POOL, writing one line of CSV
+     *  per game to CSV (after a header line), and return the mean
+     *  scores of the policies and comparisons of each pair. */
+    public TournamentStats run(int games, long seed, ForkJoinPool pool,
+                               Writer csv) throws IOException {
+        int n = _policies.size();
+        String[] names = new String[n];
+        Simulator[] simulators = new Simulator[n];
+        csv.write("game,seed");
+        for (int p = 0; p < n; p += 1) {
+            names[p] = _policies.get(p).toString();
+            simulators[p] = new Simulator(_policies.get(p), _probOf2);
+            csv.write(String.format(",%1$s_score,%1$s_max_tile,%1$s_moves",
+                                    names[p]));
+        }
+        csv.write("\n");
+
+        TournamentStats result = new TournamentStats(names);
+        SimulationStats[] stats = new SimulationStats[n];
+        StringBuilder line = new StringBuilder();
+        for (int first = 0; first < games; first += CHUNK) {
+            int count = Math.min(CHUNK, games - first);
+            for (int p = 0; p < n; p += 1) {
+                stats[p] = simulators[p].run(first, count, seed, pool, null);
+            }
+            for (int g = 0; g < count; g += 1) {
+                line.setLength(0);
+                line.append(first + g).append(',')
+                    .append(Simulator.gameSeed(seed, first + g));
+                for (SimulationStats s : stats) {
+                    line.append(',').append(s.score(g))
+                        .append(',').append(s.maxTile(g))
+                        .append(',').append(s.moves(g));
+                }
+                line.append('\n');
+                csv.append(line);
+                result.record(stats, g);
+            }
+            csv.flush();
+        }
+        return result;
+    }
+
+    /** Run a tournament as described by ARGS: the number of games
+     *  (default 100000), the random seed (default 2048), the CSV file to
+     *  write (default tournament.csv), and optionally the name of a class
+     *  of MovePolicy with a public no-argument constructor, which plays
+     *  along with the random, corner-greedy, and expectimax policies.
+     *  Expectimax searches one move deep so that large tournaments finish;
+     *  print the comparisons. */
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 2048;
+        Path csvPath = Path.of(args.length > 2 ? args[2] : "tournament.csv");
+
+        List<MovePolicy> policies = new ArrayList<>();
+        policies.add(new RandomPolicy());
+        policies.add(new CornerGreedyPolicy());
+        policies.add(new ExpectimaxPolicy(Main.TILE2_PROBABILITY, 0, 1,
+                                          1 << 12));
+        if (args.length > 3) {
+            policies.add((MovePolicy) Class.forName(args[3])
+                         .getDeclaredConstructor().newInstance());
+        }
+
+        Tournament tournament =
+            new Tournament(policies, Main.TILE2_PROBABILITY);
+        long start = System.nanoTime();
+        TournamentStats stats;
+        try (BufferedWriter csv = Files.newBufferedWriter(csvPath)) {
+            stats = tournament.run(games, seed, ForkJoinPool.commonPool(),
+                                   csv);
+        }
+        double seconds = (System.nanoTime() - start) * 1e-9;
+
+        System.out.print(stats);
+        System.out.printf("%.2f s on %d threads%n", seconds,
+                          ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /** The competing policies. */
+    private final List<MovePolicy> _policies;
+
+    /** Probability that a spawned tile is 2, rather than a 4. */
+    private final double _probOf2;
+}
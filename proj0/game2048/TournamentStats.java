@@ -0,0 +1,80 @@
+package game2048;
+
+import java.util.Formatter;
+
+/** Results of a Tournament: the mean score of each policy, and a
+ *  PairedComparison of each pair of policies over the games they all
+ *  played.
+ */
+public class TournamentStats {
+
+    /** Results for policies with NAMES, with no games yet. */
+    TournamentStats(String[] names) {
+        int n = names.length;
+        _names = names.clone();
+        _totals = new long[n];
+        _comparisons = new PairedComparison[n][n];
+        for (int a = 0; a < n; a += 1) {
+            for (int b = a + 1; b < n; b += 1) {
+                _comparisons[a][b] = new PairedComparison(names[a], names[b]);
+            }
+        }
+    }
+
+    /** Record game number GAME of STATS, which holds the results of each
+     *  policy in order. */
+    void record(SimulationStats[] stats, int game) {
+        _games += 1;
+        for (int a = 0; a < _names.length; a += 1) {
+            int score = stats[a].score(game);
+            _totals[a] += score;
+            for (int b = a + 1; b < _names.length; b += 1) {
+                _comparisons[a][b].add(score, stats[b].score(game));
+            }
+        }
+    }
+
+    /** Return the number of policies. */
+    public int policies() {
+        return _names.length;
+    }
+
+    /** Return the number of games each policy played. */
+    public long games() {
+        return _games;
+    }
+
+    /** Return the mean score of policy number P. */
+    public double meanScore(int p) {
+        return _games == 0 ? 0.0 : (double) _totals[p] / _games;
+    }
+
+    /** Return the comparison of policy A with policy B, where A < B. */
+    public PairedComparison comparison(int a, int b) {
+        return _comparisons[a][b];
+    }
+
+    @Override
+    public String toString() {
+        Formatter out = new Formatter();
+        out.format("%d games%n", _games);
+        for (int p = 0; p < _names.length; p += 1) {
+            out.format("  %-12s mean score %10.1f%n", _names[p], meanScore(p));
+        }
+        for (int a = 0; a < _names.length; a += 1) {
+            for (int b = a + 1; b < _names.length; b += 1) {
+                out.format("  %s", _comparisons[a][b]);
+            }
+        }
+        return out.toString();
+    }
+
+    /** Names of the policies. */
+    private final String[] _names;
+    /** Total score of each policy. */
+    private final long[] _totals;
+    /** _comparisons[A][B] compares policy A with policy B, for A < B. */
+    private final PairedComparison[][] _comparisons;
+    /** Number of games recorded. */
+    private long _games;
+}
@@ -0,0 +1,169 @@
+package game2048;
+
+import java.util.Arrays;
+
+/** A bounded cache of the values of positions found by a game-tree
+ *  search, keyed on packed boards (see BitBoard).  When full, the least
+ *  recently used entry is discarded to make room for a new one.
+ *
+ *  Entries live in parallel arrays allocated once, so that a search that
+ *  fills and churns the table creates no garbage.  Each entry is on a
+ *  hash chain, found from _buckets through _chain, and on a doubly linked
+ *  list in order of use, through _older and _newer.
+ */
+class TranspositionTable {
+
+    /** Marks the end of a chain or list. */
+    private static final int NONE = -1;
+
+    /** An empty table holding at most CAPACITY entries. */
+    TranspositionTable(int capacity) {
+        int buckets = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        _buckets = new int[buckets];
+        _keys = new long[capacity];
+        _values = new double[capacity];
+        _depths = new int[capacity];
+        _chain = new int[capacity];
+        _older = new int[capacity];
+        _newer = new int[capacity];
+        clear();
+    }
+
+    /** Return the value recorded for BOARD if it was searched to a depth
+     *  of at least DEPTH, and otherwise NaN. */
+    double get(long board, int depth) {
+        _lookups += 1;
+        int e = find(board);
+        if (e == NONE) {
+            return Double.NaN;
+        }
+        touch(e);
+        if (_depths[e] < depth) {
+            return Double.NaN;
+        }
+        _hits += 1;
+        return _values[e];
+    }
+
+    /** Record that BOARD, searched to depth DEPTH, has value VALUE. */
+    void put(long board, int depth, double value) {
+        int e = find(board);
+        if (e == NONE) {
+            if (_size < _keys.length) {
+                e = _size;
+                _size += 1;
+            } else {
+                e = _oldest;
+                unchain(e);
+                unlink(e);
+            }
+            int b = bucket(board);
+            _keys[e] = board;
+            _chain[e] = _buckets[b];
+            _buckets[b] = e;
+            link(e);
+        } else {
+            touch(e);
+        }
+        _depths[e] = depth;
+        _values[e] = value;
+    }
+
+    /** Return the number of entries in the table. */
+    int size() {
+        return _size;
+    }
+
+    /** Return the fraction of lookups so far that found a usable value. */
+    double hitRate() {
+        return _lookups == 0 ? 0.0 : (double) _hits / _lookups;
+    }
+
+    /** Remove all entries. */
+    void clear() {
+        Arrays.fill(_buckets, NONE);
+        _size = 0;
+        _oldest = _newest = NONE;
+    }
+
+    /** Return the bucket for BOARD. */
+    private int bucket(long board) {
+        long h = board * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (_buckets.length - 1);
+    }
+
+    /** Return the entry for BOARD, or NONE if there is none. */
+    private int find(long board) {
+        for (int e = _buckets[bucket(board)]; e != NONE; e = _chain[e]) {
+            if (_keys[e] == board) {
+                return e;
+            }
+        }
+        return NONE;
+    }
+
+    /** Remove entry E from its hash chain. */
+    private void unchain(int e) {
+        int b = bucket(_keys[e]);
+        if (_buckets[b] == e) {
+            _buckets[b] = _chain[e];
+            return;
+        }
+        int p = _buckets[b];
+        while (_chain[p] != e) {
+            p = _chain[p];
+        }
+        _chain[p] = _chain[e];
+    }
+
+    /** Make E the most recently used entry. */
+    private void touch(int e) {
+        if (e != _newest) {
+            unlink(e);
+            link(e);
+        }
+    }
+
+    /** Add E to the list as its most recently used entry. */
+    private void link(int e) {
+        _older[e] = _newest;
+        _newer[e] = NONE;
+        if (_newest == NONE) {
+            _oldest = e;
+        } else {
+            _newer[_newest] = e;
+        }
+        _newest = e;
+    }
+
+    /** Remove E from the list. */
+    private void unlink(int e) {
+        if (_older[e] == NONE) {
+            _oldest = _newer[e];
+        } else {
+            _newer[_older[e]] = _newer[e];
+        }
+        if (_newer[e] == NONE) {
+            _newest = _older[e];
+        } else {
+            _older[_newer[e]] = _older[e];
+        }
+    }
+
+    /** First entry on the chain of each bucket. */
+    private final int[] _buckets;
+    /** Board, value, and search depth of each entry. */
+    private final long[] _keys;
+    private final double[] _values;
+    private final int[] _depths;
+    /** Next entry on the same hash chain as each entry. */
+    private final int[] _chain;
+    /** Neighbors of each entry in order of use. */
+    private final int[] _older, _newer;
+    /** Least and most recently used entries. */
+    private int _oldest, _newest;
+    /** Number of entries in use. */
+    private int _size;
+    /** Number of calls to get, and the number that found a value. */
+    private long _lookups, _hits;
+}
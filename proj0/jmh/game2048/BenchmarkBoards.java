@@ -0,0 +1,54 @@
+package game2048;
+
+/** Board fixtures shared by the benchmarks, in the raw-value format of
+ *  TestModel: indexed by (row, col) with (0, 0) at the upper left as
+ *  printed. */
+final class BenchmarkBoards {
+
+    /** Not instantiable. */
+    private BenchmarkBoards() {
+    }
+
+    /** A few tiles early in a game. */
+    static final int[][] SPARSE = {
+        {0, 0, 0, 0},
+        {0, 2, 0, 0},
+        {0, 0, 0, 0},
+        {0, 0, 0, 2},
+    };
+
+    /** A typical position in the middle of a game. */
+    static final int[][] MIDGAME = {
+        {2, 0, 2, 128},
+        {0, 0, 8, 0},
+        {8, 64, 0, 128},
+        {4, 64, 8, 256},
+    };
+
+    /** A nearly full board late in a game. */
+    static final int[][] DENSE = {
+        {128, 4, 2, 4},
+        {4, 32, 4, 2},
+        {8, 16, 2, 0},
+        {4, 32, 4, 1024},
+    };
+
+    /** A full board on which no move is possible. */
+    static final int[][] FULL = {
+        {2, 4, 2, 4},
+        {4, 2, 4, 2},
+        {2, 4, 2, 4},
+        {4, 2, 4, 2},
+    };
+
+    /** Return the fixture named NAME (case-insensitive). */
+    static int[][] named(String name) {
+        return switch (name.toUpperCase()) {
+            case "SPARSE" -> SPARSE;
+            case "MIDGAME" -> MIDGAME;
+            case "DENSE" -> DENSE;
+            case "FULL" -> FULL;
+            default -> throw new IllegalArgumentException("no board " + name);
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package game2048;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of the read-only queries made on every move: reading tiles
+ *  through each viewing perspective, Model.gameOver, and choosing where
+ *  to spawn a new tile.  None of these change the board, so one fixture
+ *  serves every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardQueryBenchmark {
+
+    /** Fixture to query (see BenchmarkBoards). */
+    @Param({"sparse", "midgame", "dense", "full"})
+    public String board;
+
+    /** The fixture as a Board. */
+    private Board _board;
+    /** The fixture as a Model on each backend. */
+    private Model _tileModel, _packedModel;
+    /** Spawn tiles as Game does, and as it did before FREE_CELLS. */
+    private TileSpawner _spawner, _rejectionSpawner;
+
+    @Setup
+    public void loadFixture() {
+        int[][] values = BenchmarkBoards.named(board);
+        _board = new Board(values);
+        _tileModel = new Model(values, 0, 0, false, false);
+        _packedModel = new Model(values, 0, 0, false, true);
+        _spawner = new TileSpawner(new Random(2048), Main.TILE2_PROBABILITY);
+        _rejectionSpawner =
+            new TileSpawner(new Random(2048), Main.TILE2_PROBABILITY,
+                            TileSpawner.Sampling.REJECTION);
+    }
+
+    /** Read every square through every perspective, as tilt does. */
+    @Benchmark
+    public void perspectiveTiles(Blackhole bh) {
+        int size = _board.size();
+        for (Side side : Side.values()) {
+            _board.setViewingPerspective(side);
+            for (int col = 0; col < size; col += 1) {
+                for (int row = 0; row < size; row += 1) {
+                    bh.consume(_board.tile(col, row));
+                }
+            }
+        }
+        _board.setViewingPerspective(Side.NORTH);
+    }
+
+    @Benchmark
+    public boolean gameOverTiles() {
+        return _tileModel.gameOver();
+    }
+
+    @Benchmark
+    public boolean gameOverPacked() {
+        return _packedModel.gameOver();
+    }
+
+    /** Choose a new tile with one draw among the empty squares. */
+    @Benchmark
+    public Tile getValidNewTile() {
+        if (!Model.emptySpaceExists(_board)) {
+            return null;
+        }
+        return _spawner.getValidNewTile(_tileModel);
+    }
+
+    /** Choose a new tile by REJECTION; the retry loop grows as the board
+     *  fills. */
+    @Benchmark
+    public Tile getValidNewTileRejection() {
+        if (!Model.emptySpaceExists(_board)) {
+            return null;
+        }
+        return _rejectionSpawner.getValidNewTile(_tileModel);
+    }
+}
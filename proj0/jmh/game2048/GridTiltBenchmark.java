@@ -0,0 +1,85 @@
+package game2048;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Time per tilt of a GridBoard of each size, tilting serially and in
+ *  parallel, from which GridBoard.PARALLEL_SIZE is chosen.
+ *
+ *  Each board starts half full of tiles of random values, so that few of
+ *  them merge, and is loaded once an iteration.  As in TiltBenchmark,
+ *  successive invocations tilt toward SIDE and toward the opposite side
+ *  in turn, so that every tilt moves tiles across the board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridTiltBenchmark {
+
+    /** Number of squares on a side. */
+    @Param({"8", "16", "32", "64"})
+    public int size;
+
+    /** True to tilt the lines in parallel. */
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    /** Side to tilt toward, alternating with the opposite side. */
+    @Param({"NORTH", "EAST"})
+    public Side side;
+
+    /** The board tilted. */
+    private GridBoard _board;
+
+    /** Description of the most recent tilt. */
+    private final MoveResult _result = new MoveResult();
+
+    /** SIDE and its opposite. */
+    private Side[] _sides;
+
+    /** Number of invocations so far this iteration. */
+    private int _tilts;
+
+    @Setup(Level.Trial)
+    public void setSides() {
+        _sides = new Side[] {side, Side.opposite(side)};
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBoard() {
+        _board = new GridBoard(size, parallel ? 0 : Integer.MAX_VALUE);
+        Random random = new Random(size);
+        for (int col = 0; col < size; col += 1) {
+            for (int row = 0; row < size; row += 1) {
+                if (random.nextBoolean()) {
+                    _board.place(2 << random.nextInt(12), col, row);
+                }
+            }
+        }
+        _tilts = 0;
+    }
+
+    @Benchmark
+    public MoveResult tilt() {
+        Side s = _sides[_tilts & 1];
+        _tilts += 1;
+        _board.tilt(s, _result);
+        return _result;
+    }
+}
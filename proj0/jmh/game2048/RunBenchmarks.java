@@ -0,0 +1,29 @@
+package game2048;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Runs the game2048 benchmarks with the GC profiler, reporting ops/sec
+ *  together with allocation rate (gc.alloc.rate.norm is bytes per
+ *  operation).  ARGS, if present, is a regular expression selecting
+ *  benchmarks (default: all of them).
+ *
+ *  The benchmarks live in their own source root, proj0/jmh, and need
+ *  jmh-core and jmh-generator-annprocess on the classpath when compiled
+ *  together with proj0, so that the annotation processor can generate
+ *  the harness.
+ */
+public class RunBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "game2048\\..*Benchmark";
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,80 @@
+package game2048;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of Model.tilt along each axis, on each backend.
+ *
+ *  A board tilted twice toward the same side does not change the second
+ *  time, so successive invocations tilt toward SIDE and toward the
+ *  opposite side in turn, each moving the tiles back across the board.
+ *  The model is loaded from the fixture once an iteration, never between
+ *  invocations, so neither the timing nor the allocation reported by the
+ *  GC profiler includes building it: the packed backend should report
+ *  about 0 B/op, and the tile backend only the Tiles each move creates.
+ *  The first few tilts of an iteration merge what the fixture allows;
+ *  after that the tilts only move tiles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TiltBenchmark {
+
+    /** Fixture to tilt (see BenchmarkBoards). */
+    @Param({"sparse", "midgame", "dense"})
+    public String board;
+
+    /** Side to tilt toward, alternating with the opposite side. */
+    @Param({"NORTH", "EAST"})
+    public Side side;
+
+    /** True to use the packed BitBoard backend. */
+    @Param({"false", "true"})
+    public boolean packed;
+
+    /** The model tilted. */
+    private Model _model;
+
+    /** SIDE and its opposite. */
+    private Side[] _sides;
+
+    /** Number of invocations so far this iteration. */
+    private int _tilts;
+
+    /** Raw values of the fixture. */
+    private int[][] _values;
+
+    @Setup(Level.Trial)
+    public void loadFixture() {
+        _values = BenchmarkBoards.named(board);
+        _sides = new Side[] {side, Side.opposite(side)};
+    }
+
+    @Setup(Level.Iteration)
+    public void resetModel() {
+        _model = new Model(_values, 0, 0, false, packed);
+        _tilts = 0;
+    }
+
+    @Benchmark
+    public MoveResult tilt() {
+        Side s = _sides[_tilts & 1];
+        _tilts += 1;
+        return _model.tilt(s);
+    }
+}
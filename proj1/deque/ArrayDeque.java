@@ -0,0 +1,183 @@
+package deque;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** A Deque stored in a circular array.
+ *
+ *  The items occupy ITEMS[FIRST], ITEMS[FIRST + 1], ..., wrapping around
+ *  the end of the array, whose length is always a power of two so that
+ *  positions wrap with a mask.  The array doubles when full and halves
+ *  when less than a quarter full (down to INITIAL_CAPACITY), so adding and
+ *  removing take amortized constant time and the array is never more than
+ *  four times as large as needed.  get(I) takes constant time.
+ */
+public class ArrayDeque<T> implements Deque<T> {
+
+    /** Length of the array of an empty deque. */
+    static final int INITIAL_CAPACITY = 8;
+
+    /** An empty deque. */
+    public ArrayDeque() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /** An empty deque with room for CAPACITY items before it must
+     *  grow. */
+    @SuppressWarnings("unchecked")
+    public ArrayDeque(int capacity) {
+        items = (T[]) new Object[capacityFor(capacity)];
+    }
+
+    @Override
+    public void addFirst(T item) {
+        if (size == items.length) {
+            resize(2 * items.length);
+        }
+        first = (first - 1) & (items.length - 1);
+        items[first] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    @Override
+    public void addLast(T item) {
+        if (size == items.length) {
+            resize(2 * items.length);
+        }
+        items[(first + size) & (items.length - 1)] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        T item = items[first];
+        items[first] = null;
+        first = (first + 1) & (items.length - 1);
+        size -= 1;
+        modCount += 1;
+        shrinkIfSparse();
+        return item;
+    }
+
+    @Override
+    public T removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        int last = (first + size - 1) & (items.length - 1);
+        T item = items[last];
+        items[last] = null;
+        size -= 1;
+        modCount += 1;
+        shrinkIfSparse();
+        return item;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return items[(first + index) & (items.length - 1)];
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return k < size;
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (k >= size) {
+                    throw new NoSuchElementException();
+                }
+                T item = items[(first + k) & (items.length - 1)];
+                k += 1;
+                return item;
+            }
+
+            /** Position of the next item. */
+            private int k;
+            /** Value of modCount when iteration started. */
+            private final int expectedModCount = modCount;
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return Deques.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Deques.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return Deques.toString(this);
+    }
+
+    /** Return the length of the array that holds the items. */
+    int capacity() {
+        return items.length;
+    }
+
+    /** Return the smallest power of two that is at least CAPACITY and at
+     *  least INITIAL_CAPACITY. */
+    static int capacityFor(int capacity) {
+        if (capacity <= INITIAL_CAPACITY) {
+            return INITIAL_CAPACITY;
+        }
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity too large: "
+                                               + capacity);
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /** Halve the array if it is less than a quarter full. */
+    private void shrinkIfSparse() {
+        if (items.length > INITIAL_CAPACITY && size < items.length / 4) {
+            resize(items.length / 2);
+        }
+    }
+
+    /** Move the items to a new array of length CAPACITY, a power of two
+     *  no less than size, starting at position 0. */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        T[] resized = (T[]) new Object[capacity];
+        int head = Math.min(size, items.length - first);
+        System.arraycopy(items, first, resized, 0, head);
+        System.arraycopy(items, 0, resized, head, size - head);
+        items = resized;
+        first = 0;
+    }
+
+    /** The items, in circular order from FIRST. */
+    private T[] items;
+    /** Position of the first item in ITEMS. */
+    private int first;
+    /** Number of items. */
+    private int size;
+    /** Number of changes made, to detect changes during iteration. */
+    private int modCount;
+}
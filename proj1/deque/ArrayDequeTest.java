@@ -0,0 +1,108 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** Tests of ArrayDeque, chiefly against java.util.ArrayDeque. */
+public class ArrayDequeTest {
+
+    @Test
+    /* Items come out in the order they went in, across wraparound. */
+    public void orderTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        for (int i = 0; i < 5; i += 1) {
+            ad.addLast(i);
+        }
+        for (int i = 1; i <= 5; i += 1) {
+            ad.addFirst(-i);
+        }
+        assertEquals(10, ad.size());
+        for (int i = 0; i < 10; i += 1) {
+            assertEquals(Integer.valueOf(i - 5), ad.get(i));
+        }
+        assertNull(ad.get(-1));
+        assertNull(ad.get(10));
+        assertEquals(Integer.valueOf(-5), ad.removeFirst());
+        assertEquals(Integer.valueOf(4), ad.removeLast());
+        assertEquals("[-4, -3, -2, -1, 0, 1, 2, 3]", ad.toString());
+    }
+
+    @Test
+    /* Removing from an empty deque returns null. */
+    public void emptyNullReturnTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        assertNull(ad.removeFirst());
+        assertNull(ad.removeLast());
+        assertTrue(ad.isEmpty());
+    }
+
+    @Test
+    /* Random operations agree with java.util.ArrayDeque. */
+    public void randomizedTest() {
+        Random random = new Random(61);
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        for (int k = 0; k < 100000; k += 1) {
+            int op = random.nextInt(5);
+            if (op == 0) {
+                ad.addFirst(k);
+                expected.addFirst(k);
+            } else if (op == 1) {
+                ad.addLast(k);
+                expected.addLast(k);
+            } else if (op == 2) {
+                assertEquals(expected.pollFirst(), ad.removeFirst());
+            } else if (op == 3) {
+                assertEquals(expected.pollLast(), ad.removeLast());
+            } else if (!expected.isEmpty()) {
+                assertEquals(expected.peekFirst(), ad.get(0));
+                assertEquals(expected.peekLast(), ad.get(ad.size() - 1));
+            }
+            assertEquals(expected.size(), ad.size());
+        }
+        Iterator<Integer> it = expected.iterator();
+        for (int item : ad) {
+            assertEquals(it.next(), Integer.valueOf(item));
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    /* The array grows to hold a million items and shrinks as they are
+     * removed, staying at least a quarter full. */
+    public void resizeTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        for (int i = 0; i < 1000000; i += 1) {
+            ad.addLast(i);
+        }
+        assertEquals(1 << 20, ad.capacity());
+        for (int i = 0; i < 999990; i += 1) {
+            assertEquals(Integer.valueOf(i), ad.removeFirst());
+            assertTrue(ad.capacity() <= Math.max(ArrayDeque.INITIAL_CAPACITY,
+                                                 4 * ad.size()));
+        }
+        assertEquals(32, ad.capacity());
+    }
+
+    @Test
+    /* Deques holding the same items in order are equal, whatever their
+     * classes. */
+    public void equalsTest() {
+        ArrayDeque<String> ad = new ArrayDeque<>();
+        LinkedListDeque<String> lld = new LinkedListDeque<>();
+        for (String s : new String[] {"a", "b", null, "c"}) {
+            ad.addLast(s);
+            lld.addLast(s);
+        }
+        assertEquals(ad, lld);
+        assertEquals(lld, ad);
+        assertEquals(ad.hashCode(), lld.hashCode());
+        lld.removeLast();
+        assertNotEquals(ad, lld);
+        assertNotEquals(ad, "a b null c");
+    }
+}
@@ -0,0 +1,236 @@
+package deque;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** A Deque stored in fixed-size blocks, for very large numbers of items.
+ *
+ *  The deque is a circular array of CAPACITY = BLOCKS.length * BLOCK_SIZE
+ *  virtual positions, of which the items occupy START, START + 1, ...,
+ *  wrapping around.  Position P lives in block P / BLOCK_SIZE at offset
+ *  P % BLOCK_SIZE, so get(I) is two shifts and two array reads.  Blocks
+ *  are allocated as items reach them and released as the last item
+ *  leaves, so memory per item is one reference plus 1 / BLOCK_SIZE of a
+ *  block's header and of a slot in BLOCKS, as in a plain array but
+ *  without its unused half.
+ *
+ *  When every position is full, BLOCKS doubles in length.  That copies
+ *  only the references to the blocks, plus, if the first and last items
+ *  share a block, the fewer than BLOCK_SIZE items at the back of it,
+ *  where ArrayDeque copies every item.  One emptied block is kept in
+ *  reserve, so that items going back and forth across a block boundary do
+ *  not allocate a block each time.
+ */
+public class ChunkedDeque<T> implements Deque<T> {
+
+    /** Log base 2 of BLOCK_SIZE. */
+    static final int BLOCK_SHIFT = 6;
+    /** Number of items in a block. */
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    /** Mask giving a position's offset within its block. */
+    private static final int OFFSET_MASK = BLOCK_SIZE - 1;
+    /** Length of BLOCKS in an empty deque. */
+    static final int INITIAL_BLOCKS = 4;
+
+    /** An empty deque. */
+    public ChunkedDeque() {
+        blocks = new Object[INITIAL_BLOCKS][];
+    }
+
+    @Override
+    public void addFirst(T item) {
+        if (size == capacity()) {
+            grow();
+        }
+        start = (start - 1) & (capacity() - 1);
+        block(start)[start & OFFSET_MASK] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    @Override
+    public void addLast(T item) {
+        if (size == capacity()) {
+            grow();
+        }
+        int pos = (start + size) & (capacity() - 1);
+        block(pos)[pos & OFFSET_MASK] = item;
+        size += 1;
+        modCount += 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T removeFirst() {
+        if (size == 0) {
+            return null;
+        }
+        int pos = start;
+        T item = take(pos);
+        start = (start + 1) & (capacity() - 1);
+        size -= 1;
+        modCount += 1;
+        releaseIfEmpty(pos >>> BLOCK_SHIFT);
+        return item;
+    }
+
+    @Override
+    public T removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        int pos = (start + size - 1) & (capacity() - 1);
+        T item = take(pos);
+        size -= 1;
+        modCount += 1;
+        releaseIfEmpty(pos >>> BLOCK_SHIFT);
+        return item;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        int pos = (start + index) & (capacity() - 1);
+        return (T) blocks[pos >>> BLOCK_SHIFT][pos & OFFSET_MASK];
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return k < size;
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (k >= size) {
+                    throw new NoSuchElementException();
+                }
+                T item = get(k);
+                k += 1;
+                return item;
+            }
+
+            /** Position of the next item. */
+            private int k;
+            /** Value of modCount when iteration started. */
+            private final int expectedModCount = modCount;
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return Deques.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Deques.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return Deques.toString(this);
+    }
+
+    /** Return the number of blocks holding items. */
+    int allocatedBlocks() {
+        int n = 0;
+        for (Object[] block : blocks) {
+            n += block == null ? 0 : 1;
+        }
+        return n;
+    }
+
+    /** Return the number of virtual positions. */
+    int capacity() {
+        return blocks.length << BLOCK_SHIFT;
+    }
+
+    /** Return the block holding position POS, allocating it if need
+     *  be. */
+    private Object[] block(int pos) {
+        int b = pos >>> BLOCK_SHIFT;
+        if (blocks[b] == null) {
+            blocks[b] = newBlock();
+        }
+        return blocks[b];
+    }
+
+    /** Return an empty block, the reserve one if there is one. */
+    private Object[] newBlock() {
+        Object[] block = spare;
+        spare = null;
+        return block != null ? block : new Object[BLOCK_SIZE];
+    }
+
+    /** Remove and return the item at position POS. */
+    @SuppressWarnings("unchecked")
+    private T take(int pos) {
+        Object[] block = blocks[pos >>> BLOCK_SHIFT];
+        T item = (T) block[pos & OFFSET_MASK];
+        block[pos & OFFSET_MASK] = null;
+        return item;
+    }
+
+    /** Release block number B if it holds no items, keeping it in reserve
+     *  if there is none. */
+    private void releaseIfEmpty(int b) {
+        int capacity = capacity();
+        int rel = ((b << BLOCK_SHIFT) - start) & (capacity - 1);
+        boolean holdsStart = rel > capacity - BLOCK_SIZE;
+        if (size > 0 && (rel < size || holdsStart)) {
+            return;
+        }
+        if (spare == null) {
+            spare = blocks[b];
+        }
+        blocks[b] = null;
+    }
+
+    /** Double the number of blocks, which must all be full, moving them
+     *  so that the first item is in block 0. */
+    private void grow() {
+        int n = blocks.length;
+        Object[][] grown = new Object[2 * n][];
+        int first = start >>> BLOCK_SHIFT;
+        for (int k = 0; k < n; k += 1) {
+            grown[k] = blocks[(first + k) & (n - 1)];
+        }
+        int offset = start & OFFSET_MASK;
+        if (offset != 0) {
+            Object[] shared = grown[0];
+            Object[] back = newBlock();
+            System.arraycopy(shared, 0, back, 0, offset);
+            for (int k = 0; k < offset; k += 1) {
+                shared[k] = null;
+            }
+            grown[n] = back;
+        }
+        blocks = grown;
+        start = offset;
+    }
+
+    /** The blocks, null where no items are. */
+    private Object[][] blocks;
+    /** Position of the first item. */
+    private int start;
+    /** Number of items. */
+    private int size;
+    /** An empty block kept for reuse, or null. */
+    private Object[] spare;
+    /** Number of changes made, to detect changes during iteration. */
+    private int modCount;
+}
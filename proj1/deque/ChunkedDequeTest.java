@@ -0,0 +1,100 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** Tests of ChunkedDeque. */
+public class ChunkedDequeTest {
+
+    @Test
+    /* Random operations, biased to grow and then to shrink, agree with
+     * java.util.ArrayDeque, and blocks are released as they empty. */
+    public void randomizedTest() {
+        Random random = new Random(61);
+        ChunkedDeque<Integer> cd = new ChunkedDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        for (int k = 0; k < 200000; k += 1) {
+            boolean growing = (k / 50000) % 2 == 0;
+            int op = random.nextInt(growing ? 6 : 4);
+            if (op == 0 || op >= 4) {
+                cd.addFirst(k);
+                expected.addFirst(k);
+            } else if (op == 1) {
+                cd.addLast(k);
+                expected.addLast(k);
+            } else if (op == 2) {
+                assertEquals(expected.pollFirst(), cd.removeFirst());
+            } else {
+                assertEquals(expected.pollLast(), cd.removeLast());
+            }
+            assertEquals(expected.size(), cd.size());
+            assertTrue(cd.allocatedBlocks()
+                       <= cd.size() / ChunkedDeque.BLOCK_SIZE + 3);
+            if (k % 997 == 0) {
+                Integer[] contents = expected.toArray(new Integer[0]);
+                for (int i = 0; i < contents.length; i += 1) {
+                    assertEquals(contents[i], cd.get(i));
+                }
+                assertNull(cd.get(contents.length));
+            }
+        }
+    }
+
+    @Test
+    /* Growing when the first and last items share a block keeps them in
+     * order. */
+    public void wrappedGrowTest() {
+        ChunkedDeque<Integer> cd = new ChunkedDeque<>();
+        int capacity = cd.capacity();
+        for (int i = 0; i < 10; i += 1) {
+            cd.addFirst(-1 - i);
+        }
+        for (int i = 0; i < capacity - 10; i += 1) {
+            cd.addLast(i);
+        }
+        assertEquals(capacity, cd.capacity());
+        cd.addLast(capacity - 10);
+        assertEquals(2 * capacity, cd.capacity());
+        int expected = -10;
+        for (int item : cd) {
+            assertEquals(expected, item);
+            expected += 1;
+        }
+        assertEquals(capacity - 9, expected);
+    }
+
+    @Test
+    /* The bigLLDeque scenario of LinkedListDequeTest. */
+    public void bigDequeTest() {
+        ChunkedDeque<Integer> cd = new ChunkedDeque<>();
+        for (int i = 0; i < 1000000; i += 1) {
+            cd.addLast(i);
+        }
+        assertEquals(Integer.valueOf(123456), cd.get(123456));
+        for (int i = 0; i < 500000; i += 1) {
+            assertEquals(Integer.valueOf(i), cd.removeFirst());
+        }
+        for (int i = 999999; i >= 500000; i -= 1) {
+            assertEquals(Integer.valueOf(i), cd.removeLast());
+        }
+        assertTrue(cd.isEmpty());
+        assertNull(cd.removeFirst());
+        assertEquals(0, cd.allocatedBlocks());
+    }
+
+    @Test
+    /* A ChunkedDeque equals other deques with the same items. */
+    public void equalsTest() {
+        ChunkedDeque<Integer> cd = new ChunkedDeque<>();
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        for (int i = 0; i < 300; i += 1) {
+            cd.addLast(i);
+            ad.addLast(i);
+        }
+        assertEquals(cd, ad);
+        assertEquals(ad.hashCode(), cd.hashCode());
+    }
+}
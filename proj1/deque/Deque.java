@@ -0,0 +1,50 @@
+package deque;
+
+/** A double-ended queue: a sequence of items that can be added and
+ *  removed at either end, and read at any position.
+ *
+ *  Removing from an empty deque, or getting an item at a position outside
+ *  it, returns null rather than throwing.  Two deques are equal iff they
+ *  hold equal items in the same order, whatever their classes.
+ */
+public interface Deque<T> extends Iterable<T> {
+
+    /** Add ITEM to the front of this deque. */
+    void addFirst(T item);
+
+    /** Add ITEM to the back of this deque. */
+    void addLast(T item);
+
+    /** Return true iff this deque holds no items. */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Return the number of items in this deque. */
+    int size();
+
+    /** Print the items in this deque from front to back, separated by
+     *  spaces, followed by a newline. */
+    default void printDeque() {
+        StringBuilder line = new StringBuilder();
+        for (T item : this) {
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(item);
+        }
+        System.out.println(line);
+    }
+
+    /** Remove and return the item at the front of this deque, or return
+     *  null if it is empty. */
+    T removeFirst();
+
+    /** Remove and return the item at the back of this deque, or return
+     *  null if it is empty. */
+    T removeLast();
+
+    /** Return the item at position INDEX, where 0 is the front, or null
+     *  if there is no such item. */
+    T get(int index);
+}
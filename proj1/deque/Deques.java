@@ -0,0 +1,52 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/** The equals, hashCode, and toString shared by Deque implementations. */
+final class Deques {
+
+    /** Not instantiable. */
+    private Deques() {
+    }
+
+    /** Return true iff O is a Deque holding the same items as D in the same
+     *  order. */
+    static boolean equals(Deque<?> d, Object o) {
+        if (d == o) {
+            return true;
+        }
+        if (!(o instanceof Deque<?> other) || other.size() != d.size()) {
+            return false;
+        }
+        Iterator<?> i = d.iterator(), j = other.iterator();
+        while (i.hasNext()) {
+            if (!Objects.equals(i.next(), j.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Return a hash code of D consistent with equals, computed as
+     *  java.util.List computes it. */
+    static int hashCode(Deque<?> d) {
+        int h = 1;
+        for (Object item : d) {
+            h = 31 * h + Objects.hashCode(item);
+        }
+        return h;
+    }
+
+    /** Return the items of D as "[A, B, ...]". */
+    static String toString(Deque<?> d) {
+        StringBuilder out = new StringBuilder("[");
+        for (Object item : d) {
+            if (out.length() > 1) {
+                out.append(", ");
+            }
+            out.append(item);
+        }
+        return out.append(']').toString();
+    }
+}
@@ -0,0 +1,188 @@
+package deque;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/** A deque of doubles stored in a circular array, as in ArrayDeque, but
+ *  without boxing: no operation allocates except when the array grows or
+ *  shrinks.
+ *
+ *  It offers the operations of Deque on unboxed doubles.  Because there
+ *  is no null double, removing from an empty deque throws
+ *  NoSuchElementException, and getting a position outside it throws
+ *  IndexOutOfBoundsException.
+ */
+public class DoubleArrayDeque {
+
+    /** An empty deque. */
+    public DoubleArrayDeque() {
+        this(ArrayDeque.INITIAL_CAPACITY);
+    }
+
+    /** An empty deque with room for CAPACITY items before it must
+     *  grow. */
+    public DoubleArrayDeque(int capacity) {
+        items = new double[ArrayDeque.capacityFor(capacity)];
+    }
+
+    /** Add ITEM to the front of this deque. */
+    public void addFirst(double item) {
+        if (size == items.length) {
+            resize(2 * items.length);
+        }
+        first = (first - 1) & (items.length - 1);
+        items[first] = item;
+        size += 1;
+    }
+
+    /** Add ITEM to the back of this deque. */
+    public void addLast(double item) {
+        if (size == items.length) {
+            resize(2 * items.length);
+        }
+        items[(first + size) & (items.length - 1)] = item;
+        size += 1;
+    }
+
+    /** Return true iff this deque holds no items. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Return the number of items in this deque. */
+    public int size() {
+        return size;
+    }
+
+    /** Print the items in this deque from front to back, separated by
+     *  spaces, followed by a newline. */
+    public void printDeque() {
+        StringBuilder line = new StringBuilder();
+        for (int k = 0; k < size; k += 1) {
+            if (k > 0) {
+                line.append(' ');
+            }
+            line.append(get(k));
+        }
+        System.out.println(line);
+    }
+
+    /** Remove and return the item at the front of this deque, which must
+     *  not be empty. */
+    public double removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        double item = items[first];
+        first = (first + 1) & (items.length - 1);
+        size -= 1;
+        shrinkIfSparse();
+        return item;
+    }
+
+    /** Remove and return the item at the back of this deque, which must
+     *  not be empty. */
+    public double removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+        double item = items[(first + size - 1) & (items.length - 1)];
+        size -= 1;
+        shrinkIfSparse();
+        return item;
+    }
+
+    /** Return the item at position INDEX, where 0 is the front. */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return items[(first + index) & (items.length - 1)];
+    }
+
+    /** Return an iterator over the items from front to back. */
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            @Override
+            public boolean hasNext() {
+                return k < size;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (k >= size) {
+                    throw new NoSuchElementException();
+                }
+                double item = items[(first + k) & (items.length - 1)];
+                k += 1;
+                return item;
+            }
+
+            /** Position of the next item. */
+            private int k;
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DoubleArrayDeque other) || other.size != size) {
+            return false;
+        }
+        for (int k = 0; k < size; k += 1) {
+            if (Double.compare(get(k), other.get(k)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int k = 0; k < size; k += 1) {
+            h = 31 * h + Double.hashCode(get(k));
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        double[] contents = new double[size];
+        for (int k = 0; k < size; k += 1) {
+            contents[k] = get(k);
+        }
+        return Arrays.toString(contents);
+    }
+
+    /** Return the length of the array that holds the items. */
+    int capacity() {
+        return items.length;
+    }
+
+    /** Halve the array if it is less than a quarter full. */
+    private void shrinkIfSparse() {
+        if (items.length > ArrayDeque.INITIAL_CAPACITY
+            && size < items.length / 4) {
+            resize(items.length / 2);
+        }
+    }
+
+    /** Move the items to a new array of length CAPACITY, a power of two
+     *  no less than size, starting at position 0. */
+    private void resize(int capacity) {
+        double[] resized = new double[capacity];
+        int head = Math.min(size, items.length - first);
+        System.arraycopy(items, first, resized, 0, head);
+        System.arraycopy(items, 0, resized, head, size - head);
+        items = resized;
+        first = 0;
+    }
+
+    /** The items, in circular order from FIRST. */
+    private double[] items;
+    /** Position of the first item in ITEMS. */
+    private int first;
+    /** Number of items. */
+    private int size;
+}
@@ -0,0 +1,76 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** Tests of DoubleArrayDeque. */
+public class DoubleArrayDequeTest {
+
+    @Test
+    /* Random operations agree with an ArrayDeque of boxed Doubles. */
+    public void randomizedTest() {
+        Random random = new Random(2048);
+        DoubleArrayDeque dd = new DoubleArrayDeque();
+        ArrayDeque<Double> expected = new ArrayDeque<>();
+        for (int k = 0; k < 100000; k += 1) {
+            int op = random.nextInt(4);
+            double x = random.nextGaussian();
+            if (op == 0) {
+                dd.addFirst(x);
+                expected.addFirst(x);
+            } else if (op == 1) {
+                dd.addLast(x);
+                expected.addLast(x);
+            } else if (expected.isEmpty()) {
+                assertTrue(dd.isEmpty());
+            } else if (op == 2) {
+                assertEquals(expected.removeFirst(), dd.removeFirst(), 0.0);
+            } else {
+                assertEquals(expected.removeLast(), dd.removeLast(), 0.0);
+            }
+            assertEquals(expected.size(), dd.size());
+        }
+        PrimitiveIterator.OfDouble it = dd.iterator();
+        for (int i = 0; i < expected.size(); i += 1) {
+            assertEquals(expected.get(i), dd.get(i), 0.0);
+            assertEquals(expected.get(i), it.nextDouble(), 0.0);
+        }
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    /* Removing from an empty deque throws. */
+    public void removeEmptyTest() {
+        new DoubleArrayDeque().removeLast();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    /* Getting outside the deque throws. */
+    public void getOutsideTest() {
+        DoubleArrayDeque dd = new DoubleArrayDeque();
+        dd.addFirst(1.0);
+        dd.get(1);
+    }
+
+    @Test
+    /* A deque kept at a fixed size, as GuitarString keeps its buffer,
+     * never resizes. */
+    public void fixedSizeTest() {
+        DoubleArrayDeque dd = new DoubleArrayDeque(100);
+        for (int i = 0; i < 100; i += 1) {
+            dd.addLast(i);
+        }
+        int capacity = dd.capacity();
+        assertEquals(128, capacity);
+        for (int i = 0; i < 10000; i += 1) {
+            dd.addLast(dd.removeFirst() + dd.get(0));
+            assertEquals(capacity, dd.capacity());
+        }
+        assertEquals(100, dd.size());
+    }
+}
@@ -0,0 +1,147 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/** A Deque stored as a circular doubly-linked list of nodes around a
+ *  sentinel.  Adding and removing at either end take constant time;
+ *  get(I) walks from whichever end is nearer.
+ */
+public class LinkedListDeque<T> implements Deque<T> {
+
+    /** An empty deque. */
+    public LinkedListDeque() {
+        sentinel = new Node<>(null, null, null);
+        sentinel.prev = sentinel.next = sentinel;
+    }
+
+    @Override
+    public void addFirst(T item) {
+        Node<T> node = new Node<>(item, sentinel, sentinel.next);
+        sentinel.next.prev = node;
+        sentinel.next = node;
+        size += 1;
+    }
+
+    @Override
+    public void addLast(T item) {
+        Node<T> node = new Node<>(item, sentinel.prev, sentinel);
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+        size += 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T removeFirst() {
+        return size == 0 ? null : unlink(sentinel.next);
+    }
+
+    @Override
+    public T removeLast() {
+        return size == 0 ? null : unlink(sentinel.prev);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        Node<T> p;
+        if (index < size / 2) {
+            p = sentinel.next;
+            for (int k = 0; k < index; k += 1) {
+                p = p.next;
+            }
+        } else {
+            p = sentinel.prev;
+            for (int k = size - 1; k > index; k -= 1) {
+                p = p.prev;
+            }
+        }
+        return p.item;
+    }
+
+    /** Same as get(INDEX), but found recursively from the front. */
+    public T getRecursive(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return getRecursive(sentinel.next, index);
+    }
+
+    /** Return the item INDEX nodes after P. */
+    private T getRecursive(Node<T> p, int index) {
+        return index == 0 ? p.item : getRecursive(p.next, index - 1);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return p != sentinel;
+            }
+
+            @Override
+            public T next() {
+                if (p == sentinel) {
+                    throw new NoSuchElementException();
+                }
+                T item = p.item;
+                p = p.next;
+                return item;
+            }
+
+            /** The node of the next item. */
+            private Node<T> p = sentinel.next;
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return Deques.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Deques.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return Deques.toString(this);
+    }
+
+    /** Remove NODE from the list and return its item. */
+    private T unlink(Node<T> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        size -= 1;
+        return node.item;
+    }
+
+    /** One item of the list and its neighbors. */
+    private static class Node<T> {
+        /** A node holding ITEM between PREV and NEXT. */
+        Node(T item, Node<T> prev, Node<T> next) {
+            this.item = item;
+            this.prev = prev;
+            this.next = next;
+        }
+
+        /** The item. */
+        final T item;
+        /** The neighboring nodes. */
+        Node<T> prev, next;
+    }
+
+    /** The node before the first and after the last. */
+    private final Node<T> sentinel;
+    /** Number of items. */
+    private int size;
+}
@@ -0,0 +1,257 @@
+package deque;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** A thread-safe Deque, for sharing between threads that work at
+ *  opposite ends, such as a producer adding at the back while a consumer
+ *  removes from the front.
+ *
+ *  The items form a doubly-linked list between two sentinels, and each
+ *  end has its own lock, so that operations at opposite ends of a deque
+ *  of two or more items proceed in parallel: they change disjoint fields
+ *  of the nodes.  When the deque is shorter than that, an operation takes
+ *  both locks, front first.  Operations at the same end are serialized by
+ *  that end's lock.
+ *
+ *  To let each end decide without the other's lock whether the deque is
+ *  long enough, COUNT never exceeds the number of items that no operation
+ *  in progress could touch: a removal decrements it before unlinking its
+ *  node, and an addition increments it only after linking its node.  Two
+ *  removals at opposite ends thus both take the one-lock path only if
+ *  there were at least three items, so that they unlink different nodes
+ *  and only one of them writes the middle node's link toward each end;
+ *  an addition opposite a removal does so only if there were at least
+ *  two, so that the node it links beside is not the one removed.
+ *
+ *  Every operation is linearizable.  size() reads COUNT, which may lag an
+ *  addition in progress.  get(I) and iteration take both locks, so they
+ *  take time proportional to the size and iterators see a snapshot.
+ */
+public class TwoLockDeque<T> implements Deque<T> {
+
+    /** Smallest COUNT at which an operation needs only its own end's
+     *  lock. */
+    static final int ONE_LOCK_SIZE = 2;
+
+    /** An empty deque. */
+    public TwoLockDeque() {
+        head.next = tail;
+        tail.prev = head;
+    }
+
+    @Override
+    public void addFirst(T item) {
+        frontLock.lock();
+        try {
+            if (count.get() >= ONE_LOCK_SIZE) {
+                linkFirst(item);
+                count.incrementAndGet();
+                return;
+            }
+        } finally {
+            frontLock.unlock();
+        }
+        lockBoth();
+        try {
+            linkFirst(item);
+            count.incrementAndGet();
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public void addLast(T item) {
+        backLock.lock();
+        try {
+            if (count.get() >= ONE_LOCK_SIZE) {
+                linkLast(item);
+                count.incrementAndGet();
+                return;
+            }
+        } finally {
+            backLock.unlock();
+        }
+        lockBoth();
+        try {
+            linkLast(item);
+            count.incrementAndGet();
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public int size() {
+        return count.get();
+    }
+
+    @Override
+    public T removeFirst() {
+        frontLock.lock();
+        try {
+            if (reserve()) {
+                return unlink(head.next);
+            }
+        } finally {
+            frontLock.unlock();
+        }
+        lockBoth();
+        try {
+            if (head.next == tail) {
+                return null;
+            }
+            count.decrementAndGet();
+            return unlink(head.next);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public T removeLast() {
+        backLock.lock();
+        try {
+            if (reserve()) {
+                return unlink(tail.prev);
+            }
+        } finally {
+            backLock.unlock();
+        }
+        lockBoth();
+        try {
+            if (tail.prev == head) {
+                return null;
+            }
+            count.decrementAndGet();
+            return unlink(tail.prev);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        lockBoth();
+        try {
+            if (index < 0 || index >= count.get()) {
+                return null;
+            }
+            Node<T> p = head.next;
+            for (int k = 0; k < index; k += 1) {
+                p = p.next;
+            }
+            return p.item;
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /** Return an iterator over a snapshot of the items, taken
+     *  atomically. */
+    @Override
+    public Iterator<T> iterator() {
+        ArrayList<T> snapshot = new ArrayList<>();
+        lockBoth();
+        try {
+            for (Node<T> p = head.next; p != tail; p = p.next) {
+                snapshot.add(p.item);
+            }
+        } finally {
+            unlockBoth();
+        }
+        return snapshot.iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return Deques.equals(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Deques.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return Deques.toString(this);
+    }
+
+    /** Decrement COUNT, reserving an item for removal by the caller, if it
+     *  is at least ONE_LOCK_SIZE.  Returns true iff it did. */
+    private boolean reserve() {
+        while (true) {
+            int n = count.get();
+            if (n < ONE_LOCK_SIZE) {
+                return false;
+            }
+            if (count.compareAndSet(n, n - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Link a node holding ITEM after HEAD. */
+    private void linkFirst(T item) {
+        Node<T> first = head.next;
+        Node<T> node = new Node<>(item, head, first);
+        first.prev = node;
+        head.next = node;
+    }
+
+    /** Link a node holding ITEM before TAIL. */
+    private void linkLast(T item) {
+        Node<T> last = tail.prev;
+        Node<T> node = new Node<>(item, last, tail);
+        last.next = node;
+        tail.prev = node;
+    }
+
+    /** Remove NODE from the list and return its item. */
+    private T unlink(Node<T> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        return node.item;
+    }
+
+    /** Acquire both locks, front first. */
+    private void lockBoth() {
+        frontLock.lock();
+        backLock.lock();
+    }
+
+    /** Release both locks. */
+    private void unlockBoth() {
+        backLock.unlock();
+        frontLock.unlock();
+    }
+
+    /** One item of the list and its neighbors. */
+    private static class Node<T> {
+        /** A node holding ITEM between PREV and NEXT. */
+        Node(T item, Node<T> prev, Node<T> next) {
+            this.item = item;
+            this.prev = prev;
+            this.next = next;
+        }
+
+        /** The item. */
+        final T item;
+        /** The neighboring nodes. */
+        Node<T> prev, next;
+    }
+
+    /** The sentinels before the first node and after the last. */
+    private final Node<T> head = new Node<>(null, null, null),
+        tail = new Node<>(null, null, null);
+    /** Guard the nodes at the front and at the back of the list,
+     *  respectively. */
+    private final ReentrantLock frontLock = new ReentrantLock(),
+        backLock = new ReentrantLock();
+    /** A lower bound on the number of items, as described above. */
+    private final AtomicInteger count = new AtomicInteger();
+}
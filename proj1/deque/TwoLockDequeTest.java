@@ -0,0 +1,296 @@
+package deque;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/** Tests of TwoLockDeque: the scenarios of LinkedListDequeTest, run first
+ *  on one thread and then split between threads at opposite ends, and a
+ *  check that small concurrent histories are linearizable. */
+public class TwoLockDequeTest {
+
+    @Test
+    /* The addIsEmptySize and addRemove scenarios. */
+    public void addIsEmptySizeTest() {
+        TwoLockDeque<String> d = new TwoLockDeque<>();
+        assertTrue(d.isEmpty());
+        d.addFirst("front");
+        d.addLast("middle");
+        d.addLast("back");
+        assertEquals(3, d.size());
+        assertEquals("[front, middle, back]", d.toString());
+        assertEquals("middle", d.get(1));
+        assertNull(d.get(3));
+        assertEquals("front", d.removeFirst());
+        assertEquals("back", d.removeLast());
+        assertEquals("middle", d.removeFirst());
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    /* The removeEmpty and emptyNullReturn scenarios. */
+    public void removeEmptyTest() {
+        TwoLockDeque<Integer> d = new TwoLockDeque<>();
+        d.addFirst(3);
+        assertEquals(Integer.valueOf(3), d.removeLast());
+        assertNull(d.removeFirst());
+        assertNull(d.removeLast());
+        assertEquals(0, d.size());
+    }
+
+    @Test
+    /* The bigLLDeque scenario. */
+    public void bigDequeTest() {
+        TwoLockDeque<Integer> d = new TwoLockDeque<>();
+        for (int i = 0; i < 1000000; i += 1) {
+            d.addLast(i);
+        }
+        for (int i = 0; i < 500000; i += 1) {
+            assertEquals(Integer.valueOf(i), d.removeFirst());
+        }
+        for (int i = 999999; i >= 500000; i -= 1) {
+            assertEquals(Integer.valueOf(i), d.removeLast());
+        }
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    /* The bigLLDeque scenario as a queue between two threads: a producer
+     * adds at the back while a consumer removes from the front, which
+     * must see every item once, in order. */
+    public void producerConsumerTest() throws Exception {
+        int n = 1000000;
+        TwoLockDeque<Integer> d = new TwoLockDeque<>();
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < n; i += 1) {
+                d.addLast(i);
+            }
+        });
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread consumer = new Thread(() -> {
+            int expected = 0;
+            while (expected < n) {
+                Integer item = d.removeFirst();
+                if (item == null) {
+                    Thread.yield();
+                } else if (item != expected) {
+                    failure.set("expected " + expected + ", got " + item);
+                    return;
+                } else {
+                    expected += 1;
+                }
+            }
+        });
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+        assertNull(failure.get());
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    /* Two threads each use one end as a stack, pushing and popping runs
+     * of items, so that the deque often shrinks to nothing between them.
+     * Every item pushed must be popped exactly once. */
+    public void twoStacksTest() throws Exception {
+        TwoLockDeque<Integer> d = new TwoLockDeque<>();
+        int rounds = 20000;
+        int[] pushed = new int[2];
+        List<List<Integer>> popped = List.of(new ArrayList<>(),
+                                             new ArrayList<>());
+        Thread[] threads = new Thread[2];
+        for (int t = 0; t < 2; t += 1) {
+            int me = t;
+            Random random = new Random(t);
+            threads[t] = new Thread(() -> {
+                for (int r = 0; r < rounds; r += 1) {
+                    for (int k = random.nextInt(4); k > 0; k -= 1) {
+                        int item = 2 * pushed[me] + me;
+                        pushed[me] += 1;
+                        if (me == 0) {
+                            d.addFirst(item);
+                        } else {
+                            d.addLast(item);
+                        }
+                    }
+                    for (int k = random.nextInt(4); k > 0; k -= 1) {
+                        Integer item = me == 0 ? d.removeFirst()
+                            : d.removeLast();
+                        if (item != null) {
+                            popped.get(me).add(item);
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        List<Integer> all = new ArrayList<>(popped.get(0));
+        all.addAll(popped.get(1));
+        for (Integer item = d.removeFirst(); item != null;
+             item = d.removeFirst()) {
+            all.add(item);
+        }
+        assertEquals(pushed[0] + pushed[1], all.size());
+        boolean[] seen =
+            new boolean[2 * Math.max(pushed[0], pushed[1]) + 2];
+        for (int item : all) {
+            assertFalse("popped twice: " + item, seen[item]);
+            seen[item] = true;
+        }
+    }
+
+    @Test
+    /* Histories of two threads, each making three random operations on a
+     * deque of zero to four items, have a sequential order, consistent
+     * with the real-time order of the operations, that produces the same
+     * results on an ArrayDeque. */
+    public void linearizabilityTest() throws Exception {
+        Random random = new Random(61);
+        int threads = 2, ops = 3;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        for (int trial = 0; trial < 5000; trial += 1) {
+            TwoLockDeque<Integer> d = new TwoLockDeque<>();
+            ArrayDeque<Integer> initial = new ArrayDeque<>();
+            for (int k = random.nextInt(5); k > 0; k -= 1) {
+                d.addLast(100 + k);
+                initial.addLast(100 + k);
+            }
+            Op[][] history = new Op[threads][ops];
+            for (int t = 0; t < threads; t += 1) {
+                for (int k = 0; k < ops; k += 1) {
+                    history[t][k] = new Op(random.nextInt(4), 10 * t + k);
+                }
+            }
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t += 1) {
+                Op[] mine = history[t];
+                workers[t] = new Thread(() -> {
+                    try {
+                        barrier.await();
+                    } catch (Exception excp) {
+                        return;
+                    }
+                    for (Op op : mine) {
+                        op.start = System.nanoTime();
+                        op.result = op.apply(d);
+                        op.end = System.nanoTime();
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            assertTrue("not linearizable: " + Arrays.deepToString(history)
+                       + " from " + initial,
+                       linearizable(history, new int[threads], initial));
+        }
+    }
+
+    /** Return true iff the operations of HISTORY after the first DONE[T]
+     *  of each thread T can be applied to a deque holding STATE in some
+     *  order, respecting each thread's order and real time, so as to
+     *  produce their recorded results. */
+    private static boolean linearizable(Op[][] history, int[] done,
+                                        ArrayDeque<Integer> state) {
+        boolean finished = true;
+        for (int t = 0; t < history.length; t += 1) {
+            if (done[t] == history[t].length) {
+                continue;
+            }
+            finished = false;
+            Op op = history[t][done[t]];
+            if (!minimal(history, done, op)) {
+                continue;
+            }
+            ArrayDeque<Integer> next = copy(state);
+            if (!Objects.equals(op.apply(next), op.result)) {
+                continue;
+            }
+            done[t] += 1;
+            boolean ok = linearizable(history, done, next);
+            done[t] -= 1;
+            if (ok) {
+                return true;
+            }
+        }
+        return finished;
+    }
+
+    /** Return true iff no pending operation of HISTORY (after DONE) ended
+     *  before OP started. */
+    private static boolean minimal(Op[][] history, int[] done, Op op) {
+        for (int t = 0; t < history.length; t += 1) {
+            for (int k = done[t]; k < history[t].length; k += 1) {
+                if (history[t][k].end < op.start) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Return a copy of D. */
+    private static ArrayDeque<Integer> copy(ArrayDeque<Integer> d) {
+        ArrayDeque<Integer> result = new ArrayDeque<>();
+        for (Integer item : d) {
+            result.addLast(item);
+        }
+        return result;
+    }
+
+    /** One operation of a history. */
+    private static class Op {
+        /** Operation KIND (addFirst, addLast, removeFirst, removeLast),
+         *  adding ITEM if it adds. */
+        Op(int kind, int item) {
+            this.kind = kind;
+            this.item = item;
+        }
+
+        /** Apply this operation to D, returning its result. */
+        Integer apply(Deque<Integer> d) {
+            switch (kind) {
+            case 0:
+                d.addFirst(item);
+                return null;
+            case 1:
+                d.addLast(item);
+                return null;
+            case 2:
+                return d.removeFirst();
+            default:
+                return d.removeLast();
+            }
+        }
+
+        @Override
+        public String toString() {
+            String[] names = {"addFirst", "addLast", "removeFirst",
+                              "removeLast"};
+            return names[kind] + (kind < 2 ? "(" + item + ")" : "")
+                + "=" + result;
+        }
+
+        /** What the operation is. */
+        final int kind, item;
+        /** Its result. */
+        Integer result;
+        /** When it started and ended. */
+        long start, end;
+    }
+}
@@ -2,40 +2,84 @@ package gh2;
 import edu.princeton.cs.algs4.StdAudio;
 import edu.princeton.cs.algs4.StdDraw;
 
+import java.util.Arrays;
+
 /**
  * A client that uses the synthesizer package to replicate a plucked guitar string sound
+ *
+ * A synthesis thread reads the keyboard and fills a SampleRing ahead of
+ * time, while the main thread takes blocks from the ring and plays them,
+ * so that neither waits on the other: a slow key poll does not starve
+ * the audio, and playing does not delay reading keys.  The depth of the
+ * ring, in samples, may be given as the first argument; a deeper ring
+ * survives longer stalls of the synthesis thread at the cost of more
+ * delay between a key and its note.  The ring's underrun and latency
+ * counts are printed every STATS_SECONDS seconds.
  */
 public class GuitarHeroLite {
     private static final double CONCERT_A = 440.0;
     private static final double CONCERT_C = CONCERT_A * Math.pow(2, 3.0 / 12.0);
+    /* Samples synthesized or played at a time: about 6 ms. */
+    private static final int BLOCK_SIZE = 256;
+    /* Default depth of the ring: about 46 ms. */
+    private static final int DEFAULT_DEPTH = 2048;
+    /* Seconds between reports of the ring's counters. */
+    private static final int STATS_SECONDS = 10;
 
     public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        SampleRing ring = new SampleRing(depth);
+
+        Thread synthesis = new Thread(() -> synthesize(ring), "synthesis");
+        synthesis.setDaemon(true);
+        synthesis.start();
+
+        /* play blocks from the ring on standard audio, silence if the
+         * synthesis thread has fallen behind */
+        double[] block = new double[BLOCK_SIZE];
+        long played = 0;
+        while (true) {
+            ring.take(block, 0, block.length);
+            StdAudio.play(block);
+            played += block.length;
+            if (played % ((long) STATS_SECONDS * StdAudio.SAMPLE_RATE) < block.length) {
+                System.out.println(ring);
+            }
+        }
+    }
+
+    /* Read keys and synthesize samples into RING until interrupted. */
+    private static void synthesize(SampleRing ring) {
         /* create two guitar strings, for concert A and C */
         GuitarString stringA = new GuitarString(CONCERT_A);
         GuitarString stringC = new GuitarString(CONCERT_C);
+        double[] block = new double[BLOCK_SIZE];
 
-        while (true) {
+        try {
+            while (true) {
 
-            /* check if the user has typed a key; if so, process it */
-            if (StdDraw.hasNextKeyTyped()) {
-                char key = StdDraw.nextKeyTyped();
-                if (key == 'a') {
-                    stringA.pluck();
-                } else if (key == 'c') {
-                    stringC.pluck();
+                /* check if the user has typed a key; if so, process it */
+                if (StdDraw.hasNextKeyTyped()) {
+                    char key = StdDraw.nextKeyTyped();
+                    if (key == 'a') {
+                        stringA.pluck();
+                    } else if (key == 'c') {
+                        stringC.pluck();
+                    }
                 }
-            }
 
-            /* compute the superposition of samples */
-            double sample = stringA.sample() + stringC.sample();
+                /* compute the superposition of a block of samples, advancing
+                 * the simulation of each guitar string as we go */
+                Arrays.fill(block, 0.0);
+                stringA.render(block, 0, block.length);
+                stringC.render(block, 0, block.length);
 
-            /* play the sample on standard audio */
-            StdAudio.play(sample);
-
-            /* advance the simulation of each guitar string by one step */
-            stringA.tic();
-            stringC.tic();
+                /* hand the block to the output thread, waiting while the
+                 * ring is full */
+                ring.put(block, 0, block.length);
+            }
+        } catch (InterruptedException e) {
+            return;
         }
     }
 }
-
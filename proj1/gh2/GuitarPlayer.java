@@ -6,6 +6,8 @@ import javax.sound.midi.*;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Random;
 
 /**
  * Plays guitar from MIDI files.
@@ -13,9 +15,17 @@ import java.io.InputStream;
  * @author Eli Lipsitz
  */
 public class GuitarPlayer {
+    /** Number of samples mixed and played at a time. */
+    static final int BLOCK_SIZE = 512;
+
     private Sequence sequence = null;
-    private GuitarString[] strings;
-    private double[] vol;
+    private Voices voices;
+    private Mixer mixer;
+    private double[] block;
+    private int threads = 1;
+    private Long seed;
+    private Timeline timeline;
+    private long start;
 
     public GuitarPlayer(InputStream source) {
         try {
@@ -33,29 +43,50 @@ public class GuitarPlayer {
         }
     }
 
+    public GuitarPlayer(Sequence sequence) {
+        this.sequence = sequence;
+    }
+
+    /** Mix on THREADS threads, counting the one performing.  The samples
+     *  are the same for any number of threads. */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /** Pluck strings with noise drawn from a generator seeded with SEED,
+     *  so that each performance gives the same samples. */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /** Start later performances SECONDS into the sequence.  The strings
+     *  start silent there: notes played before that time are not heard,
+     *  even if they would still be sounding. */
+    public void seek(double seconds) {
+        start = Math.max(0, Math.round(seconds * StdAudio.SAMPLE_RATE));
+    }
+
     private void initialize() {
-        strings = new GuitarString[128];
-        vol = new double[128];
-        for (int i = 0; i < strings.length; i++) {
-            strings[i] = new GuitarString(440.0 * Math.pow(2.0, (i - 69.0) / 12.0));
-            vol[i] = 0.0;
-        }
+        voices = new Voices(seed == null ? new Random() : new Random(seed));
+        mixer = threads > 1 ? new ParallelMixer(voices, threads, BLOCK_SIZE) : voices;
+        block = new double[BLOCK_SIZE];
     }
 
-    private void tic() {
-        for (int i = 0; i < strings.length; i++) {
-            if (vol[i] > 0.0) {
-                strings[i].tic();
-            }
-        }
+    /** Receives a performance a block of samples at a time. */
+    private interface Output {
+        /** Take SAMPLES[0], ..., SAMPLES[N - 1]. */
+        void write(double[] samples, int n) throws IOException;
     }
 
-    private double sample() {
-        double sum = 0.0f;
-        for (int i = 0; i < strings.length; i++) {
-            sum += vol[i] * strings[i].sample();
+    /** Mix the next N samples of the sounding strings and write them to
+     *  OUT, a block at a time. */
+    private void render(long n, Output out) throws IOException {
+        while (n > 0) {
+            int len = (int) Math.min(n, block.length);
+            mixer.mix(block, len);
+            out.write(block, len);
+            n -= len;
         }
-        return sum;
     }
 
     public void play() {
@@ -64,77 +95,76 @@ public class GuitarPlayer {
         }
 
         System.out.println("starting performance...");
-        initialize();
-        double bpm = 120;
-        double samplesPerTick = StdAudio.SAMPLE_RATE * (60.0 / (sequence.getResolution() * bpm));
-
-        Track[] tracks = sequence.getTracks();
-        Track track = sequence.createTrack();
-        int maxSize = 0;
-        int lead = 0;
-        for (int i = 0; i < tracks.length; i++) {
-            for (int j = 0; j < tracks[i].size(); j++) {
-                track.add(tracks[i].get(j));
-            }
+        try {
+            perform(GuitarPlayer::play, true);
+        } catch (IOException e) {
+            e.printStackTrace();
         }
+        System.out.println("please clap");
+    }
 
-        long tick = 0;
-        for (int i = 0; i < track.size(); i++) {
-            MidiEvent event = track.get(i);
-            MidiMessage msg = event.getMessage();
-            byte[] data = msg.getMessage();
-
-            if (msg instanceof MetaMessage) {
-                MetaMessage mm = (MetaMessage) msg;
-                if (mm.getType() == 0x51) {
-                    // set tempo
-                    data = mm.getData();
-                    int tempo = (data[0] & 0xff) << 16 | (data[1] & 0xff) << 8 | (data[2] & 0xff);
-                    bpm = 60000000.0 / tempo;
-                    samplesPerTick = StdAudio.SAMPLE_RATE
-                        * (60.0 / (sequence.getResolution() * bpm));
-                } else if (mm.getType() == 0x05) {
-                    // lyrics
-                    data = mm.getData();
-                    String lyrics = new String(data);
-                    lyrics = lyrics.replace("\r", "\r\n");
-                    System.out.print(lyrics);
-                }
-                continue;
+    /** Play SAMPLES[0], ..., SAMPLES[N - 1] on the audio device.  Only the
+     *  last block of a performance is short, and it is played a sample at
+     *  a time rather than copied. */
+    private static void play(double[] samples, int n) {
+        if (n == samples.length) {
+            StdAudio.play(samples);
+        } else {
+            for (int i = 0; i < n; i += 1) {
+                StdAudio.play(samples[i]);
             }
+        }
+    }
 
-            if (event.getTick() > tick) {
-                int samplesToSkip = (int) ((event.getTick() - tick) * samplesPerTick);
-                for (int j = 0; j < samplesToSkip; j++) {
-                    tic();
-                    StdAudio.play(sample());
-                }
-                tick = event.getTick();
-            }
+    /** Render the performance to a 16-bit mono WAV file at PATH, as fast
+     *  as it can be computed, without using an audio device.  Returns the
+     *  number of samples written. */
+    public long render(Path path) throws IOException {
+        if (sequence == null) {
+            return 0;
+        }
+        try (WavWriter wav = new WavWriter(path, StdAudio.SAMPLE_RATE)) {
+            perform(wav::write, false);
+            return wav.samples();
+        }
+    }
 
-            int j = 0;
-            while (j < data.length - 2) {
-                int s = data[j++] & 0xFF;
-
-                if (s >= 0x80 && s <= 0x8F) {
-                    // note off
-                    int note = data[j++] & 0xFF;
-                    int vel = data[j++] & 0xFF;
-                    vol[note] = 0.0;
-                } else if (s >= 0x90 && s <= 0x9F) {
-                    // note on?
-                    int note = data[j++] & 0xFF;
-                    int vel = data[j++] & 0xFF;
-                    vol[note] = vel / 127.0;
-                    strings[note].pluck();
-                } else {
-                    // status
-                    int d = data[j++] & 0xFF;
-                    int d2 = data[j++] & 0xFF;
-                }
+    /** Perform the sequence from the position set by seek, writing its
+     *  samples to OUT, and printing its lyrics iff LYRICS. */
+    private void perform(Output out, boolean lyrics) throws IOException {
+        initialize();
+        if (timeline == null) {
+            timeline = Timeline.compile(sequence, StdAudio.SAMPLE_RATE);
+        }
+        try {
+            perform(timeline, out, lyrics);
+        } finally {
+            if (mixer instanceof ParallelMixer) {
+                ((ParallelMixer) mixer).close();
             }
         }
+    }
 
-        System.out.println("please clap");
+    /** Perform the events of TIMELINE from sample START, as for
+     *  perform(OUT, LYRICS).  Lyrics after the last note are printed as
+     *  the performance ends. */
+    private void perform(Timeline timeline, Output out, boolean lyrics) throws IOException {
+        long position = start;
+        int lyric = timeline.lyricIndexAt(position);
+        for (int k = timeline.indexAt(position); k < timeline.size(); k++) {
+            long sample = timeline.sample(k);
+            while (lyrics && lyric < timeline.lyricCount()
+                   && timeline.lyricSample(lyric) <= sample) {
+                System.out.print(timeline.lyric(lyric).replace("\r", "\r\n"));
+                lyric++;
+            }
+            render(sample - position, out);
+            position = sample;
+            voices.noteOn(timeline.note(k), timeline.velocity(k));
+        }
+        while (lyrics && lyric < timeline.lyricCount()) {
+            System.out.print(timeline.lyric(lyric).replace("\r", "\r\n"));
+            lyric++;
+        }
     }
 }
@@ -1,10 +1,17 @@
 package gh2;
 
-// TODO: uncomment the following import once you're ready to start this portion
-// import deque.Deque;
-// TODO: maybe more imports
+import java.util.Random;
 
-//Note: This file will not compile until you complete the Deque implementations
+/** A plucked string simulated by the Karplus-Strong algorithm: a buffer
+ *  of one period of samples that is repeatedly averaged and decayed.
+ *
+ *  The buffer is a ring of exactly one period, so that each tic replaces
+ *  the front sample in place with the average of it and the sample after
+ *  it.  render advances the string over a whole block of samples in one
+ *  loop over that array, which is how callers mixing many strings should
+ *  use it; sample and tic remain for one sample at a time.  Nothing
+ *  allocates after construction.
+ */
 public class GuitarString {
     /** Constants. Do not change. In case you're curious, the keyword final
      * means the values cannot be changed at runtime. We'll discuss this and
@@ -12,44 +19,100 @@ public class GuitarString {
     private static final int SR = 44100;      // Sampling Rate
     private static final double DECAY = .996; // energy decay factor
 
-    /* Buffer for storing sound data. */
-    // TODO: uncomment the following line once you're ready to start this portion
-    // private Deque<Double> buffer;
+    /* Buffer for storing sound data: one period, starting at position. */
+    private final double[] buffer;
+    /* Index in buffer of the front sample. */
+    private int position;
 
-    /* Create a guitar string of the given frequency.  */
+    /* Create a guitar string of the given frequency, which must be low
+     * enough for the string to hold at least one sample a period.  */
     public GuitarString(double frequency) {
-        // TODO: Create a buffer with capacity = SR / frequency. You'll need to
-        //       cast the result of this division operation into an int. For
-        //       better accuracy, use the Math.round() function before casting.
-        //       Your should initially fill your buffer array with zeros.
+        int capacity = (int) Math.round(SR / frequency);
+        if (capacity < 1) {
+            throw new IllegalArgumentException("frequency " + frequency
+                                               + " Hz is too high to sample");
+        }
+        buffer = new double[capacity];
     }
 
 
     /* Pluck the guitar string by replacing the buffer with white noise. */
     public void pluck() {
-        // TODO: Dequeue everything in buffer, and replace with random numbers
-        //       between -0.5 and 0.5. You can get such a number by using:
-        //       double r = Math.random() - 0.5;
-        //
-        //       Make sure that your random numbers are different from each
-        //       other. This does not mean that you need to check that the numbers
-        //       are different from each other. It means you should repeatedly call
-        //       Math.random() - 0.5 to generate new random numbers for each array index.
+        for (int i = 0; i < buffer.length; i += 1) {
+            buffer[i] = Math.random() - 0.5;
+        }
+        position = 0;
+    }
+
+    /** Pluck this string with white noise drawn from RANDOM, so that the
+     *  same seed gives the same sound. */
+    public void pluck(Random random) {
+        for (int i = 0; i < buffer.length; i += 1) {
+            buffer[i] = random.nextDouble() - 0.5;
+        }
+        position = 0;
     }
 
     /* Advance the simulation one time step by performing one iteration of
      * the Karplus-Strong algorithm.
      */
     public void tic() {
-        // TODO: Dequeue the front sample and enqueue a new sample that is
-        //       the average of the two multiplied by the DECAY factor.
-        //       **Do not call StdAudio.play().**
+        int next = position + 1 == buffer.length ? 0 : position + 1;
+        buffer[position] = DECAY * 0.5 * (buffer[position] + buffer[next]);
+        position = next;
     }
 
     /* Return the double at the front of the buffer. */
     public double sample() {
-        // TODO: Return the correct thing.
-        return 0;
+        return buffer[position];
+    }
+
+    /** Return the largest magnitude of a sample in the buffer, which no
+     *  later sample exceeds. */
+    public double peak() {
+        double max = 0.0;
+        for (double x : buffer) {
+            max = Math.max(max, Math.abs(x));
+        }
+        return max;
+    }
+
+    /** Add the next N samples of this string to OUT[OFFSET], ...,
+     *  OUT[OFFSET + N - 1], advancing it N time steps.  The same as adding
+     *  sample() and then calling tic(), N times. */
+    public void render(double[] out, int offset, int n) {
+        render(out, offset, n, 1.0);
+    }
+
+    /** Add the next N samples of this string, each times GAIN, to
+     *  OUT[OFFSET], ..., OUT[OFFSET + N - 1], advancing it N time steps.
+     *  The same as adding GAIN * sample() and then calling tic(), N
+     *  times. */
+    public void render(double[] out, int offset, int n, double gain) {
+        double[] b = buffer;
+        int last = b.length - 1;
+        int i = position;
+        int k = offset;
+        int end = offset + n;
+        while (k < end) {
+            /* Samples I up to LAST - 1 are followed by the next one in B,
+             * so this run needs no wrapping. */
+            int run = Math.min(end - k, last - i);
+            for (int j = 0; j < run; j += 1) {
+                double front = b[i + j];
+                out[k + j] += gain * front;
+                b[i + j] = DECAY * 0.5 * (front + b[i + j + 1]);
+            }
+            i += run;
+            k += run;
+            if (k < end) {
+                double front = b[last];
+                out[k] += gain * front;
+                b[last] = DECAY * 0.5 * (front + b[0]);
+                i = 0;
+                k += 1;
+            }
+        }
+        position = i;
     }
 }
-    // TODO: Remove all comments that say TODO when you're done.
@@ -0,0 +1,9 @@
+package gh2;
+
+/** A source of mixed blocks of samples from the sounding notes of a
+ *  GuitarPlayer. */
+interface Mixer {
+
+    /** Set OUT[0], ..., OUT[N - 1] to the next N samples, mixed. */
+    void mix(double[] out, int n);
+}
@@ -0,0 +1,85 @@
+package gh2;
+
+import java.util.concurrent.Phaser;
+
+/** Mixes the parts of a Voices on several threads.
+ *
+ *  The calling thread and THREADS - 1 worker threads each render the
+ *  parts P with P % THREADS equal to their number into a buffer of their
+ *  own, meeting at a Phaser twice a block: once to start rendering and
+ *  once when all have finished.  The calling thread then adds the parts
+ *  in order, as Voices.mix does, so the samples are the same, bit for bit,
+ *  whatever the number of threads.  Between blocks the workers wait at the
+ *  Phaser, so notes may be played and released freely; each phase advance
+ *  orders those changes before the workers' next reads.
+ */
+class ParallelMixer implements Mixer, AutoCloseable {
+
+    /** A mixer of VOICES using THREADS threads, counting the caller, for
+     *  blocks of up to BLOCKSIZE samples. */
+    ParallelMixer(Voices voices, int threads, int blockSize) {
+        this.voices = voices;
+        this.threads = Math.max(1, Math.min(threads, Voices.PARTS));
+        partials = new double[Voices.PARTS][blockSize];
+        phaser = new Phaser(this.threads);
+        for (int w = 1; w < this.threads; w += 1) {
+            int worker = w;
+            Thread thread = new Thread(() -> work(worker), "mixer-" + w);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void mix(double[] out, int n) {
+        length = n;
+        phaser.arriveAndAwaitAdvance();
+        renderParts(0);
+        phaser.arriveAndAwaitAdvance();
+        System.arraycopy(partials[0], 0, out, 0, n);
+        voices.addParts(out, partials, n);
+        voices.finishBlock();
+    }
+
+    /** Stop the worker threads. */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            phaser.arriveAndDeregister();
+        }
+    }
+
+    /** Render blocks as worker number WORKER until closed. */
+    private void work(int worker) {
+        while (true) {
+            phaser.arriveAndAwaitAdvance();
+            if (closed) {
+                phaser.arriveAndDeregister();
+                return;
+            }
+            renderParts(worker);
+            phaser.arriveAndAwaitAdvance();
+        }
+    }
+
+    /** Render the parts that belong to worker number WORKER. */
+    private void renderParts(int worker) {
+        for (int part = worker; part < Voices.PARTS; part += threads) {
+            voices.renderPart(part, partials[part], length);
+        }
+    }
+
+    /** The voices mixed. */
+    private final Voices voices;
+    /** Number of threads rendering, counting the caller. */
+    private final int threads;
+    /** Buffer into which each part is rendered. */
+    private final double[][] partials;
+    /** Where the threads meet, at the start and the end of each block. */
+    private final Phaser phaser;
+    /** Number of samples in the current block. */
+    private int length;
+    /** True once the mixer is closed. */
+    private volatile boolean closed;
+}
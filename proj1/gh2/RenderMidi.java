@@ -0,0 +1,41 @@
+package gh2;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/** Renders a MIDI file to a WAV file with GuitarPlayer, as fast as it can
+ *  be computed, and reports how many times faster than real time that
+ *  was.  It uses no audio device, so it runs on headless machines.
+ *
+ *  Usage: java gh2.RenderMidi [MIDI-FILE [WAV-FILE [THREADS]]].  Without
+ *  a MIDI file (or with "-") it renders the song TTFAF plays; the WAV
+ *  file defaults to guitar.wav, and the number of threads mixing to the
+ *  number of processors.  Strings are plucked with a fixed seed, so the
+ *  file is the same from run to run, whatever the number of threads.
+ */
+public class RenderMidi {
+    /** Samples a second of the rendered file. */
+    private static final int SR = 44100;
+    /** Seed of the noise with which strings are plucked. */
+    private static final long SEED = 61;
+
+    public static void main(String[] args) throws Exception {
+        GuitarPlayer player = args.length > 0 && !args[0].equals("-")
+            ? new GuitarPlayer(new File(args[0]))
+            : new GuitarPlayer(TTFAF.source());
+        Path wav = Path.of(args.length > 1 ? args[1] : "guitar.wav");
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+            : Runtime.getRuntime().availableProcessors();
+        player.setThreads(threads);
+        player.setSeed(SEED);
+
+        long start = System.nanoTime();
+        long samples = player.render(wav);
+        double seconds = (System.nanoTime() - start) * 1e-9;
+
+        double audio = (double) samples / SR;
+        System.out.printf("rendered %.1f s of audio to %s in %.2f s on %d "
+                          + "threads: %.1fx real time%n",
+                          audio, wav, seconds, threads, audio / seconds);
+    }
+}
@@ -0,0 +1,169 @@
+package gh2;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/** A ring buffer of samples passed from one producer thread, which
+ *  synthesizes them ahead of time, to one consumer thread, which plays
+ *  them.
+ *
+ *  Neither side locks.  Each side alone advances its own count of
+ *  samples (the producer's TAIL and the consumer's HEAD), publishing it
+ *  with a release store that the other side reads with an acquire load,
+ *  so the samples copied in before a store are visible to the side that
+ *  sees it.  Each side also keeps its last reading of the other's count
+ *  and reads the shared one again only when that reading shows too
+ *  little room or too few samples.
+ *
+ *  The consumer never waits: if fewer samples are ready than it asks
+ *  for, take pads with silence and counts an underrun.  The producer
+ *  waits in put while the ring is full, which keeps it at most capacity()
+ *  samples ahead of the consumer; that bound is the latency the ring adds
+ *  between synthesis and output.  The consumer also records how many
+ *  samples were waiting each time it took some, which is the latency
+ *  each block actually saw.
+ */
+final class SampleRing {
+
+    /** Time the producer sleeps when the ring is full, in nanoseconds. */
+    static final long PARK_NANOS = 200_000;
+
+    /** An empty ring holding at least DEPTH samples, rounded up to a power
+     *  of two. */
+    SampleRing(int depth) {
+        int capacity = Integer.highestOneBit(Math.max(1, depth - 1)) << 1;
+        buffer = new double[Math.max(capacity, 2)];
+        mask = buffer.length - 1;
+    }
+
+    /** Return the number of samples the ring holds when full. */
+    int capacity() {
+        return buffer.length;
+    }
+
+    /** Return the number of samples written but not yet taken.  Exact
+     *  only when neither side is active. */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /** Copy as many of SRC[OFF], ..., SRC[OFF + N - 1] as there is room
+     *  for into the ring, returning how many.  Only the producer may call
+     *  this. */
+    int offer(double[] src, int off, int n) {
+        long t = tail.getPlain();
+        long free = buffer.length - (t - headSeen);
+        if (free < n) {
+            headSeen = head.getAcquire();
+            free = buffer.length - (t - headSeen);
+        }
+        int m = (int) Math.min(n, free);
+        int start = (int) t & mask;
+        int first = Math.min(m, buffer.length - start);
+        System.arraycopy(src, off, buffer, start, first);
+        System.arraycopy(src, off + first, buffer, 0, m - first);
+        tail.setRelease(t + m);
+        return m;
+    }
+
+    /** Copy SRC[OFF], ..., SRC[OFF + N - 1] into the ring, waiting while
+     *  it is full.  Only the producer may call this. */
+    void put(double[] src, int off, int n) throws InterruptedException {
+        while (n > 0) {
+            int m = offer(src, off, n);
+            off += m;
+            n -= m;
+            if (n > 0) {
+                LockSupport.parkNanos(PARK_NANOS);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+
+    /** Fill OUT[OFF], ..., OUT[OFF + N - 1] with the next N samples,
+     *  padding with silence if fewer are ready, and return how many were
+     *  ready.  Only the consumer may call this. */
+    int take(double[] out, int off, int n) {
+        long h = head.getPlain();
+        long ready = tailSeen - h;
+        if (ready < n) {
+            tailSeen = tail.getAcquire();
+            ready = tailSeen - h;
+        }
+        takes += 1;
+        totalLatency += ready;
+        maxLatency = Math.max(maxLatency, ready);
+
+        int m = (int) Math.min(n, ready);
+        int start = (int) h & mask;
+        int first = Math.min(m, buffer.length - start);
+        System.arraycopy(buffer, start, out, off, first);
+        System.arraycopy(buffer, 0, out, off + first, m - first);
+        if (m < n) {
+            underruns += 1;
+            silentSamples += n - m;
+            for (int i = off + m; i < off + n; i += 1) {
+                out[i] = 0.0;
+            }
+        }
+        head.setRelease(h + m);
+        return m;
+    }
+
+    /** Return the number of takes that found too few samples ready. */
+    long underruns() {
+        return underruns;
+    }
+
+    /** Return the number of samples of silence padded in by take. */
+    long silentSamples() {
+        return silentSamples;
+    }
+
+    /** Return the largest number of samples found waiting by a take. */
+    long maxLatency() {
+        return maxLatency;
+    }
+
+    /** Return the mean number of samples found waiting by a take. */
+    double meanLatency() {
+        long n = takes;
+        return n == 0 ? 0.0 : (double) totalLatency / n;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("capacity %d, %d underruns (%d samples of "
+                             + "silence), latency mean %.0f, max %d samples",
+                             capacity(), underruns(), silentSamples(),
+                             meanLatency(), maxLatency());
+    }
+
+    /** The samples; sample number I is at index I & MASK. */
+    private final double[] buffer;
+    /** capacity() - 1. */
+    private final int mask;
+    /** Number of samples taken, advanced only by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+    /** Number of samples written, advanced only by the producer. */
+    private final AtomicLong tail = new AtomicLong();
+    /** The producer's last reading of HEAD. */
+    private long headSeen;
+    /** The consumer's last reading of TAIL. */
+    private long tailSeen;
+
+    /* Statistics, written only by the consumer and read by anyone. */
+
+    /** Number of calls of take. */
+    private volatile long takes;
+    /** Total of the samples found waiting by each take. */
+    private volatile long totalLatency;
+    /** Largest number of samples found waiting by a take. */
+    private volatile long maxLatency;
+    /** Number of takes that padded with silence. */
+    private volatile long underruns;
+    /** Number of samples of silence padded in. */
+    private volatile long silentSamples;
+}
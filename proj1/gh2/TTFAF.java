@@ -14,9 +14,7 @@ import java.util.zip.GZIPInputStream;
 public class TTFAF {
     public static void main(String[] args) {
         try {
-            InputStream source = new ByteArrayInputStream(Base64.getDecoder().decode(TTFAF));
-            source = new GZIPInputStream(source);
-            GuitarPlayer player = new GuitarPlayer(source);
+            GuitarPlayer player = new GuitarPlayer(source());
             player.play();
         } catch (IOException e) {
             e.printStackTrace();
@@ -27,6 +25,12 @@ public class TTFAF {
         // player.play();
     }
 
+    /** Return a stream of the MIDI file. */
+    static InputStream source() throws IOException {
+        InputStream source = new ByteArrayInputStream(Base64.getDecoder().decode(TTFAF));
+        return new GZIPInputStream(source);
+    }
+
     private static final String TTFAF =
         "H4sICO8zfloCA1RURkFGaW1wcm92ZWQyLm1pZAC1fe1uI0mSWNze2mf4CQwMGhIamu7WSqfRtEYi"
         + "WSyyqljFYpGlUlFsbmsGjb27BXbhPdz5Dljbv7ebvcbtD8Mg7BfZR/Cj7IsY48qMiMyM+hLV3fOP"
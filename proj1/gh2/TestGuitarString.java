@@ -5,6 +5,11 @@ package gh2;
 import edu.princeton.cs.algs4.StdAudio;
 
 import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /** Tests the GuitarString class.
@@ -53,6 +58,11 @@ public class TestGuitarString  {
     }
 
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooHigh() {
+        new GuitarString(100000);
+    }
+
     @Test
     public void testTicCalculations() {
         // Create a GuitarString of frequency 11025, which
@@ -80,5 +90,74 @@ public class TestGuitarString  {
         // for assertEquals(double, double)
         assertEquals("Wrong tic value. Try running the testTic method in TestGuitarString.java.", expected, s5, 0.001);
     }
-}
 
+    @Test
+    public void testTicAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GuitarString s = new GuitarString(440.0);
+        s.pluck();
+        double sum = 0;
+        for (int i = 0; i < 100000; i += 1) {
+            sum += s.sample();
+            s.tic();
+        }
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 1000000; i += 1) {
+            sum += s.sample();
+            s.tic();
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertTrue("tic() and sample() should not allocate: " + allocated
+                   + " bytes (" + sum + ")", allocated < 1024);
+    }
+
+    @Test
+    public void testRenderMatchesTic() {
+        /* A buffer of 441 samples, rendered in blocks of every length up
+         * to 40 and then some, so that blocks cross the end of the buffer
+         * at many offsets. */
+        GuitarString ticked = new GuitarString(100);
+        GuitarString rendered = new GuitarString(100);
+        ticked.pluck(new Random(61));
+        rendered.pluck(new Random(61));
+        double gain = 0.75;
+        double[] out = new double[50];
+        for (int round = 0; round < 30; round += 1) {
+            for (int n = 0; n <= 40; n += 1) {
+                Arrays.fill(out, 0.25);
+                rendered.render(out, 5, n, gain);
+                for (int i = 0; i < out.length; i += 1) {
+                    double expected = 0.25;
+                    if (i >= 5 && i < 5 + n) {
+                        expected += gain * ticked.sample();
+                        ticked.tic();
+                    }
+                    assertEquals(expected, out[i], 0.0);
+                }
+                assertEquals(ticked.sample(), rendered.sample(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testRenderAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        GuitarString s = new GuitarString(440.0);
+        s.pluck();
+        double[] block = new double[512];
+        for (int i = 0; i < 1000; i += 1) {
+            s.render(block, 0, block.length);
+        }
+        long id = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 10000; i += 1) {
+            s.render(block, 0, block.length);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        assertTrue("render() should not allocate: " + allocated + " bytes",
+                   allocated < 1024);
+    }
+}
@@ -0,0 +1,82 @@
+package gh2;
+
+import org.junit.Test;
+
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** Tests of ParallelMixer. */
+public class TestParallelMixer {
+
+    @Test
+    public void testSameAsVoices() {
+        for (int threads = 1; threads <= 5; threads += 1) {
+            Voices serial = new Voices(new Random(61));
+            Voices parallel = new Voices(new Random(61));
+            Random events = new Random(threads);
+            double[] expected = new double[GuitarPlayer.BLOCK_SIZE];
+            double[] actual = new double[GuitarPlayer.BLOCK_SIZE];
+            try (ParallelMixer mixer =
+                 new ParallelMixer(parallel, threads, GuitarPlayer.BLOCK_SIZE)) {
+                for (int block = 0; block < 200; block += 1) {
+                    for (int k = events.nextInt(6); k > 0; k -= 1) {
+                        int note = 30 + events.nextInt(60);
+                        if (events.nextInt(3) == 0) {
+                            serial.noteOff(note);
+                            parallel.noteOff(note);
+                        } else {
+                            int velocity = 1 + events.nextInt(127);
+                            serial.noteOn(note, velocity);
+                            parallel.noteOn(note, velocity);
+                        }
+                    }
+                    int n = 1 + events.nextInt(GuitarPlayer.BLOCK_SIZE);
+                    serial.mix(expected, n);
+                    mixer.mix(actual, n);
+                    for (int i = 0; i < n; i += 1) {
+                        assertEquals(expected[i], actual[i], 0.0);
+                    }
+                    assertEquals(serial.activeCount(), parallel.activeCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRenderSameOnAnyThreads() throws Exception {
+        Sequence sequence = new Sequence(Sequence.PPQ, 441);
+        Track track = sequence.createTrack();
+        for (int chord = 0; chord < 8; chord += 1) {
+            for (int note = 48 + chord; note < 90; note += 3) {
+                track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON,
+                                                         0, note, 90),
+                                        chord * 200));
+            }
+        }
+        byte[] expected = null;
+        for (int threads = 1; threads <= 4; threads += 1) {
+            GuitarPlayer player = new GuitarPlayer(sequence);
+            player.setSeed(61);
+            player.setThreads(threads);
+            Path path = Files.createTempFile("test", ".wav");
+            try {
+                player.render(path);
+                byte[] actual = Files.readAllBytes(path);
+                if (expected == null) {
+                    expected = actual;
+                } else {
+                    assertArrayEquals(expected, actual);
+                }
+            } finally {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package gh2;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** Tests of SampleRing. */
+public class TestSampleRing {
+
+    @Test
+    public void testCapacity() {
+        assertEquals(2048, new SampleRing(2048).capacity());
+        assertEquals(4096, new SampleRing(2049).capacity());
+        assertEquals(2, new SampleRing(1).capacity());
+    }
+
+    @Test
+    public void testWrapAndUnderrun() {
+        SampleRing ring = new SampleRing(8);
+        double[] in = {1, 2, 3, 4, 5, 6};
+        double[] out = new double[6];
+        assertEquals(6, ring.offer(in, 0, 6));
+        assertEquals(4, ring.take(out, 0, 4));
+        /* Only six of the eight places are free. */
+        assertEquals(6, ring.offer(in, 0, 6));
+        assertEquals(0, ring.offer(in, 0, 1));
+        assertEquals(8, ring.size());
+        assertEquals(6, ring.take(out, 0, 6));
+        assertArrayEquals(new double[] {5, 6, 1, 2, 3, 4}, out, 0.0);
+        assertEquals(0, ring.underruns());
+        assertEquals(2, ring.take(out, 1, 5));
+        assertArrayEquals(new double[] {5, 5, 6, 0, 0, 0}, out, 0.0);
+        assertEquals(1, ring.underruns());
+        assertEquals(3, ring.silentSamples());
+        assertEquals(8, ring.maxLatency());
+        assertEquals((6 + 8 + 2) / 3.0, ring.meanLatency(), 1e-12);
+    }
+
+    @Test
+    public void testProducerConsumer() throws Exception {
+        int total = 1 << 20;
+        SampleRing ring = new SampleRing(1024);
+        Thread producer = new Thread(() -> {
+            Random random = new Random(61);
+            double[] block = new double[300];
+            int next = 1;
+            try {
+                while (next <= total) {
+                    int n = Math.min(1 + random.nextInt(block.length), total - next + 1);
+                    for (int i = 0; i < n; i += 1) {
+                        block[i] = next + i;
+                    }
+                    ring.put(block, 0, n);
+                    next += n;
+                }
+            } catch (InterruptedException e) {
+                fail();
+            }
+        });
+        producer.start();
+        Random random = new Random(62);
+        double[] block = new double[300];
+        double expected = 1;
+        long silence = 0;
+        while (expected <= total) {
+            int n = 1 + random.nextInt(block.length);
+            int m = ring.take(block, 0, n);
+            for (int i = 0; i < n; i += 1) {
+                if (i < m) {
+                    assertEquals(expected, block[i], 0.0);
+                    expected += 1;
+                } else {
+                    assertEquals(0.0, block[i], 0.0);
+                    silence += 1;
+                }
+            }
+        }
+        producer.join();
+        assertEquals(silence, ring.silentSamples());
+        assertTrue(ring.maxLatency() <= ring.capacity());
+    }
+}
@@ -0,0 +1,78 @@
+package gh2;
+
+import org.junit.Test;
+
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/** Tests of Timeline and of seeking in GuitarPlayer. */
+public class TestTimeline {
+
+    /** Return a two-track sequence of 441 ticks a beat, 50 samples a tick
+     *  at the default tempo, which halves to 25 samples a tick at tick
+     *  100. */
+    private static Sequence sequence() throws Exception {
+        Sequence sequence = new Sequence(Sequence.PPQ, 441);
+        Track first = sequence.createTrack();
+        Track second = sequence.createTrack();
+        first.add(new MidiEvent(new MetaMessage(0x51, new byte[] {0x03, (byte) 0xd0, (byte) 0x90}, 3), 100));
+        first.add(new MidiEvent(new MetaMessage(0x05, "la".getBytes(), 2), 150));
+        first.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 60, 100), 0));
+        first.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_OFF, 0, 60, 64), 200));
+        second.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 1, 60, 90), 200));
+        second.add(new MidiEvent(new ShortMessage(ShortMessage.CONTROL_CHANGE, 1, 7, 90), 250));
+        second.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 1, 60, 0), 300));
+        return sequence;
+    }
+
+    @Test
+    public void testCompile() throws Exception {
+        Timeline timeline = Timeline.compile(sequence(), 44100);
+        assertEquals(4, timeline.size());
+        long[] samples = {0, 7500, 7500, 10000};
+        int[] velocities = {100, 0, 90, 0};
+        for (int k = 0; k < 4; k += 1) {
+            assertEquals(samples[k], timeline.sample(k));
+            assertEquals(60, timeline.note(k));
+            assertEquals(velocities[k], timeline.velocity(k));
+        }
+        assertEquals(10000, timeline.length());
+        assertEquals(1, timeline.lyricCount());
+        assertEquals(6250, timeline.lyricSample(0));
+        assertEquals("la", timeline.lyric(0));
+    }
+
+    @Test
+    public void testIndexAt() throws Exception {
+        Timeline timeline = Timeline.compile(sequence(), 44100);
+        assertEquals(0, timeline.indexAt(0));
+        assertEquals(1, timeline.indexAt(1));
+        assertEquals(1, timeline.indexAt(7500));
+        assertEquals(3, timeline.indexAt(7501));
+        assertEquals(4, timeline.indexAt(10001));
+        assertEquals(0, timeline.lyricIndexAt(6250));
+        assertEquals(1, timeline.lyricIndexAt(6251));
+    }
+
+    @Test
+    public void testSeek() throws Exception {
+        GuitarPlayer player = new GuitarPlayer(sequence());
+        Path path = Files.createTempFile("test", ".wav");
+        try {
+            assertEquals(10000, player.render(path));
+            player.seek(0.1);
+            assertEquals(10000 - 4410, player.render(path));
+            player.seek(1.0);
+            assertEquals(0, player.render(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package gh2;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/** Tests of Voices. */
+public class TestVoices {
+
+    @Test
+    public void testNoteOnOff() {
+        Voices voices = new Voices(new Random(61));
+        assertEquals(0, voices.activeCount());
+        voices.noteOn(60, 100);
+        voices.noteOn(64, 100);
+        voices.noteOn(67, 100);
+        voices.noteOn(64, 80);
+        assertEquals(3, voices.activeCount());
+        voices.noteOff(60);
+        assertFalse(voices.isActive(60));
+        assertTrue(voices.isActive(64));
+        assertTrue(voices.isActive(67));
+        voices.noteOff(60);
+        voices.noteOn(67, 0);
+        assertEquals(1, voices.activeCount());
+        assertTrue(voices.isActive(64));
+    }
+
+    @Test
+    public void testMixMatchesStrings() {
+        Voices voices = new Voices(new Random(61));
+        voices.noteOn(57, 127);
+        voices.noteOn(69, 64);
+        Random random = new Random(61);
+        GuitarString a = new GuitarString(220.0);
+        GuitarString b = new GuitarString(440.0);
+        a.pluck(random);
+        b.pluck(random);
+        double[] out = new double[300];
+        voices.mix(out, 300);
+        for (int i = 0; i < 300; i += 1) {
+            double expected = 0.0;
+            expected += a.sample();
+            expected += 64 / 127.0 * b.sample();
+            a.tic();
+            b.tic();
+            assertEquals(expected, out[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testDecayedNotesDropped() {
+        Voices voices = new Voices(new Random(61));
+        voices.noteOn(69, 127);
+        voices.noteOn(40, 127);
+        double[] out = new double[512];
+        int blocks = 0;
+        int highDropped = -1;
+        while (voices.activeCount() > 0) {
+            voices.mix(out, out.length);
+            blocks += 1;
+            if (highDropped < 0 && !voices.isActive(69)) {
+                highDropped = blocks;
+            }
+            assertTrue("notes never decayed", blocks < 10000);
+        }
+        /* The higher note loses energy more often, once per period. */
+        assertTrue(highDropped < blocks);
+        assertEquals(0, blocks % Voices.DECAY_CHECK_BLOCKS);
+        voices.mix(out, out.length);
+        for (double x : out) {
+            assertEquals(0.0, x, 0.0);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package gh2;
+
+import org.junit.Test;
+
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/** Tests of WavWriter and GuitarPlayer.render. */
+public class TestWavWriter {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Path path = Files.createTempFile("test", ".wav");
+        int n = WavWriter.BUFFER_SIZE + 1000;
+        double[] samples = new double[n];
+        for (int i = 0; i < n; i += 1) {
+            samples[i] = 1.5 * Math.sin(i * 0.01);
+        }
+        try (WavWriter wav = new WavWriter(path, 44100)) {
+            wav.write(samples, 100);
+            double[] rest = new double[n - 100];
+            System.arraycopy(samples, 100, rest, 0, rest.length);
+            wav.write(rest, rest.length);
+            assertEquals(n, wav.samples());
+        }
+        try (AudioInputStream in =
+             AudioSystem.getAudioInputStream(path.toFile())) {
+            AudioFormat format = in.getFormat();
+            assertEquals(44100, format.getSampleRate(), 0.0);
+            assertEquals(16, format.getSampleSizeInBits());
+            assertEquals(1, format.getChannels());
+            assertEquals(n, in.getFrameLength());
+            ByteBuffer data = ByteBuffer.wrap(in.readAllBytes())
+                .order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(2 * n, data.remaining());
+            for (int i = 0; i < n; i += 1) {
+                double x = Math.max(-1, Math.min(1, samples[i]));
+                assertEquals((short) (Short.MAX_VALUE * x), data.getShort());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        Path path = Files.createTempFile("test", ".wav");
+        double[] samples = new double[100];
+        try {
+            try (WavWriter wav = new WavWriter(path, 44100, 150)) {
+                wav.write(samples, 100);
+                try {
+                    wav.write(samples, 51);
+                    fail("wrote past the limit");
+                } catch (IOException e) {
+                    /* Expected. */
+                }
+                wav.write(samples, 50);
+                assertEquals(150, wav.samples());
+            }
+            assertEquals(WavWriter.HEADER_LENGTH + 2 * 150, Files.size(path));
+            assertTrue(2 * WavWriter.MAX_SAMPLES + WavWriter.HEADER_LENGTH - 8
+                       <= Integer.MAX_VALUE);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testRenderSequence() throws Exception {
+        /* At the default 120 beats a minute, 441 ticks a beat is 50
+         * samples a tick: a note of one second and one of half a second. */
+        Sequence sequence = new Sequence(Sequence.PPQ, 441);
+        Track track = sequence.createTrack();
+        track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 69, 100), 0));
+        track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_OFF, 0, 69, 0), 882));
+        track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_ON, 0, 72, 100), 882));
+        track.add(new MidiEvent(new ShortMessage(ShortMessage.NOTE_OFF, 0, 72, 0), 1323));
+        GuitarPlayer player = new GuitarPlayer(sequence);
+        Path path = Files.createTempFile("test", ".wav");
+        try {
+            assertEquals(66150, player.render(path));
+            assertEquals(WavWriter.HEADER_LENGTH + 2 * 66150, Files.size(path));
+            /* Rendering again leaves the sequence as it was. */
+            assertEquals(66150, player.render(path));
+            assertEquals(1, sequence.getTracks().length);
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
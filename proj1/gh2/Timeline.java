@@ -0,0 +1,188 @@
+package gh2;
+
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiMessage;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/** The notes and lyrics of a MIDI Sequence, in order of time, with times
+ *  in samples.
+ *
+ *  compile merges the tracks, applies the tempo changes, and keeps only
+ *  what a GuitarPlayer uses: for each note event, the sample at which it
+ *  happens, the note, and its velocity (0 for a release), packed into one
+ *  long, so that performing is a walk along an array and finding the
+ *  event at a given time is a binary search.  Events at the same tick
+ *  keep the order of the tracks, and of the events within a track.
+ */
+final class Timeline {
+
+    /** Number of bits of an event holding its note and velocity. */
+    private static final int NOTE_BITS = 16;
+
+    /** Default tempo of a MIDI file, in microseconds a beat. */
+    static final int DEFAULT_TEMPO = 500000;
+
+    /** Type of the meta message that sets the tempo. */
+    private static final int TEMPO = 0x51;
+    /** Type of the meta message that holds lyrics. */
+    private static final int LYRIC = 0x05;
+
+    /** A timeline of EVENTS, packed as by pack, at the times LYRICSAMPLES
+     *  showing LYRICS. */
+    private Timeline(long[] events, long[] lyricSamples, String[] lyrics) {
+        this.events = events;
+        this.lyricSamples = lyricSamples;
+        this.lyrics = lyrics;
+    }
+
+    /** Return the timeline of SEQUENCE at SAMPLERATE samples a second. */
+    static Timeline compile(Sequence sequence, int sampleRate) {
+        List<MidiEvent> all = new ArrayList<>();
+        for (Track track : sequence.getTracks()) {
+            for (int i = 0; i < track.size(); i += 1) {
+                all.add(track.get(i));
+            }
+        }
+        /* List.sort is stable, so events at the same tick stay in the
+         * order they have in ALL. */
+        all.sort(Comparator.comparingLong(MidiEvent::getTick));
+
+        boolean ppq = sequence.getDivisionType() == Sequence.PPQ;
+        double samplesPerTick = ppq
+            ? samplesPerTick(sequence, sampleRate, DEFAULT_TEMPO)
+            : sampleRate / (sequence.getDivisionType() * sequence.getResolution());
+        long[] events = new long[all.size()];
+        int count = 0;
+        List<String> texts = new ArrayList<>();
+        long[] lyricSamples = new long[all.size()];
+        double position = 0;
+        long tick = 0;
+        for (MidiEvent event : all) {
+            position += (event.getTick() - tick) * samplesPerTick;
+            tick = event.getTick();
+            long sample = (long) position;
+            MidiMessage msg = event.getMessage();
+            if (msg instanceof ShortMessage) {
+                ShortMessage sm = (ShortMessage) msg;
+                if (sm.getCommand() == ShortMessage.NOTE_ON) {
+                    events[count] = pack(sample, sm.getData1(), sm.getData2());
+                    count += 1;
+                } else if (sm.getCommand() == ShortMessage.NOTE_OFF) {
+                    events[count] = pack(sample, sm.getData1(), 0);
+                    count += 1;
+                }
+            } else if (msg instanceof MetaMessage) {
+                MetaMessage mm = (MetaMessage) msg;
+                byte[] data = mm.getData();
+                if (mm.getType() == TEMPO && ppq && data.length == 3) {
+                    int tempo = (data[0] & 0xff) << 16 | (data[1] & 0xff) << 8
+                        | (data[2] & 0xff);
+                    samplesPerTick = samplesPerTick(sequence, sampleRate, tempo);
+                } else if (mm.getType() == LYRIC) {
+                    lyricSamples[texts.size()] = sample;
+                    texts.add(new String(data));
+                }
+            }
+        }
+        return new Timeline(Arrays.copyOf(events, count),
+                            Arrays.copyOf(lyricSamples, texts.size()),
+                            texts.toArray(new String[0]));
+    }
+
+    /** Return the number of samples a tick of SEQUENCE, whose division
+     *  is in ticks a beat, lasts at TEMPO microseconds a beat and
+     *  SAMPLERATE samples a second. */
+    private static double samplesPerTick(Sequence sequence, int sampleRate,
+                                         int tempo) {
+        return sampleRate * (tempo * 1e-6) / sequence.getResolution();
+    }
+
+    /** Return an event at SAMPLE playing NOTE at VELOCITY. */
+    private static long pack(long sample, int note, int velocity) {
+        return (sample << NOTE_BITS) | (note << 8) | velocity;
+    }
+
+    /** Return the number of note events. */
+    int size() {
+        return events.length;
+    }
+
+    /** Return the sample at which event K happens. */
+    long sample(int k) {
+        return events[k] >>> NOTE_BITS;
+    }
+
+    /** Return the note of event K. */
+    int note(int k) {
+        return (int) (events[k] >>> 8) & 0xff;
+    }
+
+    /** Return the velocity of event K, 0 if it releases its note. */
+    int velocity(int k) {
+        return (int) events[k] & 0xff;
+    }
+
+    /** Return the sample of the last note event, where a performance
+     *  ends, or 0 if there are none. */
+    long length() {
+        return events.length == 0 ? 0 : sample(events.length - 1);
+    }
+
+    /** Return the index of the first event at or after SAMPLE, or size()
+     *  if there is none. */
+    int indexAt(long sample) {
+        return firstAtOrAfter(events, sample << NOTE_BITS);
+    }
+
+    /** Return the number of lyrics. */
+    int lyricCount() {
+        return lyrics.length;
+    }
+
+    /** Return the sample at which lyric K is shown. */
+    long lyricSample(int k) {
+        return lyricSamples[k];
+    }
+
+    /** Return the text of lyric K. */
+    String lyric(int k) {
+        return lyrics[k];
+    }
+
+    /** Return the index of the first lyric at or after SAMPLE, or
+     *  lyricCount() if there is none. */
+    int lyricIndexAt(long sample) {
+        return firstAtOrAfter(lyricSamples, sample);
+    }
+
+    /** Return the index of the first of the sorted values A that is at
+     *  least KEY, or A.length if there is none. */
+    private static int firstAtOrAfter(long[] a, long key) {
+        int lo = 0, hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** The note events, each the sample at which it happens, shifted
+     *  left NOTE_BITS bits, or'ed with the note shifted left 8 bits and the
+     *  velocity. */
+    private final long[] events;
+    /** The sample at which each lyric is shown. */
+    private final long[] lyricSamples;
+    /** The lyrics. */
+    private final String[] lyrics;
+}
@@ -0,0 +1,187 @@
+package gh2;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/** The strings of a GuitarPlayer, one per MIDI note, and which of them
+ *  are sounding.
+ *
+ *  The sounding strings are kept in lists, so that mixing a block costs
+ *  time in proportion to the number of notes sounding rather than to the
+ *  number of notes there are.  A note joins its list when it is played
+ *  and leaves when it is released, or when it has decayed so far that it
+ *  can no longer be heard.  Averaging two samples never yields one larger
+ *  than both, so the largest sample in a string's buffer bounds all its
+ *  future samples; once that bound, times the note's volume, is below
+ *  SILENCE, the note is dropped.  That check scans the buffer, so it is
+ *  made only every DECAY_CHECK_BLOCKS blocks.
+ *
+ *  The notes are divided into PARTS parts, note N in part N % PARTS, so
+ *  that neighboring notes of a chord fall in different parts.  A block is
+ *  mixed by rendering each part separately and then adding the parts in
+ *  order.  Floating-point addition is not associative, so fixing the
+ *  parts and the order in which they are added, rather than leaving them
+ *  to the number of threads at work, is what lets ParallelMixer produce
+ *  exactly the samples mix does.
+ */
+class Voices implements Mixer {
+
+    /** Number of MIDI notes. */
+    static final int NOTES = 128;
+
+    /** Number of parts into which the notes are divided. */
+    static final int PARTS = 8;
+
+    /** Level below which a note is inaudible: half the step of 16-bit
+     *  output. */
+    static final double SILENCE = 1.0 / (1 << 16);
+
+    /** Number of blocks mixed between checks for decayed notes. */
+    static final int DECAY_CHECK_BLOCKS = 16;
+
+    /** Strings for all NOTES notes, none sounding, plucked with noise
+     *  drawn from RANDOM. */
+    Voices(Random random) {
+        this.random = random;
+        strings = new GuitarString[NOTES];
+        vol = new double[NOTES];
+        active = new int[PARTS][NOTES / PARTS];
+        counts = new int[PARTS];
+        slot = new int[NOTES];
+        for (int i = 0; i < NOTES; i += 1) {
+            strings[i] = new GuitarString(440.0 * Math.pow(2.0, (i - 69.0) / 12.0));
+            slot[i] = -1;
+        }
+    }
+
+    /** Play NOTE at VELOCITY, from 0 to 127.  Velocity 0 releases the
+     *  note, as MIDI has it. */
+    void noteOn(int note, int velocity) {
+        if (velocity == 0) {
+            noteOff(note);
+            return;
+        }
+        vol[note] = velocity / 127.0;
+        strings[note].pluck(random);
+        if (slot[note] < 0) {
+            int part = note % PARTS;
+            slot[note] = counts[part];
+            active[part][counts[part]] = note;
+            counts[part] += 1;
+        }
+    }
+
+    /** Release NOTE, silencing it. */
+    void noteOff(int note) {
+        vol[note] = 0.0;
+        int k = slot[note];
+        if (k >= 0) {
+            int part = note % PARTS;
+            int[] notes = active[part];
+            counts[part] -= 1;
+            notes[k] = notes[counts[part]];
+            slot[notes[k]] = k;
+            slot[note] = -1;
+        }
+    }
+
+    /** Return the number of notes sounding. */
+    int activeCount() {
+        int n = 0;
+        for (int count : counts) {
+            n += count;
+        }
+        return n;
+    }
+
+    /** Return true iff NOTE is sounding. */
+    boolean isActive(int note) {
+        return slot[note] >= 0;
+    }
+
+    @Override
+    public void mix(double[] out, int n) {
+        if (partials == null || partials[0].length < n) {
+            partials = new double[PARTS][n];
+        }
+        for (int part = 0; part < PARTS; part += 1) {
+            renderPart(part, part == 0 ? out : partials[part], n);
+        }
+        addParts(out, partials, n);
+        finishBlock();
+    }
+
+    /** Set OUT[0], ..., OUT[N - 1] to the next N samples of the sounding
+     *  notes of part number PART, mixed.  Parts may be rendered at the
+     *  same time by different threads.  Parts other than 0 with no notes
+     *  sounding are left alone, as addParts skips them. */
+    void renderPart(int part, double[] out, int n) {
+        if (part != 0 && counts[part] == 0) {
+            return;
+        }
+        Arrays.fill(out, 0, n, 0.0);
+        int[] notes = active[part];
+        for (int k = 0; k < counts[part]; k += 1) {
+            int note = notes[k];
+            strings[note].render(out, 0, n, vol[note]);
+        }
+    }
+
+    /** Add PARTIALS[1], ..., PARTIALS[PARTS - 1], in that order, to
+     *  OUT[0], ..., OUT[N - 1], which holds part 0.  Parts with no notes
+     *  sounding are skipped: they are all +0.0, since a sum of doubles
+     *  begun at +0.0 is never -0.0, and adding +0.0 changes no sample. */
+    void addParts(double[] out, double[][] partials, int n) {
+        for (int part = 1; part < PARTS; part += 1) {
+            if (counts[part] == 0) {
+                continue;
+            }
+            double[] partial = partials[part];
+            for (int i = 0; i < n; i += 1) {
+                out[i] += partial[i];
+            }
+        }
+    }
+
+    /** Note that a block has been mixed, checking for decayed notes
+     *  every DECAY_CHECK_BLOCKS blocks. */
+    void finishBlock() {
+        blocks += 1;
+        if (blocks == DECAY_CHECK_BLOCKS) {
+            blocks = 0;
+            dropDecayed();
+        }
+    }
+
+    /** Release every sounding note whose future samples are all below
+     *  SILENCE. */
+    void dropDecayed() {
+        for (int part = 0; part < PARTS; part += 1) {
+            for (int k = counts[part] - 1; k >= 0; k -= 1) {
+                int note = active[part][k];
+                if (vol[note] * strings[note].peak() < SILENCE) {
+                    noteOff(note);
+                }
+            }
+        }
+    }
+
+    /** Source of the noise with which strings are plucked. */
+    private final Random random;
+    /** The string for each note. */
+    private final GuitarString[] strings;
+    /** Volume of each note, 0 for notes not sounding. */
+    private final double[] vol;
+    /** ACTIVE[P][0], ..., ACTIVE[P][COUNTS[P] - 1] are the sounding notes
+     *  of part P. */
+    private final int[][] active;
+    /** Number of sounding notes in each part. */
+    private final int[] counts;
+    /** Position of each note in its part's list, or -1 if it is not
+     *  sounding. */
+    private final int[] slot;
+    /** Buffers for parts 1 and up, used by mix. */
+    private double[][] partials;
+    /** Number of blocks mixed since the last check for decayed notes. */
+    private int blocks;
+}
@@ -0,0 +1,126 @@
+package gh2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/** Writes samples to a 16-bit mono PCM WAV file.
+ *
+ *  Samples are converted and clipped as StdAudio plays them, collected
+ *  in a direct buffer of BUFFER_SIZE bytes, and written to a FileChannel
+ *  each time it fills.  The lengths in the header are filled in on
+ *  close, so the file is not valid until then.  A WAV file records its
+ *  length in 32 bits, which limits it to MAX_SAMPLES, about 2^30
+ *  samples or nearly seven hours at 44100 samples a second; a write
+ *  that would pass the limit throws an IOException instead.
+ */
+class WavWriter implements Closeable {
+
+    /** Size in bytes of the buffer of converted samples. */
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /** Length in bytes of the header. */
+    static final int HEADER_LENGTH = 44;
+
+    /** Most samples a file can hold, keeping the lengths in the header
+     *  below 2^31 for readers that take them as signed. */
+    static final long MAX_SAMPLES =
+        (Integer.MAX_VALUE - (HEADER_LENGTH - 8)) / 2;
+
+    /** Largest 16-bit sample. */
+    private static final double MAX_16_BIT = Short.MAX_VALUE;
+
+    /** A writer of samples at SAMPLERATE samples a second to the file at
+     *  PATH, replacing its contents. */
+    WavWriter(Path path, int sampleRate) throws IOException {
+        this(path, sampleRate, MAX_SAMPLES);
+    }
+
+    /** As above, but holding at most MAXSAMPLES samples.  Used for
+     *  testing. */
+    WavWriter(Path path, int sampleRate, long maxSamples) throws IOException {
+        this.maxSamples = maxSamples;
+        channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0x46464952)            /* "RIFF" */
+            .putInt(0)                       /* Length of the rest. */
+            .putInt(0x45564157)              /* "WAVE" */
+            .putInt(0x20746d66)              /* "fmt " */
+            .putInt(16)                      /* Length of the format. */
+            .putShort((short) 1)             /* PCM. */
+            .putShort((short) 1)             /* Mono. */
+            .putInt(sampleRate)
+            .putInt(2 * sampleRate)          /* Bytes a second. */
+            .putShort((short) 2)             /* Bytes a sample. */
+            .putShort((short) 16)            /* Bits a sample. */
+            .putInt(0x61746164)              /* "data" */
+            .putInt(0);                      /* Length of the samples. */
+    }
+
+    /** Write SAMPLES[0], ..., SAMPLES[N - 1], each between -1 and 1, or
+     *  clipped to that range.  Writes nothing and throws an IOException
+     *  if that would make the file too long for its header. */
+    void write(double[] samples, int n) throws IOException {
+        if (n > maxSamples - count) {
+            throw new IOException("WAV file would exceed " + maxSamples
+                                  + " samples");
+        }
+        for (int i = 0; i < n; i += 1) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            double x = Math.max(-1.0, Math.min(1.0, samples[i]));
+            buffer.putShort((short) (MAX_16_BIT * x));
+        }
+        count += n;
+    }
+
+    /** Return the number of samples written. */
+    long samples() {
+        return count;
+    }
+
+    /** Write any buffered samples and the lengths in the header, and
+     *  close the file. */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            long data = 2 * count;
+            ByteBuffer length = ByteBuffer.allocate(4)
+                .order(ByteOrder.LITTLE_ENDIAN);
+            length.putInt(0, (int) (data + HEADER_LENGTH - 8));
+            channel.write(length, 4);
+            length.clear().putInt(0, (int) data);
+            channel.write(length, HEADER_LENGTH - 4);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /** Write out the contents of the buffer. */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** The file. */
+    private final FileChannel channel;
+    /** Converted samples not yet written. */
+    private final ByteBuffer buffer;
+    /** Number of samples written. */
+    private long count;
+    /** Most samples the file may hold. */
+    private final long maxSamples;
+}
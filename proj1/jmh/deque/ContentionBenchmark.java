@@ -0,0 +1,229 @@
+package deque;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Throughput of deques shared between two threads.
+ *
+ *  In the "queue" group, one thread adds at the back while another
+ *  removes from the front, as the producer of audio events and the
+ *  synthesis thread do.  In the "stacks" group, each thread pushes and
+ *  pops at its own end.  Each group shares one deque, filled with FILL
+ *  items at the start of each iteration so that the two ends start apart.
+ *
+ *  The two sides of the queue do not run at the same rate, so left alone
+ *  the deque would grow without bound or drain to empty, and the two
+ *  outcomes measure different things.  Instead each side counts its own
+ *  operations, and the producer waits while the deque holds HIGH_WATER
+ *  items and the consumer while it holds LOW_WATER, so that every
+ *  invocation adds or removes an item from a deque of moderate size.
+ *  The waits end when JMH stops the iteration, so that neither thread
+ *  waits for one that has finished.
+ *
+ *  TwoLockDeque is compared with
+ *  an ArrayDeque guarded by one monitor and with the JDK's lock-free
+ *  ConcurrentLinkedDeque and single-lock LinkedBlockingDeque.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+
+    /** Items in the deque when each iteration starts. */
+    static final int FILL = 1000;
+
+    /** Most and fewest items in the deque in the "queue" group. */
+    static final int HIGH_WATER = 2 * FILL, LOW_WATER = FILL / 2;
+
+    /** Implementation to measure. */
+    @Param({"TwoLockDeque", "synchronized", "ConcurrentLinkedDeque",
+            "LinkedBlockingDeque"})
+    public String impl;
+
+    /** The shared deque. */
+    private Shared _deque;
+
+    /** Items added by the producer and removed by the consumer in the
+     *  "queue" group, each written only by its own thread. */
+    private final AtomicLong _added = new AtomicLong(),
+        _removed = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        _deque = switch (impl) {
+            case "TwoLockDeque" -> new OfDeque(new TwoLockDeque<>());
+            case "synchronized" -> new Synchronized();
+            case "ConcurrentLinkedDeque" ->
+                new OfJdk(new ConcurrentLinkedDeque<>());
+            case "LinkedBlockingDeque" ->
+                new OfJdk(new LinkedBlockingDeque<>());
+            default -> throw new IllegalArgumentException("no deque " + impl);
+        };
+        for (int i = 0; i < FILL; i += 1) {
+            _deque.addLast(i);
+        }
+        _added.set(FILL);
+        _removed.set(0);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(1)
+    public void produce(Control control) {
+        long added = _added.getPlain();
+        while (added - _removed.getAcquire() >= HIGH_WATER
+               && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+        _deque.addLast(1);
+        _added.setRelease(added + 1);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(1)
+    public Integer consume(Control control) {
+        long removed = _removed.getPlain();
+        while (_added.getAcquire() - removed <= LOW_WATER
+               && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+        Integer x = _deque.removeFirst();
+        _removed.setRelease(removed + 1);
+        return x;
+    }
+
+    @Benchmark
+    @Group("stacks")
+    @GroupThreads(1)
+    public Integer front() {
+        _deque.addFirst(1);
+        return _deque.removeFirst();
+    }
+
+    @Benchmark
+    @Group("stacks")
+    @GroupThreads(1)
+    public Integer back() {
+        _deque.addLast(1);
+        return _deque.removeLast();
+    }
+
+    /** The operations measured, returning null from an empty deque. */
+    interface Shared {
+        void addFirst(Integer x);
+
+        void addLast(Integer x);
+
+        Integer removeFirst();
+
+        Integer removeLast();
+    }
+
+    /** A thread-safe Deque. */
+    static final class OfDeque implements Shared {
+        OfDeque(Deque<Integer> deque) {
+            this.deque = deque;
+        }
+
+        @Override
+        public void addFirst(Integer x) {
+            deque.addFirst(x);
+        }
+
+        @Override
+        public void addLast(Integer x) {
+            deque.addLast(x);
+        }
+
+        @Override
+        public Integer removeFirst() {
+            return deque.removeFirst();
+        }
+
+        @Override
+        public Integer removeLast() {
+            return deque.removeLast();
+        }
+
+        /** The deque. */
+        private final Deque<Integer> deque;
+    }
+
+    /** An ArrayDeque guarded by its own monitor. */
+    static final class Synchronized implements Shared {
+        @Override
+        public synchronized void addFirst(Integer x) {
+            deque.addFirst(x);
+        }
+
+        @Override
+        public synchronized void addLast(Integer x) {
+            deque.addLast(x);
+        }
+
+        @Override
+        public synchronized Integer removeFirst() {
+            return deque.removeFirst();
+        }
+
+        @Override
+        public synchronized Integer removeLast() {
+            return deque.removeLast();
+        }
+
+        /** The deque. */
+        private final ArrayDeque<Integer> deque = new ArrayDeque<>();
+    }
+
+    /** A thread-safe deque from java.util.concurrent. */
+    static final class OfJdk implements Shared {
+        OfJdk(java.util.Deque<Integer> deque) {
+            this.deque = deque;
+        }
+
+        @Override
+        public void addFirst(Integer x) {
+            deque.addFirst(x);
+        }
+
+        @Override
+        public void addLast(Integer x) {
+            deque.addLast(x);
+        }
+
+        @Override
+        public Integer removeFirst() {
+            return deque.pollFirst();
+        }
+
+        @Override
+        public Integer removeLast() {
+            return deque.pollLast();
+        }
+
+        /** The deque. */
+        private final java.util.Deque<Integer> deque;
+    }
+}
@@ -0,0 +1,130 @@
+package deque;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of the operations at the ends of each deque, of iterating
+ *  over it, and of a mix of end operations, on deques of SIZE items.
+ *
+ *  Each benchmark leaves the deque as large as it found it, so that a
+ *  whole iteration runs at one size: an add is paired with a remove, and
+ *  the mixed workload replays a fixed sequence whose adds and removes
+ *  balance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeBenchmark {
+
+    /** Length of the mixed workload's sequence of operations. */
+    static final int MIX_LENGTH = 1024;
+
+    /** Implementation to measure (see DequeOps). */
+    @Param({DequeOps.LINKED, DequeOps.ARRAY, DequeOps.DOUBLE_ARRAY,
+            DequeOps.JDK, DequeOps.TWO_LOCK, DequeOps.CHUNKED})
+    public String impl;
+
+    /** Number of items in the deque. */
+    @Param({"1000", "1000000"})
+    public int size;
+
+    /** The deque. */
+    private DequeOps _deque;
+
+    /** Operations of the mixed workload: 0 to 3 are addFirst, addLast,
+     *  removeFirst, and removeLast, and 4 reads the first item. */
+    private final byte[] _mix = new byte[MIX_LENGTH];
+
+    /** Position in _mix of the next operation. */
+    private int _next;
+
+    @Setup
+    public void fill() {
+        _deque = DequeOps.filled(impl, size);
+        Random random = new Random(61);
+        int reads = MIX_LENGTH / 5;
+        int adds = (MIX_LENGTH - reads) / 2;
+        for (int k = 0; k < MIX_LENGTH; k += 1) {
+            if (k < adds) {
+                _mix[k] = (byte) random.nextInt(2);
+            } else if (k < 2 * adds) {
+                _mix[k] = (byte) (2 + random.nextInt(2));
+            } else {
+                _mix[k] = 4;
+            }
+        }
+        for (int k = MIX_LENGTH - 1; k > 0; k -= 1) {
+            int j = random.nextInt(k + 1);
+            byte t = _mix[k];
+            _mix[k] = _mix[j];
+            _mix[j] = t;
+        }
+    }
+
+    /** Push and pop at the front, as a stack. */
+    @Benchmark
+    public double addRemoveFirst() {
+        _deque.addFirst(1.0);
+        return _deque.removeFirst();
+    }
+
+    /** Push and pop at the back, as a stack. */
+    @Benchmark
+    public double addRemoveLast() {
+        _deque.addLast(1.0);
+        return _deque.removeLast();
+    }
+
+    /** Add at the back and remove from the front, as a queue, so that the
+     *  items move around the whole structure. */
+    @Benchmark
+    public double addLastRemoveFirst() {
+        _deque.addLast(1.0);
+        return _deque.removeFirst();
+    }
+
+    /** Visit every item with the deque's iterator. */
+    @Benchmark
+    public double iterate() {
+        return _deque.sum();
+    }
+
+    /** One operation from a shuffled mix of equal numbers of adds and
+     *  removes at either end, with a fifth of the operations reading the
+     *  first item instead.  The mix never strays more than MIX_LENGTH / 2
+     *  items from SIZE. */
+    @Benchmark
+    public double mixed() {
+        int op = _mix[_next];
+        _next = (_next + 1) & (MIX_LENGTH - 1);
+        switch (op) {
+        case 0:
+            _deque.addFirst(1.0);
+            return 0;
+        case 1:
+            _deque.addLast(1.0);
+            return 0;
+        case 2:
+            return _deque.removeFirst();
+        case 3:
+            return _deque.removeLast();
+        default:
+            return _deque.peekFirst();
+        }
+    }
+}
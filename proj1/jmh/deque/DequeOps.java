@@ -0,0 +1,225 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/** The operations the benchmarks make, on doubles, so that one benchmark
+ *  method can drive any deque.  The generic deques hold boxed Doubles, as
+ *  a Deque<Double> would in use, so their boxing shows up in the
+ *  allocation the GC profiler reports; DoubleArrayDeque holds unboxed
+ *  doubles.  Each fork of a benchmark uses a single implementation, so
+ *  the calls through this interface are monomorphic.
+ */
+interface DequeOps {
+
+    /** Names of the implementations, as used in @Param lists. */
+    String LINKED = "LinkedListDeque", ARRAY = "ArrayDeque",
+        DOUBLE_ARRAY = "DoubleArrayDeque", JDK = "java.util.ArrayDeque",
+        TWO_LOCK = "TwoLockDeque", CHUNKED = "ChunkedDeque";
+
+    void addFirst(double x);
+
+    void addLast(double x);
+
+    double removeFirst();
+
+    double removeLast();
+
+    /** Return the item at INDEX.  Not supported by JDK, which has no
+     *  indexed access. */
+    double get(int index);
+
+    /** Return the first item. */
+    double peekFirst();
+
+    int size();
+
+    /** Return the sum of all items, visited by the deque's iterator. */
+    double sum();
+
+    /** Return an empty deque of the implementation called NAME. */
+    static DequeOps create(String name) {
+        return switch (name) {
+            case LINKED -> new OfDeque(new LinkedListDeque<>());
+            case ARRAY -> new OfDeque(new ArrayDeque<>());
+            case DOUBLE_ARRAY -> new OfDoubles(new DoubleArrayDeque());
+            case JDK -> new OfJdk(new java.util.ArrayDeque<>());
+            case TWO_LOCK -> new OfDeque(new TwoLockDeque<>());
+            case CHUNKED -> new OfDeque(new ChunkedDeque<>());
+            default -> throw new IllegalArgumentException("no deque " + name);
+        };
+    }
+
+    /** Return a deque of the implementation called NAME holding 0, 1, ...,
+     *  SIZE-1. */
+    static DequeOps filled(String name, int size) {
+        DequeOps ops = create(name);
+        for (int i = 0; i < size; i += 1) {
+            ops.addLast(i);
+        }
+        return ops;
+    }
+
+    /** A Deque of Doubles. */
+    final class OfDeque implements DequeOps {
+        OfDeque(Deque<Double> deque) {
+            this.deque = deque;
+        }
+
+        @Override
+        public void addFirst(double x) {
+            deque.addFirst(x);
+        }
+
+        @Override
+        public void addLast(double x) {
+            deque.addLast(x);
+        }
+
+        @Override
+        public double removeFirst() {
+            return deque.removeFirst();
+        }
+
+        @Override
+        public double removeLast() {
+            return deque.removeLast();
+        }
+
+        @Override
+        public double get(int index) {
+            return deque.get(index);
+        }
+
+        @Override
+        public double peekFirst() {
+            return deque.get(0);
+        }
+
+        @Override
+        public int size() {
+            return deque.size();
+        }
+
+        @Override
+        public double sum() {
+            double sum = 0;
+            for (double x : deque) {
+                sum += x;
+            }
+            return sum;
+        }
+
+        /** The deque. */
+        private final Deque<Double> deque;
+    }
+
+    /** A DoubleArrayDeque. */
+    final class OfDoubles implements DequeOps {
+        OfDoubles(DoubleArrayDeque deque) {
+            this.deque = deque;
+        }
+
+        @Override
+        public void addFirst(double x) {
+            deque.addFirst(x);
+        }
+
+        @Override
+        public void addLast(double x) {
+            deque.addLast(x);
+        }
+
+        @Override
+        public double removeFirst() {
+            return deque.removeFirst();
+        }
+
+        @Override
+        public double removeLast() {
+            return deque.removeLast();
+        }
+
+        @Override
+        public double get(int index) {
+            return deque.get(index);
+        }
+
+        @Override
+        public double peekFirst() {
+            return deque.get(0);
+        }
+
+        @Override
+        public int size() {
+            return deque.size();
+        }
+
+        @Override
+        public double sum() {
+            double sum = 0;
+            for (PrimitiveIterator.OfDouble i = deque.iterator();
+                 i.hasNext(); ) {
+                sum += i.nextDouble();
+            }
+            return sum;
+        }
+
+        /** The deque. */
+        private final DoubleArrayDeque deque;
+    }
+
+    /** The JDK's java.util.ArrayDeque of Doubles. */
+    final class OfJdk implements DequeOps {
+        OfJdk(java.util.ArrayDeque<Double> deque) {
+            this.deque = deque;
+        }
+
+        @Override
+        public void addFirst(double x) {
+            deque.addFirst(x);
+        }
+
+        @Override
+        public void addLast(double x) {
+            deque.addLast(x);
+        }
+
+        @Override
+        public double removeFirst() {
+            return deque.removeFirst();
+        }
+
+        @Override
+        public double removeLast() {
+            return deque.removeLast();
+        }
+
+        @Override
+        public double get(int index) {
+            throw new UnsupportedOperationException("no indexed access");
+        }
+
+        @Override
+        public double peekFirst() {
+            return deque.peekFirst();
+        }
+
+        @Override
+        public int size() {
+            return deque.size();
+        }
+
+        @Override
+        public double sum() {
+            double sum = 0;
+            for (Iterator<Double> i = deque.iterator(); i.hasNext(); ) {
+                sum += i.next();
+            }
+            return sum;
+        }
+
+        /** The deque. */
+        private final java.util.ArrayDeque<Double> deque;
+    }
+}
@@ -0,0 +1,58 @@
+package deque;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Distribution of the time taken by addLast on a growing deque.  Each
+ *  deque grows from empty to LIMIT items and is then replaced by an empty
+ *  one, so the samples include every resize on the way.  The mean hides
+ *  the resizes; the high percentiles show them, as the copy of every item
+ *  in ArrayDeque and java.util.ArrayDeque, and the copy of block
+ *  references only in ChunkedDeque.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrowBenchmark {
+
+    /** Implementation to measure (see DequeOps). */
+    @Param({DequeOps.ARRAY, DequeOps.DOUBLE_ARRAY, DequeOps.JDK,
+            DequeOps.CHUNKED})
+    public String impl;
+
+    /** Number of items at which a deque is replaced. */
+    @Param({"1000000"})
+    public int limit;
+
+    /** The deque. */
+    private DequeOps _deque;
+
+    @Setup
+    public void create() {
+        _deque = DequeOps.create(impl);
+    }
+
+    /** Add one item at the back. */
+    @Benchmark
+    public int addLast() {
+        if (_deque.size() == limit) {
+            _deque = DequeOps.create(impl);
+        }
+        _deque.addLast(1.0);
+        return _deque.size();
+    }
+}
@@ -0,0 +1,66 @@
+package deque;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of get(I) at random positions.  java.util.ArrayDeque has no
+ *  indexed access, so it is not measured here; LinkedListDeque takes time
+ *  proportional to the distance from the nearer end.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexedGetBenchmark {
+
+    /** Number of precomputed positions, cycled through. */
+    static final int POSITIONS = 1024;
+
+    /** Implementation to measure (see DequeOps). */
+    @Param({DequeOps.LINKED, DequeOps.ARRAY, DequeOps.DOUBLE_ARRAY,
+            DequeOps.CHUNKED})
+    public String impl;
+
+    /** Number of items in the deque. */
+    @Param({"1000", "1000000"})
+    public int size;
+
+    /** The deque. */
+    private DequeOps _deque;
+
+    /** Positions to get, in order. */
+    private final int[] _positions = new int[POSITIONS];
+
+    /** Index in _positions of the next position. */
+    private int _next;
+
+    @Setup
+    public void fill() {
+        _deque = DequeOps.filled(impl, size);
+        Random random = new Random(2048);
+        for (int k = 0; k < POSITIONS; k += 1) {
+            _positions[k] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public double get() {
+        int index = _positions[_next];
+        _next = (_next + 1) & (POSITIONS - 1);
+        return _deque.get(index);
+    }
+}
@@ -0,0 +1,121 @@
+package gh2;
+
+import deque.DoubleArrayDeque;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of mixing a block of BLOCK samples from VOICES sounding
+ *  strings: one sample at a time through a DoubleArrayDeque per string,
+ *  as GuitarString did before it kept a plain array; one sample at a
+ *  time with sample and tic; and a block at a time with render.  Each
+ *  operation is one block, so the ratio of two scores is the ratio of the
+ *  polyphony each can sustain in real time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SynthesisBenchmark {
+
+    /** Number of strings sounding. */
+    @Param({"16", "128"})
+    public int voices;
+
+    /** Number of samples in a block. */
+    @Param({"256", "1024"})
+    public int block;
+
+    /** Energy decay factor of a string, as in GuitarString. */
+    private static final double DECAY = .996;
+
+    /** The strings, tuned to MIDI notes spread evenly over the 128 that
+     *  Voices plays, all below the Nyquist frequency. */
+    private GuitarString[] _strings;
+
+    /** The same strings, each held in a deque as GuitarString used to. */
+    private DoubleArrayDeque[] _deques;
+
+    /** Gain of each string. */
+    private double[] _gains;
+
+    /** The block being mixed. */
+    private double[] _out;
+
+    @Setup
+    public void pluck() {
+        Random random = new Random(61);
+        _strings = new GuitarString[voices];
+        _deques = new DoubleArrayDeque[voices];
+        _gains = new double[voices];
+        for (int v = 0; v < voices; v += 1) {
+            int note = v * 128 / voices;
+            double frequency = 440.0 * Math.pow(2.0, (note - 69.0) / 12.0);
+            _strings[v] = new GuitarString(frequency);
+            _strings[v].pluck(random);
+            int period = (int) Math.round(44100 / frequency);
+            _deques[v] = new DoubleArrayDeque(period);
+            for (int i = 0; i < period; i += 1) {
+                _deques[v].addLast(random.nextDouble() - 0.5);
+            }
+            _gains[v] = 0.5 + 0.5 * random.nextDouble();
+        }
+        _out = new double[block];
+    }
+
+    /** Mix the block one sample at a time, ticking each string through
+     *  its deque, as GuitarPlayer and GuitarString used to. */
+    @Benchmark
+    public double[] perSampleDeque() {
+        for (int k = 0; k < _out.length; k += 1) {
+            double sum = 0.0;
+            for (int v = 0; v < _deques.length; v += 1) {
+                DoubleArrayDeque d = _deques[v];
+                double front = d.removeFirst();
+                sum += _gains[v] * front;
+                d.addLast(DECAY * 0.5 * (front + d.get(0)));
+            }
+            _out[k] = sum;
+        }
+        return _out;
+    }
+
+    /** Mix the block one sample at a time with sample and tic on the
+     *  array-backed strings. */
+    @Benchmark
+    public double[] perSample() {
+        for (int k = 0; k < _out.length; k += 1) {
+            double sum = 0.0;
+            for (int v = 0; v < _strings.length; v += 1) {
+                sum += _gains[v] * _strings[v].sample();
+                _strings[v].tic();
+            }
+            _out[k] = sum;
+        }
+        return _out;
+    }
+
+    /** Mix the block one string at a time with render. */
+    @Benchmark
+    public double[] render() {
+        Arrays.fill(_out, 0.0);
+        for (int v = 0; v < _strings.length; v += 1) {
+            _strings[v].render(_out, 0, _out.length, _gains[v]);
+        }
+        return _out;
+    }
+}